@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+
+set -e
+
+jar_path=$(ls cli/target/*-jar-with-dependencies.jar)
+archive_path=${jar_path%.jar}.jsa
+class_list=$(mktemp)
+training_input=$(mktemp)
+trap "rm -f ${class_list} ${training_input}" EXIT
+
+# Static AppCDS works from Java 10 on, unlike -XX:ArchiveClassesAtExit (Java 13), so it covers the release 11 target.
+# A short solve job as training run lists the loaded classes, the archive is dumped from that list.
+head -n 101 sudoku-10000.csv > ${training_input}
+java -XX:DumpLoadedClassList=${class_list} -jar ${jar_path} solve ${training_input} /dev/null > /dev/null
+java -Xshare:dump -XX:SharedClassListFile=${class_list} -XX:SharedArchiveFile=${archive_path} -cp ${jar_path} > /dev/null
+
+echo "Created class data sharing archive ${archive_path}"
@@ -3,4 +3,6 @@
 set -e
 
 mvn clean package
+# The archive only speeds up the start, so the build does not fail without it
+./build-cds.sh || echo "Warning: could not create the class data sharing archive, run.sh starts without it" >&2
 
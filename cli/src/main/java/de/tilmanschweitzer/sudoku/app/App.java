@@ -6,52 +6,135 @@ import de.tilmanschweitzer.sudoku.solver.BacktrackingSudokuSolver;
 import de.tilmanschweitzer.sudoku.solver.DeductiveSudokuSolver;
 import de.tilmanschweitzer.sudoku.solver.SudokuSolver;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+
 public class App {
 
+    private static final Map<String, Supplier<Command>> commands = Map.of(
+            "dedup", DeduplicationCommand::new,
+            "solve", StreamSolveCommand::new,
+            "merge", MergeStatisticsCommand::new,
+            "server", ServerCommand::new,
+            "tcp", TcpServerCommand::new,
+            "calibrate", CalibrateCommand::new,
+            "bench", BenchmarkCommand::new,
+            "verify", VerifyCommand::new,
+            "minimize", MinimizeCommand::new
+    );
+
     public static void main(String[] args) throws IOException {
+        if (args.length > 0 && commands.containsKey(args[0])) {
+            commands.get(args[0]).get().run(Arrays.stream(args).skip(1).collect(Collectors.toUnmodifiableList()));
+            return;
+        }
+
         if (args.length < 1) {
             System.err.println("No filename given");
             System.exit(1);
         }
 
-        final String filename = args[0];
-        final int offset = 1;
-        final int limit = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        final CommandLine commandLine = CommandLine.parse(Arrays.asList(args));
+        final String filename = commandLine.getPositionalArgument(0, "filename");
+        final int limit = Integer.parseInt(commandLine.getPositionalArgument(1, "limit", "100"));
+        final InputSlice slice = InputSlice.fromCommandLine(commandLine, CorpusFiles.size(filename));
 
         final SudokuSolver sudokuSolver = DeductiveSudokuSolver.createWithFallbackSolver(new BacktrackingSudokuSolver());
-        final ExecutionTimer executionTimer = new ExecutionTimer();
-
-        try (BufferedReader bufferedReader = Files.newBufferedReader(Path.of(filename))) {
-            final List<Boolean> solvedSudokus = bufferedReader.lines().skip(offset).limit(limit).map((line) -> {
-                final String[] split = line.split(",");
-                if (split.length < 2 || split[0].length() != 81 || split[1].length() != 81) {
-                    throw new SudokuFormatException();
-                }
-
-                final Sudoku unsolvedSudoku = Sudoku.fromString(split[0]);
-                final Sudoku expectedSolution = Sudoku.fromString(split[1]);
-
-                final Sudoku solvedSudoku = executionTimer.execute(() -> sudokuSolver.solve(unsolvedSudoku));
-
-                return solvedSudoku.equals(expectedSolution);
-            }).collect(Collectors.toUnmodifiableList());
-
-            long numberOfSolvedSudokus = solvedSudokus.stream().filter(Boolean::booleanValue).count();
-            System.out.println("Solved " + numberOfSolvedSudokus + " of " + solvedSudokus.size() + " sudokus");
-            System.out.println("==============================\n");
-            System.out.println("Execution time statistics:");
-            System.out.println("Sum of execution times: " + executionTimer.getExecutionTimeSum().orElse(0L) + "ms");
-            System.out.println("Average execution time: " + executionTimer.getAverageExecutionTime().orElse(0L) + "ms");
-            System.out.println("Median execution time: " + executionTimer.getMedianExecutionTime().orElse(0L) + "ms");
-            System.out.println("Min execution time: " + executionTimer.getMinExecutionTime().orElse(0L) + "ms");
-            System.out.println("Max execution time: " + executionTimer.getMaxExecutionTime().orElse(0L) + "ms");
+        final MappedCorpusReader.LineFolder<SolveSummary> lineFolder = (summary, buffer, start, end) -> {
+            final PuzzleResult result = solveLine(sudokuSolver, buffer, start, end);
+            if (result != null) {
+                summary.record(result);
+            }
+        };
+        final SolveSummary summary;
+        if (CorpusFiles.STANDARD_STREAM.equals(filename) || CorpusFiles.isCompressed(filename)) {
+            summary = solveSequentially(filename, slice, limit, lineFolder);
+        } else {
+            summary = MappedCorpusReader.foldLines(Path.of(filename), slice, limit, ForkJoinPool.commonPool(), SolveSummary::new, lineFolder, SolveSummary::merge);
+        }
+
+        final ExecutionTimer executionTimer = summary.executionTimer;
+        final SolveStatistics statistics = summary.statistics;
+        System.out.println("Solved " + statistics.getNumberOfResults(PuzzleResult.Status.SOLVED) + " of " + statistics.getNumberOfResults() + " sudokus");
+        System.out.println("==============================\n");
+        System.out.println("Execution time statistics:");
+        System.out.println("Sum of execution times: " + executionTimer.getExecutionTimeSum().orElse(0L) + "ms");
+        System.out.println("Average execution time: " + executionTimer.getAverageExecutionTime().orElse(0L) + "ms");
+        System.out.println("Median execution time: " + executionTimer.getMedianExecutionTime().orElse(0L) + "ms");
+        System.out.println("Min execution time: " + executionTimer.getMinExecutionTime().orElse(0L) + "ms");
+        System.out.println("Max execution time: " + executionTimer.getMaxExecutionTime().orElse(0L) + "ms");
+
+        final Optional<String> statsFile = commandLine.getOption("stats");
+        if (statsFile.isPresent()) {
+            statistics.writeTo(Path.of(statsFile.get()));
+        }
+    }
+
+    /*
+     * Solves the puzzle of a "puzzle,solution" line and compares it with the solution,
+     * returns null for the header and blank lines
+     */
+    private static PuzzleResult solveLine(SudokuSolver sudokuSolver, ByteBuffer buffer, int start, int end) {
+        if (end == start || CorpusFiles.isHeader(buffer, start, end)) {
+            return null;
+        }
+        final int solutionStart = start + SUDOKU_SIZE + 1;
+        final int solutionEnd = solutionStart + SUDOKU_SIZE;
+        if (solutionEnd > end || buffer.get(solutionStart - 1) != ',' || (solutionEnd < end && buffer.get(solutionEnd) != ',')) {
+            throw new SudokuFormatException();
+        }
+        final Sudoku unsolvedSudoku = CorpusFiles.parsePuzzle(buffer, start, solutionStart - 1);
+        final Sudoku expectedSolution = CorpusFiles.parsePuzzle(buffer, solutionStart, solutionEnd);
+        if (unsolvedSudoku == null || expectedSolution == null) {
+            throw new SudokuFormatException();
+        }
+
+        final long startTime = System.nanoTime();
+        final Sudoku solvedSudoku = sudokuSolver.solve(unsolvedSudoku);
+        final long nanos = System.nanoTime() - startTime;
+
+        final boolean solved = solvedSudoku.equals(expectedSolution);
+        return new PuzzleResult(unsolvedSudoku.toCompactString(), solvedSudoku.toCompactString(), solved ? PuzzleResult.Status.SOLVED : PuzzleResult.Status.UNSOLVED, nanos);
+    }
+
+    /*
+     * Stdin and compressed files cannot be mapped
+     */
+    private static SolveSummary solveSequentially(String filename, InputSlice slice, int limit, MappedCorpusReader.LineFolder<SolveSummary> lineFolder) throws IOException {
+        final SolveSummary summary = new SolveSummary();
+        try (CorpusLineReader reader = CorpusLineReader.open(filename, slice)) {
+            while (summary.statistics.getNumberOfResults() < limit && reader.nextLine()) {
+                lineFolder.process(summary, ByteBuffer.wrap(reader.getLineBuffer()), 0, reader.getLineLength());
+            }
+        }
+        return summary;
+    }
+
+    /*
+     * Execution times and statistics of the solved puzzles of a chunk
+     */
+    private static final class SolveSummary {
+        private final ExecutionTimer executionTimer = new ExecutionTimer();
+        private final SolveStatistics statistics = new SolveStatistics();
+
+        private void record(PuzzleResult result) {
+            executionTimer.addExecutionTime(result.getNanos() / 1_000_000);
+            statistics.record(result);
+        }
+
+        private SolveSummary merge(SolveSummary other) {
+            executionTimer.merge(other.executionTimer);
+            statistics.merge(other.statistics);
+            return this;
         }
     }
 }
@@ -0,0 +1,139 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+
+/*
+ * Measures every solver configuration on fixed slices of a corpus on a single thread. Each configuration runs
+ * --warmup rounds over the slices and then --iterations measured rounds. The report contains the median throughput
+ * and p50 latency of the measured rounds, the tail latencies over all rounds and the bytes allocated per solve
+ * (only on the calling thread, so the helper threads of the portfolio solvers are not included).
+ *
+ * With --baseline=<file> the results are compared with a previous report and the command exits with status 1 if
+ * a configuration of the baseline was not measured, solves fewer puzzles, has a lower throughput or a higher p50
+ * latency than the baseline allows with --tolerance, or allocates more than --allocation-tolerance allows (both
+ * fractions of the baseline value).
+ *
+ * Usage: bench <corpus> [--slices=0-500,5000-5500,9500-10000] [--solvers=<all>] [--warmup=3] [--iterations=5]
+ *              [--output=<file>] [--baseline=<file>] [--tolerance=0.15] [--allocation-tolerance=0.1]
+ */
+public class BenchmarkCommand implements Command {
+
+    private static final String DEFAULT_SLICES = "0-500,5000-5500,9500-10000";
+    private static final double DEFAULT_TOLERANCE = 0.15;
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final String corpus = commandLine.getPositionalArgument(0, "corpus file");
+        final String slices = commandLine.getOption("slices").orElse(DEFAULT_SLICES);
+        final List<SolverConfiguration> configurations = commandLine.getOption("solvers")
+                .map(names -> Arrays.stream(names.split(",")).map(SolverConfiguration::byName).collect(toList()))
+                .orElse(Arrays.asList(SolverConfiguration.values()));
+        final int warmup = commandLine.getIntOption("warmup", 3);
+        final int iterations = commandLine.getIntOption("iterations", 5);
+        final double tolerance = commandLine.getOption("tolerance").map(Double::parseDouble).orElse(DEFAULT_TOLERANCE);
+        final double allocationTolerance = commandLine.getOption("allocation-tolerance").map(Double::parseDouble).orElse(0.1);
+
+        final List<String> puzzles = selectPuzzles(readPuzzles(corpus), slices);
+        final List<BenchmarkResult> results = new ArrayList<>();
+        for (SolverConfiguration configuration : configurations) {
+            final BenchmarkResult result = measure(configuration, puzzles, warmup, iterations);
+            System.err.printf(Locale.ROOT, "%-15s %10.1f puzzles/s  p50 %8.3fms  p99 %8.3fms  %8d bytes/solve  %d of %d solved%n",
+                    result.getSolver(), result.getThroughput(), result.getP50() / 1e6, result.getP99() / 1e6,
+                    result.getAllocatedBytesPerSolve(), result.getSolved(), result.getPuzzles());
+            results.add(result);
+        }
+
+        final BenchmarkReport report = new BenchmarkReport(slices, iterations, results);
+        final Optional<String> output = commandLine.getOption("output");
+        if (output.isPresent()) {
+            report.writeTo(Path.of(output.get()));
+        } else {
+            System.out.print(report.toJson());
+        }
+
+        final Optional<String> baselineFile = commandLine.getOption("baseline");
+        if (baselineFile.isPresent()) {
+            final List<String> regressions = report.findRegressions(BenchmarkReport.readFrom(Path.of(baselineFile.get())), tolerance, allocationTolerance);
+            if (!regressions.isEmpty()) {
+                regressions.forEach(regression -> System.err.println("Regression: " + regression));
+                System.exit(1);
+            }
+            System.err.println("No regressions compared to " + baselineFile.get());
+        }
+    }
+
+    static BenchmarkResult measure(SolverConfiguration configuration, List<String> puzzles, int warmup, int iterations) {
+        final PuzzleProcessor puzzleProcessor = new PuzzleProcessor(configuration.createSolver());
+        for (int round = 0; round < warmup; round++) {
+            puzzles.forEach(puzzleProcessor::process);
+        }
+
+        final List<LatencyHistogram> iterationLatencies = new ArrayList<>(iterations);
+        final List<Long> iterationWallNanos = new ArrayList<>(iterations);
+        long solved = 0;
+        final long allocatedBytesBefore = allocatedBytes();
+        for (int round = 0; round < iterations; round++) {
+            final LatencyHistogram latencies = new LatencyHistogram();
+            final long startTime = System.nanoTime();
+            for (String puzzle : puzzles) {
+                final PuzzleResult result = puzzleProcessor.process(puzzle);
+                latencies.record(result.getNanos());
+                if (result.getStatus() == PuzzleResult.Status.SOLVED) {
+                    solved++;
+                }
+            }
+            iterationWallNanos.add(System.nanoTime() - startTime);
+            iterationLatencies.add(latencies);
+        }
+        final long allocatedBytes = allocatedBytes() - allocatedBytesBefore;
+        return BenchmarkResult.of(configuration.getName(), iterationLatencies, iterationWallNanos, solved, allocatedBytes);
+    }
+
+    private static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static List<String> readPuzzles(String corpus) throws IOException {
+        final List<String> puzzles = new ArrayList<>();
+        try (CorpusLineReader reader = CorpusLineReader.open(corpus, InputSlice.WHOLE_INPUT)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !CorpusFiles.isHeader(line)) {
+                    puzzles.add(CorpusFiles.getPuzzle(line));
+                }
+            }
+        }
+        return puzzles;
+    }
+
+    /*
+     * Slices are ranges of puzzle indexes "<start>-<end>" with an exclusive end, separated by commas
+     */
+    static List<String> selectPuzzles(List<String> puzzles, String slices) {
+        final List<String> selectedPuzzles = new ArrayList<>();
+        for (String slice : slices.split(",")) {
+            final String[] range = slice.split("-");
+            if (range.length != 2) {
+                throw new IllegalArgumentException("Invalid slice " + slice + ", expected <start>-<end>");
+            }
+            final int start = Integer.parseInt(range[0].trim());
+            final int end = Integer.parseInt(range[1].trim());
+            if (start < 0 || end > puzzles.size() || start >= end) {
+                throw new IllegalArgumentException("Slice " + slice + " is not within the " + puzzles.size() + " puzzles of the corpus");
+            }
+            selectedPuzzles.addAll(puzzles.subList(start, end));
+        }
+        return selectedPuzzles;
+    }
+}
@@ -0,0 +1,104 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.joining;
+
+/*
+ * Results of a benchmark run for all measured solver configurations. The JSON format is written and read by this
+ * class only, so the reader just extracts the known fields.
+ */
+public class BenchmarkReport {
+
+    private static final Pattern SLICES_FIELD = Pattern.compile("\"slices\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern ITERATIONS_FIELD = Pattern.compile("\"iterations\"\\s*:\\s*(\\d+)");
+    private static final Pattern RESULTS_FIELD = Pattern.compile("\"results\"\\s*:\\s*\\[(.*)]", Pattern.DOTALL);
+    private static final Pattern RESULT_OBJECT = Pattern.compile("\\{[^{}]*}");
+
+    private final String slices;
+    private final int iterations;
+    private final List<BenchmarkResult> results;
+
+    public BenchmarkReport(String slices, int iterations, List<BenchmarkResult> results) {
+        this.slices = slices;
+        this.iterations = iterations;
+        this.results = List.copyOf(results);
+    }
+
+    public String getSlices() {
+        return slices;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public List<BenchmarkResult> getResults() {
+        return results;
+    }
+
+    public Optional<BenchmarkResult> getResult(String solver) {
+        return results.stream().filter(result -> result.getSolver().equals(solver)).findFirst();
+    }
+
+    /*
+     * Solvers without a baseline result are not compared, solvers of the baseline missing in this run are regressions
+     */
+    public List<String> findRegressions(BenchmarkReport baseline, double tolerance, double allocationTolerance) {
+        if (!slices.equals(baseline.slices) || iterations != baseline.iterations) {
+            throw new IllegalArgumentException("The baseline measured slices " + baseline.slices + " with " + baseline.iterations
+                    + " iterations, this run slices " + slices + " with " + iterations + " iterations");
+        }
+        final List<String> regressions = new ArrayList<>();
+        for (BenchmarkResult baselineResult : baseline.results) {
+            final Optional<BenchmarkResult> result = getResult(baselineResult.getSolver());
+            if (result.isPresent()) {
+                regressions.addAll(result.get().findRegressions(baselineResult, tolerance, allocationTolerance));
+            } else {
+                regressions.add(baselineResult.getSolver() + ": not measured, but in the baseline");
+            }
+        }
+        return regressions;
+    }
+
+    public String toJson() {
+        return "{\n"
+                + "  \"slices\": \"" + slices + "\",\n"
+                + "  \"iterations\": " + iterations + ",\n"
+                + "  \"results\": [\n"
+                + results.stream().map(result -> "    " + result.toJson()).collect(joining(",\n")) + "\n"
+                + "  ]\n"
+                + "}\n";
+    }
+
+    public static BenchmarkReport fromJson(String json) {
+        final Matcher slices = SLICES_FIELD.matcher(json);
+        final Matcher iterations = ITERATIONS_FIELD.matcher(json);
+        final Matcher resultsField = RESULTS_FIELD.matcher(json);
+        if (!slices.find() || !iterations.find() || !resultsField.find()) {
+            throw new IllegalArgumentException("Not a benchmark report");
+        }
+        final List<BenchmarkResult> results = new ArrayList<>();
+        final Matcher result = RESULT_OBJECT.matcher(resultsField.group(1));
+        while (result.find()) {
+            results.add(BenchmarkResult.fromJson(result.group()));
+        }
+        return new BenchmarkReport(slices.group(1), Integer.parseInt(iterations.group(1)), results);
+    }
+
+    public void writeTo(Path path) throws IOException {
+        Files.writeString(path, toJson(), StandardCharsets.UTF_8);
+    }
+
+    public static BenchmarkReport readFrom(Path path) throws IOException {
+        return fromJson(Files.readString(path, StandardCharsets.UTF_8));
+    }
+}
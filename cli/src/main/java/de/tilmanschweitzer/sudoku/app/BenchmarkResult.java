@@ -0,0 +1,164 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Measurements of one solver configuration in a benchmark run, latencies in nanoseconds
+ */
+public class BenchmarkResult {
+
+    private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\"\\s*:\\s*(\"[^\"]*\"|[-0-9.Ee+]+)");
+
+    private final String solver;
+    private final long puzzles;
+    private final long solved;
+    private final double throughput;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    private final long allocatedBytesPerSolve;
+
+    public BenchmarkResult(String solver, long puzzles, long solved, double throughput, long p50, long p99, long p999, long max, long allocatedBytesPerSolve) {
+        this.solver = solver;
+        this.puzzles = puzzles;
+        this.solved = solved;
+        this.throughput = throughput;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+        this.allocatedBytesPerSolve = allocatedBytesPerSolve;
+    }
+
+    /*
+     * Throughput and p50 latency are the medians of the values of the single iterations, so one iteration disturbed
+     * by a GC or another process does not move them. The tail latencies are taken over all measured solves,
+     * allocations are averaged over all puzzles.
+     */
+    public static BenchmarkResult of(String solver, List<LatencyHistogram> iterationLatencies, List<Long> iterationWallNanos, long solved, long allocatedBytes) {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final double[] throughputs = new double[iterationLatencies.size()];
+        final double[] p50s = new double[iterationLatencies.size()];
+        for (int iteration = 0; iteration < iterationLatencies.size(); iteration++) {
+            final LatencyHistogram iterationLatency = iterationLatencies.get(iteration);
+            latencies.merge(iterationLatency);
+            throughputs[iteration] = iterationLatency.getCount() * 1e9 / Math.max(1, iterationWallNanos.get(iteration));
+            p50s[iteration] = iterationLatency.getPercentile(50);
+        }
+        final long puzzles = latencies.getCount();
+        return new BenchmarkResult(solver, puzzles, solved, median(throughputs), Math.round(median(p50s)),
+                latencies.getPercentile(99), latencies.getPercentile(99.9), latencies.getMax(),
+                puzzles == 0 ? 0 : allocatedBytes / puzzles);
+    }
+
+    static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        final double[] sortedValues = values.clone();
+        Arrays.sort(sortedValues);
+        final int middle = sortedValues.length / 2;
+        return sortedValues.length % 2 == 1 ? sortedValues[middle] : (sortedValues[middle - 1] + sortedValues[middle]) / 2;
+    }
+
+    public String getSolver() {
+        return solver;
+    }
+
+    public long getPuzzles() {
+        return puzzles;
+    }
+
+    public long getSolved() {
+        return solved;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getAllocatedBytesPerSolve() {
+        return allocatedBytesPerSolve;
+    }
+
+    /*
+     * Compares with the result of the same solver in the baseline, the tolerances are fractions of the baseline values.
+     * Timings vary between runs much more than allocations, so they have their own tolerance. The tail latencies are
+     * not compared: about one percent of the corpus puzzles are hard, so the p99 jumps between easy and hard puzzles
+     * from run to run.
+     */
+    public List<String> findRegressions(BenchmarkResult baseline, double tolerance, double allocationTolerance) {
+        final List<String> regressions = new ArrayList<>();
+        if (solved < baseline.solved) {
+            regressions.add(solver + ": solved " + solved + " puzzles, baseline " + baseline.solved);
+        }
+        if (throughput < baseline.throughput * (1 - tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s: throughput %.1f/s, baseline %.1f/s", solver, throughput, baseline.throughput));
+        }
+        addIfExceeded(regressions, "p50 latency", p50, baseline.p50, tolerance);
+        addIfExceeded(regressions, "allocated bytes per solve", allocatedBytesPerSolve, baseline.allocatedBytesPerSolve, allocationTolerance);
+        return regressions;
+    }
+
+    private void addIfExceeded(List<String> regressions, String description, long value, long baselineValue, double tolerance) {
+        if (value > baselineValue * (1 + tolerance)) {
+            regressions.add(solver + ": " + description + " " + value + ", baseline " + baselineValue);
+        }
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"solver\": \"%s\", \"puzzles\": %d, \"solved\": %d, \"throughput\": %.1f, "
+                        + "\"p50_nanos\": %d, \"p99_nanos\": %d, \"p999_nanos\": %d, \"max_nanos\": %d, \"allocated_bytes_per_solve\": %d}",
+                solver, puzzles, solved, throughput, p50, p99, p999, max, allocatedBytesPerSolve);
+    }
+
+    /*
+     * Reads a flat JSON object as written by toJson
+     */
+    public static BenchmarkResult fromJson(String json) {
+        final Map<String, String> fields = new HashMap<>();
+        final Matcher matcher = JSON_FIELD.matcher(json);
+        while (matcher.find()) {
+            fields.put(matcher.group(1), matcher.group(2).replace("\"", ""));
+        }
+        try {
+            return new BenchmarkResult(field(fields, "solver"), Long.parseLong(field(fields, "puzzles")), Long.parseLong(field(fields, "solved")),
+                    Double.parseDouble(field(fields, "throughput")), Long.parseLong(field(fields, "p50_nanos")), Long.parseLong(field(fields, "p99_nanos")),
+                    Long.parseLong(field(fields, "p999_nanos")), Long.parseLong(field(fields, "max_nanos")), Long.parseLong(field(fields, "allocated_bytes_per_solve")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid benchmark result: " + json, e);
+        }
+    }
+
+    private static String field(Map<String, String> fields, String name) {
+        final String value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Benchmark result without " + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,147 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuFormatException;
+import de.tilmanschweitzer.sudoku.solver.DeductiveSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.PuzzleFeatures;
+import de.tilmanschweitzer.sudoku.solver.SelectionThresholds;
+import de.tilmanschweitzer.sudoku.solver.SudokuSolver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Calibrates the thresholds of the adaptive solver. For every puzzle of a corpus the features are computed and
+ * the deductive solver and the search solver are timed on their own (after a warm up round). The run can be
+ * recorded with --record=<file> and a recorded run can be used as input instead of a corpus, so the
+ * calibration can be repeated without measuring again.
+ *
+ * The thresholds with the lowest total time are printed and written to --output, which can replace
+ * core/src/main/resources/de/tilmanschweitzer/sudoku/solver/adaptive-thresholds.properties.
+ *
+ * Usage: calibrate <corpus or recorded run> [--limit=2000] [--search=backtracking] [--record=<file>] [--output=<file>]
+ */
+public class CalibrateCommand implements Command {
+
+    private static final int WARM_UP_PUZZLES = 500;
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final String input = commandLine.getPositionalArgument(0, "corpus or recorded run");
+        final int limit = commandLine.getIntOption("limit", 2000);
+        final SudokuSolver searchSolver = commandLine.getOption("search").map(SolverConfiguration::byName)
+                .orElse(SolverConfiguration.BACKTRACKING).createSolver();
+
+        final List<CalibrationSample> samples = isRecordedRun(input) ? readRecordedRun(input) : record(input, limit, searchSolver);
+
+        final Optional<String> record = commandLine.getOption("record");
+        if (record.isPresent()) {
+            writeRecordedRun(record.get(), samples);
+        }
+
+        final SelectionThresholds thresholds = ThresholdCalibration.calibrate(samples);
+        System.out.println("Calibrated on " + samples.size() + " puzzles: " + thresholds);
+        printTotal("Always deduce first", SelectionThresholds.ALWAYS_DEDUCE, samples);
+        printTotal("Always search", SelectionThresholds.NEVER_DEDUCE, samples);
+        printTotal("Calibrated", thresholds, samples);
+
+        final Optional<String> output = commandLine.getOption("output");
+        if (output.isPresent()) {
+            try (OutputStream outputStream = Files.newOutputStream(Path.of(output.get()))) {
+                thresholds.toProperties().store(outputStream, "Calibrated on " + samples.size() + " puzzles of " + input);
+            }
+        }
+    }
+
+    private static List<CalibrationSample> record(String input, int limit, SudokuSolver searchSolver) throws IOException {
+        final List<String> puzzles = readPuzzles(input, limit);
+        final SudokuSolver deductiveSolver = DeductiveSudokuSolver.withFailWhenUnsolved(false);
+
+        for (String puzzle : puzzles.subList(0, Math.min(WARM_UP_PUZZLES, puzzles.size()))) {
+            measure(puzzle, deductiveSolver, searchSolver);
+        }
+        final List<CalibrationSample> samples = new ArrayList<>(puzzles.size());
+        for (String puzzle : puzzles) {
+            samples.add(measure(puzzle, deductiveSolver, searchSolver));
+        }
+        return samples;
+    }
+
+    private static CalibrationSample measure(String puzzle, SudokuSolver deductiveSolver, SudokuSolver searchSolver) {
+        final Sudoku sudoku = Sudoku.fromString(puzzle);
+        final PuzzleFeatures features = PuzzleFeatures.of(sudoku);
+
+        final long deductiveStart = System.nanoTime();
+        final boolean solvedByDeduction = deductiveSolver.solve(sudoku).isCompleted();
+        final long deductiveNanos = System.nanoTime() - deductiveStart;
+
+        final long searchStart = System.nanoTime();
+        searchSolver.solve(sudoku);
+        final long searchNanos = System.nanoTime() - searchStart;
+
+        return CalibrationSample.of(puzzle, features, solvedByDeduction, deductiveNanos, searchNanos);
+    }
+
+    private static List<String> readPuzzles(String input, int limit) throws IOException {
+        final List<String> puzzles = new ArrayList<>();
+        try (BufferedReader reader = CorpusFiles.openReader(input)) {
+            String line;
+            while (puzzles.size() < limit && (line = reader.readLine()) != null) {
+                if (line.isBlank() || CorpusFiles.isHeader(line)) {
+                    continue;
+                }
+                final String puzzle = CorpusFiles.getPuzzle(line);
+                try {
+                    Sudoku.fromString(puzzle);
+                    puzzles.add(puzzle);
+                } catch (SudokuFormatException | NumberFormatException e) {
+                    System.err.println("Skipping invalid puzzle " + puzzle);
+                }
+            }
+        }
+        return puzzles;
+    }
+
+    private static boolean isRecordedRun(String input) throws IOException {
+        try (BufferedReader reader = CorpusFiles.openReader(input)) {
+            return CalibrationSample.CSV_HEADER.equals(reader.readLine());
+        }
+    }
+
+    private static List<CalibrationSample> readRecordedRun(String input) throws IOException {
+        final List<CalibrationSample> samples = new ArrayList<>();
+        try (BufferedReader reader = CorpusFiles.openReader(input)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    samples.add(CalibrationSample.fromCsvLine(line));
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static void writeRecordedRun(String output, List<CalibrationSample> samples) throws IOException {
+        try (BufferedWriter writer = CorpusFiles.openWriter(output)) {
+            writer.write(CalibrationSample.CSV_HEADER);
+            writer.newLine();
+            for (CalibrationSample sample : samples) {
+                writer.write(sample.toCsvLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void printTotal(String description, SelectionThresholds thresholds, List<CalibrationSample> samples) {
+        System.out.printf("%s: %.3fms%n", description, ThresholdCalibration.totalNanos(thresholds, samples) / 1_000_000.0);
+    }
+}
@@ -0,0 +1,69 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.PuzzleFeatures;
+
+/*
+ * Features and measured solve times of one puzzle in a recorded calibration run
+ */
+public class CalibrationSample {
+
+    public static final String CSV_HEADER = "puzzle,clues,candidates,spread,deductive_solved,deductive_nanos,search_nanos";
+
+    private final String puzzle;
+    private final int clueCount;
+    private final int candidateCount;
+    private final int digitSpread;
+    private final boolean solvedByDeduction;
+    private final long deductiveNanos;
+    private final long searchNanos;
+
+    public CalibrationSample(String puzzle, int clueCount, int candidateCount, int digitSpread, boolean solvedByDeduction, long deductiveNanos, long searchNanos) {
+        this.puzzle = puzzle;
+        this.clueCount = clueCount;
+        this.candidateCount = candidateCount;
+        this.digitSpread = digitSpread;
+        this.solvedByDeduction = solvedByDeduction;
+        this.deductiveNanos = deductiveNanos;
+        this.searchNanos = searchNanos;
+    }
+
+    public static CalibrationSample of(String puzzle, PuzzleFeatures features, boolean solvedByDeduction, long deductiveNanos, long searchNanos) {
+        return new CalibrationSample(puzzle, features.getClueCount(), features.getCandidateCount(), features.getDigitSpread(), solvedByDeduction, deductiveNanos, searchNanos);
+    }
+
+    public static CalibrationSample fromCsvLine(String line) {
+        final String[] columns = line.split(",");
+        if (columns.length != 7) {
+            throw new IllegalArgumentException("Expected 7 columns in calibration sample: " + line);
+        }
+        return new CalibrationSample(columns[0], Integer.parseInt(columns[1]), Integer.parseInt(columns[2]), Integer.parseInt(columns[3]),
+                Boolean.parseBoolean(columns[4]), Long.parseLong(columns[5]), Long.parseLong(columns[6]));
+    }
+
+    public String toCsvLine() {
+        return puzzle + ',' + clueCount + ',' + candidateCount + ',' + digitSpread + ',' + solvedByDeduction + ',' + deductiveNanos + ',' + searchNanos;
+    }
+
+    public int getClueCount() {
+        return clueCount;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public int getDigitSpread() {
+        return digitSpread;
+    }
+
+    /*
+     * Time if the deduction is tried first, a puzzle that is not solved by deduction also needs the search
+     */
+    public long getDeductionFirstNanos() {
+        return solvedByDeduction ? deductiveNanos : deductiveNanos + searchNanos;
+    }
+
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+}
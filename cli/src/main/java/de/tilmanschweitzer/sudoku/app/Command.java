@@ -0,0 +1,8 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface Command {
+    void run(List<String> arguments) throws IOException;
+}
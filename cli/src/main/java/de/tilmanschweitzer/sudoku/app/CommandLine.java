@@ -0,0 +1,61 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/*
+ * Arguments of a command: flags (--flag), options (--name=value) and positional arguments
+ */
+public class CommandLine {
+
+    private static final String PREFIX = "--";
+
+    private final List<String> arguments;
+    private final List<String> positionalArguments;
+
+    private CommandLine(List<String> arguments) {
+        this.arguments = arguments;
+        this.positionalArguments = arguments.stream().filter(argument -> !argument.startsWith(PREFIX)).collect(toUnmodifiableList());
+    }
+
+    public static CommandLine parse(List<String> arguments) {
+        return new CommandLine(arguments);
+    }
+
+    public boolean hasFlag(String name) {
+        return arguments.contains(PREFIX + name);
+    }
+
+    public Optional<String> getOption(String name) {
+        final String optionPrefix = PREFIX + name + "=";
+        return arguments.stream()
+                .filter(argument -> argument.startsWith(optionPrefix))
+                .map(argument -> argument.substring(optionPrefix.length()))
+                .reduce((first, second) -> second);
+    }
+
+    public int getIntOption(String name, int defaultValue) {
+        return getOption(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    public long getLongOption(String name, long defaultValue) {
+        return getOption(name).map(Long::parseLong).orElse(defaultValue);
+    }
+
+    public String getPositionalArgument(int index, String description) {
+        if (positionalArguments.size() <= index) {
+            throw new IllegalArgumentException("Missing argument " + description);
+        }
+        return positionalArguments.get(index);
+    }
+
+    public String getPositionalArgument(int index, String description, String defaultValue) {
+        return positionalArguments.size() > index ? positionalArguments.get(index) : defaultValue;
+    }
+
+    public List<String> getPositionalArguments() {
+        return positionalArguments;
+    }
+}
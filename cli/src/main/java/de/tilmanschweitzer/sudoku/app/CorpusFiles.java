@@ -0,0 +1,111 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+
+/*
+ * Opens corpus files in the sudoku-10000.csv format, "-" stands for stdin or stdout. Input files ending with .gz
+ * are decompressed while they are read.
+ */
+public final class CorpusFiles {
+
+    public static final String STANDARD_STREAM = "-";
+    public static final String HEADER_PREFIX = "puzzle";
+    public static final String COMPRESSED_SUFFIX = ".gz";
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private CorpusFiles() {
+    }
+
+    public static BufferedReader openReader(String filename) throws IOException {
+        return new BufferedReader(new InputStreamReader(openInputStream(filename), StandardCharsets.US_ASCII), BUFFER_SIZE);
+    }
+
+    public static InputStream openInputStream(String filename) throws IOException {
+        if (STANDARD_STREAM.equals(filename)) {
+            return System.in;
+        }
+        if (isCompressed(filename)) {
+            return GzipCorpusInputStream.open(Path.of(filename), Runtime.getRuntime().availableProcessors());
+        }
+        return Files.newInputStream(Path.of(filename));
+    }
+
+    public static boolean isCompressed(String filename) {
+        return filename.endsWith(COMPRESSED_SUFFIX);
+    }
+
+    public static BufferedWriter openWriter(String filename) throws IOException {
+        if (STANDARD_STREAM.equals(filename)) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(Path.of(filename)), StandardCharsets.US_ASCII), BUFFER_SIZE);
+    }
+
+    /*
+     * Size of the file in bytes or Long.MAX_VALUE if it is unknown (stdin and compressed files)
+     */
+    public static long size(String filename) throws IOException {
+        if (STANDARD_STREAM.equals(filename) || isCompressed(filename)) {
+            return Long.MAX_VALUE;
+        }
+        return Files.size(Path.of(filename));
+    }
+
+    public static boolean isHeader(String line) {
+        return line.startsWith(HEADER_PREFIX);
+    }
+
+    public static boolean isHeader(ByteBuffer buffer, int start, int end) {
+        if (end - start < HEADER_PREFIX.length()) {
+            return false;
+        }
+        for (int i = 0; i < HEADER_PREFIX.length(); i++) {
+            if (buffer.get(start + i) != HEADER_PREFIX.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Returns the first column of a corpus line
+     */
+    public static String getPuzzle(String line) {
+        final int separatorIndex = line.indexOf(',');
+        return separatorIndex < 0 ? line : line.substring(0, separatorIndex);
+    }
+
+    /*
+     * Returns null if the line does not consist of exactly 81 digits
+     */
+    public static Sudoku parsePuzzle(ByteBuffer input, int start, int end) {
+        if (end - start != SUDOKU_SIZE) {
+            return null;
+        }
+        final Sudoku sudoku = Sudoku.empty();
+        for (SudokuPosition position : allPositions) {
+            final int value = input.get(start + position.getIndex()) - '0';
+            if (value < 0 || value > 9) {
+                return null;
+            }
+            sudoku.setValueForPosition(position, value);
+        }
+        return sudoku;
+    }
+}
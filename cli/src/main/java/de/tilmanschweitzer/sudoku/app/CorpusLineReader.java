@@ -0,0 +1,164 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * Reads the ASCII lines of a corpus and keeps track of the byte offset, so reading can be restricted to an
+ * InputSlice of the file.
+ */
+public class CorpusLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream inputStream;
+    private final long endOffset;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLimit;
+    private long offset;
+    private byte[] lineBuffer = new byte[128];
+    private int lineLength;
+
+    CorpusLineReader(InputStream inputStream, long startOffset, long endOffset) {
+        this.inputStream = inputStream;
+        this.offset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /*
+     * The offsets of a compressed file refer to the decompressed bytes, a slice of it is found by skipping
+     */
+    public static CorpusLineReader open(String filename, InputSlice slice) throws IOException {
+        if (CorpusFiles.STANDARD_STREAM.equals(filename)) {
+            if (slice.getStartOffset() != 0) {
+                throw new IllegalArgumentException("Cannot skip to byte offset " + slice.getStartOffset() + " of stdin");
+            }
+            return new CorpusLineReader(System.in, 0, slice.getEndOffset());
+        }
+        if (CorpusFiles.isCompressed(filename)) {
+            final CorpusLineReader reader = new CorpusLineReader(CorpusFiles.openInputStream(filename), 0, slice.getEndOffset());
+            if (slice.getStartOffset() > 0) {
+                // The byte before the slice tells whether the first line starts in the previous slice
+                reader.skipBytes(slice.getStartOffset() - 1);
+                reader.skipLine();
+            }
+            return reader;
+        }
+
+        final FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+        final long startOffset = Math.min(slice.getStartOffset(), channel.size());
+        final CorpusLineReader reader = new CorpusLineReader(Channels.newInputStream(channel.position(startOffset)), startOffset, slice.getEndOffset());
+        if (startOffset > 0 && !isLineStart(channel, startOffset)) {
+            // The partial line belongs to the previous slice
+            reader.skipLine();
+        }
+        return reader;
+    }
+
+    private static boolean isLineStart(FileChannel channel, long offset) throws IOException {
+        final ByteBuffer previousByte = ByteBuffer.allocate(1);
+        channel.read(previousByte, offset - 1);
+        return previousByte.get(0) == '\n';
+    }
+
+    /*
+     * Returns the next line without line terminator or null if the end of the slice is reached
+     */
+    public String readLine() throws IOException {
+        return nextLine() ? new String(lineBuffer, 0, lineLength, StandardCharsets.US_ASCII) : null;
+    }
+
+    /*
+     * Reads the next line without line terminator into the line buffer, so it can be checked without creating
+     * a string. Returns false if the end of the slice is reached.
+     */
+    public boolean nextLine() throws IOException {
+        if (offset >= endOffset) {
+            return false;
+        }
+        lineLength = 0;
+        while (true) {
+            if (bufferPosition == bufferLimit && !fillBuffer()) {
+                final boolean hasLine = lineLength > 0;
+                stripCarriageReturn();
+                return hasLine;
+            }
+            final byte nextByte = buffer[bufferPosition++];
+            offset++;
+            if (nextByte == '\n') {
+                stripCarriageReturn();
+                return true;
+            }
+            if (lineLength == lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, lineLength * 2);
+            }
+            lineBuffer[lineLength++] = nextByte;
+        }
+    }
+
+    /*
+     * Bytes of the line read by nextLine, only valid up to getLineLength and until the next line is read
+     */
+    public byte[] getLineBuffer() {
+        return lineBuffer;
+    }
+
+    public int getLineLength() {
+        return lineLength;
+    }
+
+    /*
+     * Byte offset of the next line
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    private void skipBytes(long count) throws IOException {
+        final long targetOffset = offset + count;
+        while (offset < targetOffset && (bufferPosition < bufferLimit || fillBuffer())) {
+            final int skipped = (int) Math.min(bufferLimit - bufferPosition, targetOffset - offset);
+            bufferPosition += skipped;
+            offset += skipped;
+        }
+    }
+
+    private void skipLine() throws IOException {
+        while (bufferPosition < bufferLimit || fillBuffer()) {
+            offset++;
+            if (buffer[bufferPosition++] == '\n') {
+                return;
+            }
+        }
+    }
+
+    private void stripCarriageReturn() {
+        if (lineLength > 0 && lineBuffer[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+    }
+
+    private boolean fillBuffer() throws IOException {
+        final int read = inputStream.read(buffer);
+        if (read <= 0) {
+            return false;
+        }
+        bufferPosition = 0;
+        bufferLimit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -0,0 +1,90 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.model.PackedSudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuFormatException;
+import de.tilmanschweitzer.sudoku.model.SudokuSymmetry;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/*
+ * Streams a corpus and writes every line whose puzzle was not seen before. Only 64 bit fingerprints of the
+ * seen puzzles are kept in memory. With --symmetry the fingerprint of the canonical form is used, so puzzles
+ * that are equivalent under sudoku symmetries count as duplicates.
+ *
+ * Usage: dedup <input|-> [output|-] [--symmetry]
+ */
+public class DeduplicationCommand implements Command {
+
+    private static final String SYMMETRY_FLAG = "symmetry";
+
+    private static final int BATCH_SIZE = 4096;
+
+    /*
+     * Marker for lines without a valid puzzle, a real fingerprint collides with it with negligible probability
+     */
+    private static final long INVALID = Long.MIN_VALUE;
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final boolean symmetry = commandLine.hasFlag(SYMMETRY_FLAG);
+        final String input = commandLine.getPositionalArgument(0, "input file");
+        final String output = commandLine.getPositionalArgument(1, "output file", CorpusFiles.STANDARD_STREAM);
+
+        final LongHashSet fingerprints = new LongHashSet();
+        long numberOfPuzzles = 0;
+        long numberOfInvalidLines = 0;
+
+        try (BufferedReader reader = CorpusFiles.openReader(input); BufferedWriter writer = CorpusFiles.openWriter(output)) {
+            final List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String line = reader.readLine();
+            if (line != null && CorpusFiles.isHeader(line)) {
+                writer.write(line);
+                writer.newLine();
+                line = reader.readLine();
+            }
+            while (line != null) {
+                batch.add(line);
+                line = reader.readLine();
+                if (batch.size() == BATCH_SIZE || line == null) {
+                    final long[] batchFingerprints = fingerprint(batch, symmetry);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (batchFingerprints[i] == INVALID) {
+                            numberOfInvalidLines++;
+                            continue;
+                        }
+                        numberOfPuzzles++;
+                        if (fingerprints.add(batchFingerprints[i])) {
+                            writer.write(batch.get(i));
+                            writer.newLine();
+                        }
+                    }
+                    batch.clear();
+                }
+            }
+        }
+
+        System.err.println("Read " + numberOfPuzzles + " puzzles, wrote " + fingerprints.size() + " unique puzzles");
+        if (numberOfInvalidLines > 0) {
+            System.err.println("Skipped " + numberOfInvalidLines + " invalid lines");
+        }
+    }
+
+    private static long[] fingerprint(List<String> batch, boolean symmetry) {
+        final long[] fingerprints = new long[batch.size()];
+        IntStream.range(0, batch.size()).parallel().forEach(i -> {
+            try {
+                final PackedSudoku puzzle = PackedSudoku.fromString(CorpusFiles.getPuzzle(batch.get(i)));
+                fingerprints[i] = symmetry ? SudokuSymmetry.canonicalize(puzzle).fingerprint() : puzzle.fingerprint();
+            } catch (SudokuFormatException e) {
+                fingerprints[i] = INVALID;
+            }
+        });
+        return fingerprints;
+    }
+}
@@ -22,6 +22,13 @@ public class ExecutionTimer {
         measuredExecutionTimesInMilliseconds.add(executionTime);
     }
 
+    /*
+     * Appends the execution times of the other timer
+     */
+    public void merge(ExecutionTimer other) {
+        measuredExecutionTimesInMilliseconds.addAll(other.measuredExecutionTimesInMilliseconds);
+    }
+
     public Optional<Long> getLatestExecutionTime() {
         if (measuredExecutionTimesInMilliseconds.isEmpty()) {
             return Optional.empty();
@@ -0,0 +1,433 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/*
+ * Decompresses a gzip file on a pipeline thread, the reading thread only takes the decompressed chunks from a
+ * bounded queue.
+ *
+ * A file of multiple gzip members (e.g. written by bgzip or concatenated gzip files) is decoded in parallel: every
+ * gzip header signature in the file is a candidate member start and the range up to the next candidate is inflated
+ * on a worker thread. A range is accepted if it is exactly one member with matching CRC and size. Otherwise the
+ * signature also occurred within compressed data, or the member is too large to be buffered, and the member is
+ * inflated on the pipeline thread instead.
+ *
+ * The file is mapped in windows of up to 1 GB, so files of any size are decoded the same way.
+ */
+final class GzipCorpusInputStream extends InputStream {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int QUEUED_CHUNKS = 64;
+    private static final int MAX_BUFFERED_MEMBER_SIZE = 1 << 22;
+    private static final int MEMBERS_IN_FLIGHT_PER_THREAD = 2;
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final byte[] END = new byte[0];
+
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final int FLAG_HEADER_CRC = 2;
+    private static final int FLAG_EXTRA = 4;
+    private static final int FLAG_NAME = 8;
+    private static final int FLAG_COMMENT = 16;
+    private static final int RESERVED_FLAGS = 0xE0;
+
+    private final Path path;
+    private final int threads;
+    private final long windowSize;
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+    private final ExecutorService memberDecoders;
+    private final Thread pipeline;
+    private volatile Exception failure;
+    private byte[] chunk = new byte[0];
+    private int chunkPosition;
+
+    private GzipCorpusInputStream(Path path, int threads, long windowSize) {
+        this.path = path;
+        this.threads = threads;
+        this.windowSize = windowSize;
+        this.memberDecoders = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "gzip-member-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pipeline = new Thread(this::decode, "gzip-pipeline");
+        pipeline.setDaemon(true);
+    }
+
+    public static InputStream open(Path path, int threads) throws IOException {
+        return open(path, threads, WINDOW_SIZE);
+    }
+
+    static InputStream open(Path path, int threads, long windowSize) throws IOException {
+        if (!Files.isReadable(path)) {
+            throw new IOException("Cannot read " + path);
+        }
+        final GzipCorpusInputStream inputStream = new GzipCorpusInputStream(path, threads, windowSize);
+        inputStream.pipeline.start();
+        return inputStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!hasNextChunk()) {
+            return -1;
+        }
+        return chunk[chunkPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!hasNextChunk()) {
+            return -1;
+        }
+        final int read = Math.min(length, chunk.length - chunkPosition);
+        System.arraycopy(chunk, chunkPosition, bytes, offset, read);
+        chunkPosition += read;
+        return read;
+    }
+
+    @Override
+    public void close() {
+        pipeline.interrupt();
+        memberDecoders.shutdownNow();
+    }
+
+    private boolean hasNextChunk() throws IOException {
+        while (chunkPosition == chunk.length) {
+            if (chunk == END) {
+                return false;
+            }
+            try {
+                chunk = chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + path);
+            }
+            chunkPosition = 0;
+            if (chunk == END && failure != null) {
+                throw new IOException("Cannot decompress " + path, failure);
+            }
+        }
+        return true;
+    }
+
+    private void decode() {
+        try {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                decodeMembers(new MappedFile(channel, windowSize));
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            } finally {
+                memberDecoders.shutdownNow();
+            }
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // The stream was closed
+        }
+    }
+
+    /*
+     * The candidate member starts are searched while the members are decoded, only as far as needed to keep the
+     * workers busy. A member without another candidate within MAX_BUFFERED_MEMBER_SIZE compressed bytes is too
+     * large to be buffered, so it is inflated on the pipeline thread right away and the search continues after it.
+     */
+    private void decodeMembers(MappedFile file) throws IOException, InterruptedException {
+        if (findMemberCandidate(file, 0, Math.min(file.size(), 1)) != 0) {
+            throw new IOException("Not in gzip format");
+        }
+
+        final Deque<MemberInFlight> membersInFlight = new ArrayDeque<>();
+        long nextStart = 0;
+        long position = 0;
+        while (true) {
+            while (nextStart >= 0 && membersInFlight.size() < threads * MEMBERS_IN_FLIGHT_PER_THREAD) {
+                final long start = nextStart;
+                final long searchLimit = Math.min(file.size(), start + 1 + MAX_BUFFERED_MEMBER_SIZE);
+                nextStart = findMemberCandidate(file, start + 1, searchLimit);
+                if (nextStart < 0 && searchLimit < file.size()) {
+                    membersInFlight.add(new MemberInFlight(start, -1, null));
+                    break;
+                }
+                final long end = nextStart >= 0 ? nextStart : file.size();
+                membersInFlight.add(new MemberInFlight(start, end, memberDecoders.submit(() -> decodeBufferedMember(file, start, end))));
+            }
+            final MemberInFlight member = membersInFlight.poll();
+            if (member == null) {
+                break;
+            }
+
+            if (member.start < position) {
+                // The signature is part of a member that was already decoded
+                if (member.decodedMember != null) {
+                    member.decodedMember.cancel(false);
+                }
+            } else if (member.start > position) {
+                throw new IOException("Unexpected data at offset " + position);
+            } else {
+                final List<byte[]> decodedMember = member.decodedMember != null ? await(member.decodedMember) : null;
+                if (decodedMember != null) {
+                    for (byte[] decoded : decodedMember) {
+                        chunks.put(decoded);
+                    }
+                    position = member.end;
+                } else {
+                    position = decodeMember(file, position, file.size(), decoded -> {
+                        chunks.put(decoded);
+                        return true;
+                    });
+                    if (position < 0) {
+                        throw new IOException("Corrupt gzip member at offset " + member.start);
+                    }
+                }
+            }
+            if (member.decodedMember == null) {
+                // The search stopped at this member, it continues after the decoded data
+                nextStart = position < file.size() ? findMemberCandidate(file, position, file.size()) : -1;
+            }
+        }
+        // Like GZIPInputStream, bytes after the last member are ignored
+    }
+
+    /*
+     * Returns the decoded chunks if the range is exactly one member that is small enough to be buffered,
+     * otherwise null
+     */
+    private static List<byte[]> decodeBufferedMember(MappedFile file, long start, long end) throws InterruptedException {
+        final List<byte[]> decodedMember = new ArrayList<>();
+        final int[] size = new int[1];
+        final long memberEnd = decodeMember(file, start, end, decoded -> {
+            decodedMember.add(decoded);
+            size[0] += decoded.length;
+            return size[0] <= MAX_BUFFERED_MEMBER_SIZE;
+        });
+        return memberEnd == end ? decodedMember : null;
+    }
+
+    /*
+     * Inflates the member starting at the given offset and passes the decoded chunks to the consumer. The compressed
+     * data is passed to the inflater window by window.
+     * Returns the offset after the member or -1 if there is no complete member with matching CRC and size before
+     * the limit or the consumer stopped the decoding.
+     */
+    private static long decodeMember(MappedFile file, long start, long limit, ChunkConsumer consumer) throws InterruptedException {
+        final long dataStart = skipHeader(file, start, limit);
+        if (dataStart < 0) {
+            return -1;
+        }
+        final Inflater inflater = new Inflater(true);
+        final CRC32 crc = new CRC32();
+        try {
+            long inputPosition = dataStart;
+            long size = 0;
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (inputPosition >= limit) {
+                        return -1;
+                    }
+                    final ByteBuffer input = file.slice(inputPosition, limit);
+                    inputPosition += input.remaining();
+                    inflater.setInput(input);
+                }
+                final byte[] decoded = new byte[CHUNK_SIZE];
+                final int length = inflater.inflate(decoded);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        return -1;
+                    }
+                    continue;
+                }
+                crc.update(decoded, 0, length);
+                size += length;
+                if (!consumer.accept(length == CHUNK_SIZE ? decoded : Arrays.copyOf(decoded, length))) {
+                    return -1;
+                }
+            }
+            final long trailerStart = inputPosition - inflater.getRemaining();
+            if (trailerStart + TRAILER_SIZE > limit
+                    || readIntLittleEndian(file, trailerStart) != (int) crc.getValue()
+                    || readIntLittleEndian(file, trailerStart + 4) != (int) size) {
+                return -1;
+            }
+            return trailerStart + TRAILER_SIZE;
+        } catch (DataFormatException e) {
+            return -1;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /*
+     * Returns the offset of the compressed data or -1 if there is no valid header (RFC 1952) before the limit
+     */
+    private static long skipHeader(MappedFile file, long start, long limit) {
+        if (start + HEADER_SIZE > limit || !isMemberCandidate(file, start)) {
+            return -1;
+        }
+        final int flags = file.get(start + 3) & 0xFF;
+        long position = start + HEADER_SIZE;
+        if ((flags & FLAG_EXTRA) != 0) {
+            if (position + 2 > limit) {
+                return -1;
+            }
+            position += 2 + ((file.get(position) & 0xFF) | (file.get(position + 1) & 0xFF) << 8);
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            position = skipZeroTerminated(file, position, limit);
+        }
+        if ((flags & FLAG_COMMENT) != 0) {
+            position = skipZeroTerminated(file, position, limit);
+        }
+        if ((flags & FLAG_HEADER_CRC) != 0) {
+            position += 2;
+        }
+        return position >= 0 && position <= limit ? position : -1;
+    }
+
+    private static long skipZeroTerminated(MappedFile file, long position, long limit) {
+        if (position < 0) {
+            return -1;
+        }
+        for (long index = position; index < limit; index++) {
+            if (file.get(index) == 0) {
+                return index + 1;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Offset of the first gzip header signature (magic bytes, deflate method and no reserved flags) starting in the
+     * given range or -1 if there is none
+     */
+    private static long findMemberCandidate(MappedFile file, long from, long limit) {
+        for (long index = from; index < limit && index + HEADER_SIZE <= file.size(); index++) {
+            if (isMemberCandidate(file, index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isMemberCandidate(MappedFile file, long index) {
+        return file.get(index) == (byte) 0x1F
+                && file.get(index + 1) == (byte) 0x8B
+                && file.get(index + 2) == 8
+                && (file.get(index + 3) & RESERVED_FLAGS) == 0;
+    }
+
+    private static int readIntLittleEndian(MappedFile file, long index) {
+        return (file.get(index) & 0xFF)
+                | (file.get(index + 1) & 0xFF) << 8
+                | (file.get(index + 2) & 0xFF) << 16
+                | (file.get(index + 3) & 0xFF) << 24;
+    }
+
+    private static <T> T await(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Decoding a gzip member failed", e.getCause());
+        }
+    }
+
+    private static final class MemberInFlight {
+        private final long start;
+        /*
+         * The next candidate or the end of the file, -1 and no decoded member for a member that is too large to
+         * be buffered
+         */
+        private final long end;
+        private final Future<List<byte[]>> decodedMember;
+
+        private MemberInFlight(long start, long end, Future<List<byte[]>> decodedMember) {
+            this.start = start;
+            this.end = end;
+            this.decodedMember = decodedMember;
+        }
+    }
+
+    /*
+     * Maps the file in windows on first access, so files larger than 2 GB are addressed with long offsets.
+     * The windows are only read with absolute offsets or through duplicates and are shared by all threads.
+     */
+    private static final class MappedFile {
+        private final FileChannel channel;
+        private final long size;
+        private final long windowSize;
+        private final AtomicReferenceArray<ByteBuffer> windows;
+
+        private MappedFile(FileChannel channel, long windowSize) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowSize = windowSize;
+            this.windows = new AtomicReferenceArray<>((int) ((size + windowSize - 1) / windowSize));
+        }
+
+        private long size() {
+            return size;
+        }
+
+        private byte get(long offset) {
+            return window(offset).get((int) (offset % windowSize));
+        }
+
+        /*
+         * The bytes from the offset up to the limit or the end of its window
+         */
+        private ByteBuffer slice(long offset, long limit) {
+            final ByteBuffer slice = window(offset).duplicate();
+            final long windowStart = offset - offset % windowSize;
+            slice.limit((int) (Math.min(limit, windowStart + slice.capacity()) - windowStart));
+            slice.position((int) (offset - windowStart));
+            return slice;
+        }
+
+        private ByteBuffer window(long offset) {
+            final int index = (int) (offset / windowSize);
+            final ByteBuffer window = windows.get(index);
+            if (window != null) {
+                return window;
+            }
+            final long windowStart = index * windowSize;
+            try {
+                windows.compareAndSet(index, null, channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, size - windowStart)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return windows.get(index);
+        }
+    }
+
+    private interface ChunkConsumer {
+        /*
+         * Returns false to stop the decoding
+         */
+        boolean accept(byte[] decoded) throws InterruptedException;
+    }
+}
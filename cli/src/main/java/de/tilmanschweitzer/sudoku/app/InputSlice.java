@@ -0,0 +1,73 @@
+package de.tilmanschweitzer.sudoku.app;
+
+/*
+ * Byte range of an input file. A line belongs to the slice that contains its first byte, so the slices of a
+ * file can be processed independently by multiple processes without splitting the file.
+ */
+public class InputSlice {
+
+    public static final InputSlice WHOLE_INPUT = new InputSlice(0, Long.MAX_VALUE);
+
+    private final long startOffset;
+    private final long endOffset;
+
+    public InputSlice(long startOffset, long endOffset) {
+        if (startOffset < 0 || endOffset < startOffset) {
+            throw new IllegalArgumentException("Invalid byte range " + startOffset + "-" + endOffset);
+        }
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /*
+     * Shard in the format "index/count" with 0 <= index < count, e.g. "0/4" for the first of four shards
+     */
+    public static InputSlice ofShard(String shard, long fileSize) {
+        final String[] split = shard.split("/");
+        if (split.length != 2) {
+            throw new IllegalArgumentException("Invalid shard " + shard + ", expected <index>/<count>");
+        }
+        final int index = Integer.parseInt(split[0]);
+        final int count = Integer.parseInt(split[1]);
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + shard + ", expected 0 <= index < count");
+        }
+        if (fileSize == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Shards need an uncompressed input file");
+        }
+        return new InputSlice(fileSize * index / count, fileSize * (index + 1) / count);
+    }
+
+    /*
+     * Byte range in the format "start-end" with an exclusive end offset
+     */
+    public static InputSlice ofByteRange(String byteRange) {
+        final String[] split = byteRange.split("-");
+        if (split.length != 2) {
+            throw new IllegalArgumentException("Invalid byte range " + byteRange + ", expected <start>-<end>");
+        }
+        return new InputSlice(Long.parseLong(split[0]), Long.parseLong(split[1]));
+    }
+
+    public static InputSlice fromCommandLine(CommandLine commandLine, long fileSize) {
+        if (commandLine.getOption("shard").isPresent() && commandLine.getOption("byte-range").isPresent()) {
+            throw new IllegalArgumentException("Options --shard and --byte-range cannot be combined");
+        }
+        return commandLine.getOption("shard").map(shard -> ofShard(shard, fileSize))
+                .or(() -> commandLine.getOption("byte-range").map(InputSlice::ofByteRange))
+                .orElse(WHOLE_INPUT);
+    }
+
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public String toString() {
+        return startOffset + "-" + endOffset;
+    }
+}
@@ -0,0 +1,145 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/*
+ * Mergeable histogram of latencies in nanoseconds with log-linear buckets: values below 64 are counted exactly,
+ * larger values in 32 sub-buckets per power of two, which bounds the relative error of percentiles to ~3%.
+ */
+public class LatencyHistogram {
+
+    private static final int EXACT_VALUES = 64;
+    private static final int SUB_BUCKETS = 32;
+    static final int BUCKET_COUNT = EXACT_VALUES + 58 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        counts[indexFor(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts[index] += other.counts[index];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /*
+     * Returns the upper bound of the bucket containing the given percentile (0-100), capped by the maximum
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return Math.min(max, upperBoundOf(index));
+            }
+        }
+        return max;
+    }
+
+    static int indexFor(long value) {
+        if (value < EXACT_VALUES) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - 5;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT_VALUES + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < EXACT_VALUES) {
+            return index;
+        }
+        final int shift = (index - EXACT_VALUES) / SUB_BUCKETS + 1;
+        final long subBucket = (index - EXACT_VALUES) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /*
+     * Sparse text format of the buckets: "index:count,index:count,..."
+     */
+    public String bucketsToString() {
+        final StringJoiner joiner = new StringJoiner(",");
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            if (counts[index] > 0) {
+                joiner.add(index + ":" + counts[index]);
+            }
+        }
+        return joiner.toString();
+    }
+
+    /*
+     * Bucket counts indexed like indexFor, the count is their sum
+     */
+    static LatencyHistogram ofBucketCounts(long[] counts, long sum, long min, long max) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        System.arraycopy(counts, 0, histogram.counts, 0, BUCKET_COUNT);
+        histogram.count = Arrays.stream(counts).sum();
+        histogram.sum = sum;
+        histogram.min = histogram.count == 0 ? Long.MAX_VALUE : min;
+        histogram.max = max;
+        return histogram;
+    }
+
+    public static LatencyHistogram of(long count, long sum, long min, long max, String buckets) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.count = count;
+        histogram.sum = sum;
+        histogram.min = count == 0 ? Long.MAX_VALUE : min;
+        histogram.max = max;
+        if (!buckets.isBlank()) {
+            for (String bucket : buckets.split(",")) {
+                final String[] split = bucket.split(":");
+                histogram.counts[Integer.parseInt(split[0])] = Long.parseLong(split[1]);
+            }
+        }
+        return histogram;
+    }
+}
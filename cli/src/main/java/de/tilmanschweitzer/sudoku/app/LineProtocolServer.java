@@ -0,0 +1,389 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import de.tilmanschweitzer.sudoku.solver.SolveLimits;
+import de.tilmanschweitzer.sudoku.solver.SolveResult;
+import de.tilmanschweitzer.sudoku.solver.SudokuSolver;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+
+/*
+ * Plain TCP line protocol for high volume callers without HTTP framing:
+ *
+ * request:  one puzzle with 81 digits per line
+ * response: one line per request line in the same order, either the 81 digits of the solution or the status
+ *           "unsolved", "failed", "invalid" or "limit_exceeded"
+ *
+ * Requests can be pipelined. Every connection belongs to one event loop that parses the puzzles directly from
+ * its read buffer, solves them in place and appends the responses to pooled direct buffers. Solving a typical
+ * puzzle is cheaper than handing it to another thread, so there is no separate solver pool. Because a puzzle
+ * blocks all connections of its event loop while it is solved, every puzzle is solved with the timeout and node
+ * limit of the server. A connection stops reading while too many responses are waiting to be sent.
+ *
+ * A last line without line terminator is answered once the client half-closes the connection.
+ */
+public class LineProtocolServer implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 256;
+    private static final int MAX_PENDING_OUTPUT_BUFFERS = 16;
+    private static final int RESPONSE_SIZE = SUDOKU_SIZE + 1;
+
+    private static final byte[] UNSOLVED = statusLine(PuzzleResult.Status.UNSOLVED);
+    private static final byte[] FAILED = statusLine(PuzzleResult.Status.FAILED);
+    private static final byte[] INVALID = statusLine(PuzzleResult.Status.INVALID);
+    private static final byte[] LIMIT_EXCEEDED = statusLine(PuzzleResult.Status.LIMIT_EXCEEDED);
+
+    private final SudokuSolver sudokuSolver;
+    private final Optional<Duration> timeout;
+    private final long maxNodes;
+    private final ServerSocketChannel serverChannel;
+    private final List<EventLoop> eventLoops = new ArrayList<>();
+    private final List<Thread> eventLoopThreads = new ArrayList<>();
+    private final Thread acceptor;
+
+    public LineProtocolServer(SudokuSolver sudokuSolver, int port, int threads) throws IOException {
+        this(sudokuSolver, Optional.empty(), Long.MAX_VALUE, port, threads);
+    }
+
+    public LineProtocolServer(SudokuSolver sudokuSolver, Optional<Duration> timeout, long maxNodes, int port, int threads) throws IOException {
+        this.sudokuSolver = sudokuSolver;
+        this.timeout = timeout;
+        this.maxNodes = maxNodes;
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        for (int i = 0; i < threads; i++) {
+            eventLoops.add(new EventLoop(Selector.open()));
+        }
+        this.acceptor = new Thread(this::accept, "line-protocol-acceptor");
+    }
+
+    public void start() {
+        for (int i = 0; i < eventLoops.size(); i++) {
+            final Thread eventLoopThread = new Thread(eventLoops.get(i), "line-protocol-loop-" + i);
+            eventLoopThreads.add(eventLoopThread);
+            eventLoopThread.start();
+        }
+        acceptor.start();
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    private void accept() {
+        int nextEventLoop = 0;
+        try {
+            while (true) {
+                final SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                eventLoops.get(nextEventLoop).register(channel);
+                nextEventLoop = (nextEventLoop + 1) % eventLoops.size();
+            }
+        } catch (ClosedChannelException e) {
+            // Server was closed
+        } catch (IOException e) {
+            System.err.println("Stopped accepting connections: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Stops accepting connections and closes all client connections, pending responses are dropped
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.closing = true;
+            eventLoop.selector.wakeup();
+        }
+        try {
+            for (Thread eventLoopThread : eventLoopThreads) {
+                eventLoopThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private SolveLimits createLimits() {
+        final SolveLimits limits = maxNodes == Long.MAX_VALUE ? SolveLimits.NONE : SolveLimits.NONE.withMaxNodes(maxNodes);
+        return timeout.map(limits::withTimeout).orElse(limits);
+    }
+
+    private static byte[] statusLine(PuzzleResult.Status status) {
+        return (status.toCsvValue() + '\n').getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        // Only used by the event loop thread
+        private final Deque<ByteBuffer> bufferPool = new ArrayDeque<>();
+        private final Set<Connection> connections = new HashSet<>();
+        private volatile boolean closing;
+
+        private EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        private void register(SocketChannel channel) {
+            newChannels.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closing) {
+                    selector.select();
+                    registerNewChannels();
+                    final Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                    while (selectedKeys.hasNext()) {
+                        final SelectionKey key = selectedKeys.next();
+                        selectedKeys.remove();
+                        handle(key);
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                // Server was closed
+            } catch (IOException e) {
+                System.err.println("Event loop failed: " + e.getMessage());
+            }
+            for (Connection connection : connections) {
+                closeQuietly(connection.channel);
+            }
+            for (SocketChannel channel : newChannels) {
+                closeQuietly(channel);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // All channels are closed already
+            }
+        }
+
+        private void registerNewChannels() throws ClosedChannelException {
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                final Connection connection = new Connection(channel, takeBuffer());
+                channel.register(selector, SelectionKey.OP_READ, connection);
+                connections.add(connection);
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            final Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    read(connection);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(connection);
+                }
+                if (connection.inputClosed && connection.output.isEmpty()) {
+                    close(key, connection);
+                } else if (key.isValid()) {
+                    key.interestOps(interestOpsOf(connection));
+                }
+            } catch (IOException e) {
+                close(key, connection);
+            }
+        }
+
+        private int interestOpsOf(Connection connection) {
+            if (connection.output.isEmpty()) {
+                return SelectionKey.OP_READ;
+            }
+            if (connection.inputClosed || connection.output.size() > MAX_PENDING_OUTPUT_BUFFERS) {
+                return SelectionKey.OP_WRITE;
+            }
+            return SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        }
+
+        private void read(Connection connection) throws IOException {
+            final ByteBuffer input = connection.input;
+            if (connection.channel.read(input) < 0) {
+                // The client may half-close the connection and still wait for the pending responses
+                connection.inputClosed = true;
+                processLastLine(connection);
+                return;
+            }
+            input.flip();
+            int lineStart = input.position();
+            for (int index = lineStart; index < input.limit(); index++) {
+                if (input.get(index) == '\n') {
+                    if (connection.discardingLine) {
+                        append(connection, INVALID);
+                        connection.discardingLine = false;
+                    } else {
+                        processLine(connection, input, lineStart, index);
+                    }
+                    lineStart = index + 1;
+                }
+            }
+            if (lineStart == 0 && input.limit() == input.capacity()) {
+                // No line fits into the buffer, answer it as invalid once the end is reached
+                connection.discardingLine = true;
+                lineStart = input.limit();
+            }
+            input.position(lineStart);
+            input.compact();
+            flush(connection);
+        }
+
+        /*
+         * Answers the bytes after the last line terminator as a line
+         */
+        private void processLastLine(Connection connection) throws IOException {
+            final ByteBuffer input = connection.input;
+            input.flip();
+            if (connection.discardingLine) {
+                append(connection, INVALID);
+                connection.discardingLine = false;
+            } else {
+                processLine(connection, input, 0, input.limit());
+            }
+            input.clear();
+            flush(connection);
+        }
+
+        private void processLine(Connection connection, ByteBuffer input, int start, int end) {
+            if (end > start && input.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end == start) {
+                return;
+            }
+            final Sudoku puzzle = CorpusFiles.parsePuzzle(input, start, end);
+            if (puzzle == null) {
+                append(connection, INVALID);
+                return;
+            }
+            final SolveResult result;
+            try {
+                result = sudokuSolver.solve(puzzle, createLimits());
+            } catch (RuntimeException e) {
+                append(connection, FAILED);
+                return;
+            }
+            if (result.getStatus().isLimitExceeded()) {
+                append(connection, LIMIT_EXCEEDED);
+                return;
+            }
+            if (result.getStatus() == SolveResult.Status.FAILED) {
+                append(connection, FAILED);
+                return;
+            }
+            // The solvers only report SOLVED for a complete solution, checking it again would cost more than the solve
+            if (result.getStatus() != SolveResult.Status.SOLVED) {
+                append(connection, UNSOLVED);
+                return;
+            }
+            final Sudoku solution = result.getSudoku();
+            final ByteBuffer output = outputBufferWithRoom(connection, RESPONSE_SIZE);
+            for (SudokuPosition position : allPositions) {
+                output.put((byte) ('0' + solution.getValueForPosition(position)));
+            }
+            output.put((byte) '\n');
+        }
+
+        private void append(Connection connection, byte[] bytes) {
+            outputBufferWithRoom(connection, bytes.length).put(bytes);
+        }
+
+        private ByteBuffer outputBufferWithRoom(Connection connection, int size) {
+            final ByteBuffer last = connection.output.peekLast();
+            if (last != null && last.remaining() >= size) {
+                return last;
+            }
+            final ByteBuffer buffer = takeBuffer();
+            connection.output.add(buffer);
+            return buffer;
+        }
+
+        /*
+         * Writes the pending output buffers in order until the socket does not accept more bytes
+         */
+        private void flush(Connection connection) throws IOException {
+            while (!connection.output.isEmpty()) {
+                final ByteBuffer output = connection.output.peekFirst();
+                output.flip();
+                connection.channel.write(output);
+                if (output.hasRemaining()) {
+                    output.compact();
+                    return;
+                }
+                connection.output.pollFirst();
+                returnBuffer(output);
+            }
+        }
+
+        private void close(SelectionKey key, Connection connection) {
+            key.cancel();
+            connections.remove(connection);
+            closeQuietly(connection.channel);
+            returnBuffer(connection.input);
+            connection.output.forEach(this::returnBuffer);
+            connection.output.clear();
+        }
+
+        private ByteBuffer takeBuffer() {
+            final ByteBuffer buffer = bufferPool.poll();
+            return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        private void returnBuffer(ByteBuffer buffer) {
+            if (bufferPool.size() < MAX_POOLED_BUFFERS) {
+                bufferPool.add(buffer.clear());
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to do for this connection
+        }
+    }
+
+    private static class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer input;
+        // Buffers in fill mode, only the last one receives new responses
+        private final Deque<ByteBuffer> output = new ArrayDeque<>();
+        private boolean discardingLine;
+        private boolean inputClosed;
+
+        private Connection(SocketChannel channel, ByteBuffer input) {
+            this.channel = channel;
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package de.tilmanschweitzer.sudoku.app;
+
+/*
+ * Open addressing hash set for fingerprints, needs 8 to 16 bytes per entry instead of ~50 bytes for a
+ * HashSet<Long>. The fingerprints are expected to be well distributed hashes already.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private long[] table;
+    private int size;
+    private boolean containsEmptyValue;
+
+    public LongHashSet() {
+        this(1 << 10);
+    }
+
+    public LongHashSet(int initialCapacity) {
+        table = new long[Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1)];
+    }
+
+    /*
+     * Returns true if the value was not contained before
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmptyValue) {
+                return false;
+            }
+            containsEmptyValue = true;
+            size++;
+            return true;
+        }
+        if (!insert(table, value)) {
+            return false;
+        }
+        size++;
+        if (size > table.length * MAX_LOAD_FACTOR) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmptyValue;
+        }
+        final int mask = table.length - 1;
+        for (int index = indexFor(value, mask); table[index] != EMPTY; index = (index + 1) & mask) {
+            if (table[index] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] table, long value) {
+        final int mask = table.length - 1;
+        int index = indexFor(value, mask);
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        return true;
+    }
+
+    private static int indexFor(long value, int mask) {
+        return (int) (value ^ (value >>> 32)) & mask;
+    }
+
+    private void grow() {
+        final long[] newTable = new long[table.length * 2];
+        for (long value : table) {
+            if (value != EMPTY) {
+                insert(newTable, value);
+            }
+        }
+        table = newTable;
+    }
+}
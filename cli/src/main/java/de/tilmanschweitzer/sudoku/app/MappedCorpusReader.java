@@ -0,0 +1,235 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/*
+ * Processes the lines of an InputSlice of a corpus file on a fork/join pool. The slice is split into chunks that
+ * start at line starts, every chunk is mapped into memory by its worker and the lines are processed directly on
+ * the mapped bytes. The results of a chunk are folded into an accumulator of the chunk and the accumulators are
+ * combined in input order, so no result per line has to be kept.
+ *
+ * A line belongs to the chunk that contains its first byte, like for CorpusLineReader, so the chunk boundaries
+ * are found by moving the nominal boundaries to the next line start.
+ *
+ * The number of processed records (lines that are neither blank nor a header) can be limited. The records of the
+ * chunks are then counted first, in batches of one chunk per thread in input order until the limit is reached, and
+ * the chunk with the last record stops after it.
+ */
+public final class MappedCorpusReader {
+
+    private static final long MIN_CHUNK_SIZE = 1 << 16;
+    private static final long MAX_CHUNK_SIZE = 1 << 24;
+    private static final int CHUNKS_PER_THREAD = 8;
+    private static final int BOUNDARY_SEARCH_SIZE = 4096;
+
+    public interface LineProcessor<R> {
+        /*
+         * Processes the bytes from start (inclusive) to end (exclusive) without line terminator,
+         * returns null for lines without result
+         */
+        R process(ByteBuffer buffer, int start, int end);
+    }
+
+    public interface LineFolder<A> {
+        /*
+         * Processes the bytes from start (inclusive) to end (exclusive) without line terminator and adds the result
+         * to the accumulator of the chunk
+         */
+        void process(A accumulator, ByteBuffer buffer, int start, int end);
+    }
+
+    private MappedCorpusReader() {
+    }
+
+    public static <R> List<R> processLines(Path path, InputSlice slice, ForkJoinPool pool, LineProcessor<R> lineProcessor) throws IOException {
+        final LineFolder<List<R>> lineFolder = (results, buffer, start, end) -> {
+            final R result = lineProcessor.process(buffer, start, end);
+            if (result != null) {
+                results.add(result);
+            }
+        };
+        return foldLines(path, slice, Long.MAX_VALUE, pool, ArrayList::new, lineFolder, (first, second) -> {
+            first.addAll(second);
+            return first;
+        });
+    }
+
+    /*
+     * Folds the lines of every chunk into a new accumulator and combines the accumulators in input order,
+     * at most maxRecords records are processed
+     */
+    public static <A> A foldLines(Path path, InputSlice slice, long maxRecords, ForkJoinPool pool, Supplier<A> accumulatorFactory,
+                                  LineFolder<A> lineFolder, BinaryOperator<A> combiner) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long[] boundaries = findChunkBoundaries(channel, slice, pool.getParallelism());
+            final long[] maxRecordsByChunk = new long[Math.max(0, boundaries.length - 1)];
+            Arrays.fill(maxRecordsByChunk, Long.MAX_VALUE);
+            final int endChunk = maxRecords == Long.MAX_VALUE ? maxRecordsByChunk.length : limitChunks(channel, boundaries, maxRecords, pool, maxRecordsByChunk);
+            if (endChunk == 0) {
+                return accumulatorFactory.get();
+            }
+            return pool.invoke(new ChunkTask<>(channel, boundaries, maxRecordsByChunk, 0, endChunk, accumulatorFactory, lineFolder, combiner));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /*
+     * Counts the records of the chunks until maxRecords are reached and sets the limit of the chunk with the last
+     * record. Returns the number of chunks to process.
+     */
+    private static int limitChunks(FileChannel channel, long[] boundaries, long maxRecords, ForkJoinPool pool, long[] maxRecordsByChunk) {
+        long remainingRecords = maxRecords;
+        for (int firstChunk = 0; firstChunk < maxRecordsByChunk.length && remainingRecords > 0; firstChunk += pool.getParallelism()) {
+            final int batchStart = firstChunk;
+            final int batchEnd = Math.min(maxRecordsByChunk.length, firstChunk + pool.getParallelism());
+            // A parallel stream runs in the pool of the task that starts it
+            final long[] records = pool.submit(() -> IntStream.range(batchStart, batchEnd).parallel()
+                    .mapToLong(chunk -> processChunk(channel, boundaries[chunk], boundaries[chunk + 1], Long.MAX_VALUE, null, null))
+                    .toArray()).join();
+            for (int chunk = batchStart; chunk < batchEnd; chunk++) {
+                if (records[chunk - batchStart] >= remainingRecords) {
+                    maxRecordsByChunk[chunk] = remainingRecords;
+                    return chunk + 1;
+                }
+                remainingRecords -= records[chunk - batchStart];
+            }
+        }
+        return remainingRecords > 0 ? maxRecordsByChunk.length : 0;
+    }
+
+    /*
+     * Offsets of the line starts that separate the chunks, including the start of the first and the end of the
+     * last chunk
+     */
+    static long[] findChunkBoundaries(FileChannel channel, InputSlice slice, int parallelism) throws IOException {
+        final long start = findLineStart(channel, Math.min(slice.getStartOffset(), channel.size()));
+        final long end = findLineStart(channel, Math.min(slice.getEndOffset(), channel.size()));
+        if (start >= end) {
+            return new long[0];
+        }
+        final long chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, (end - start) / ((long) parallelism * CHUNKS_PER_THREAD)));
+        final List<Long> boundaries = new ArrayList<>();
+        boundaries.add(start);
+        for (long nominal = start + chunkSize; nominal < end; nominal += chunkSize) {
+            final long boundary = findLineStart(channel, nominal);
+            if (boundary >= end) {
+                break;
+            }
+            if (boundary > boundaries.get(boundaries.size() - 1)) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(end);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /*
+     * First line start at or after the offset, the file size if there is none
+     */
+    private static long findLineStart(FileChannel channel, long offset) throws IOException {
+        if (offset == 0) {
+            return 0;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SEARCH_SIZE);
+        // The line starts at the offset if the previous byte ends a line
+        long position = offset - 1;
+        while (position < channel.size()) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            for (int index = 0; index < read; index++) {
+                if (buffer.get(index) == '\n') {
+                    return position + index + 1;
+                }
+            }
+            position += read;
+        }
+        return channel.size();
+    }
+
+    /*
+     * Passes the lines of the chunk to the line folder until the chunk has maxRecords records, only counts them
+     * without line folder. Returns the number of records.
+     */
+    private static <A> long processChunk(FileChannel channel, long start, long end, long maxRecords, A accumulator, LineFolder<A> lineFolder) {
+        final MappedByteBuffer chunk;
+        try {
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long records = 0;
+        int lineStart = 0;
+        final int limit = chunk.limit();
+        for (int index = 0; index <= limit; index++) {
+            if (index < limit && chunk.get(index) != '\n') {
+                continue;
+            }
+            final int lineEnd = index > lineStart && chunk.get(index - 1) == '\r' ? index - 1 : index;
+            if (index < limit || lineEnd > lineStart) {
+                if (lineEnd > lineStart && !CorpusFiles.isHeader(chunk, lineStart, lineEnd)) {
+                    if (records == maxRecords) {
+                        break;
+                    }
+                    records++;
+                }
+                if (lineFolder != null) {
+                    lineFolder.process(accumulator, chunk, lineStart, lineEnd);
+                }
+            }
+            lineStart = index + 1;
+        }
+        return records;
+    }
+
+    private static class ChunkTask<A> extends RecursiveTask<A> {
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final long[] maxRecordsByChunk;
+        private final int firstChunk;
+        private final int endChunk;
+        private final Supplier<A> accumulatorFactory;
+        private final LineFolder<A> lineFolder;
+        private final BinaryOperator<A> combiner;
+
+        private ChunkTask(FileChannel channel, long[] boundaries, long[] maxRecordsByChunk, int firstChunk, int endChunk,
+                          Supplier<A> accumulatorFactory, LineFolder<A> lineFolder, BinaryOperator<A> combiner) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.maxRecordsByChunk = maxRecordsByChunk;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+            this.accumulatorFactory = accumulatorFactory;
+            this.lineFolder = lineFolder;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (endChunk - firstChunk == 1) {
+                final A accumulator = accumulatorFactory.get();
+                processChunk(channel, boundaries[firstChunk], boundaries[endChunk], maxRecordsByChunk[firstChunk], accumulator, lineFolder);
+                return accumulator;
+            }
+            final int middleChunk = (firstChunk + endChunk) >>> 1;
+            final ChunkTask<A> second = new ChunkTask<>(channel, boundaries, maxRecordsByChunk, middleChunk, endChunk, accumulatorFactory, lineFolder, combiner);
+            second.fork();
+            final A first = new ChunkTask<>(channel, boundaries, maxRecordsByChunk, firstChunk, middleChunk, accumulatorFactory, lineFolder, combiner).compute();
+            return combiner.apply(first, second.join());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Combines the statistics files written by the shards of a run into one report
+ *
+ * Usage: merge <stats file>... [--output=<merged stats file>]
+ */
+public class MergeStatisticsCommand implements Command {
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        if (commandLine.getPositionalArguments().isEmpty()) {
+            throw new IllegalArgumentException("Missing argument stats file");
+        }
+
+        final SolveStatistics mergedStatistics = new SolveStatistics();
+        for (String filename : commandLine.getPositionalArguments()) {
+            mergedStatistics.merge(SolveStatistics.readFrom(Path.of(filename)));
+        }
+
+        final Optional<String> output = commandLine.getOption("output");
+        if (output.isPresent()) {
+            mergedStatistics.writeTo(Path.of(output.get()));
+        }
+        System.out.println("Merged " + commandLine.getPositionalArguments().size() + " statistics files");
+        mergedStatistics.printReport(System.out);
+    }
+}
@@ -0,0 +1,133 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuFormatException;
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.PuzzleMinimizer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static de.tilmanschweitzer.sudoku.app.StreamSolveCommand.await;
+
+/*
+ * Streams a corpus and writes one "puzzle,solution" line per input line, in which every given of the puzzle is
+ * needed for the unique solution. A completed grid as puzzle gives a new minimal puzzle of that grid.
+ *
+ * The puzzles are minimized in parallel on --threads threads, every puzzle on one thread, and written in input order.
+ * At most 4 * threads puzzles are read ahead. So the speedup is close to the number of threads for a large input,
+ * but a single puzzle is not minimized faster, and a slow puzzle holds back the output of the puzzles after it
+ * until it is done.
+ *
+ * The givens are tried in position order. With --seed=<seed> they are tried in a random order per line, which is
+ * reproducible for the same seed and input.
+ *
+ * Usage: minimize <input|-> [output|-] [--threads=<cores>] [--seed=<seed>]
+ */
+public class MinimizeCommand implements Command {
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final String input = commandLine.getPositionalArgument(0, "input file");
+        final String output = commandLine.getPositionalArgument(1, "output file", CorpusFiles.STANDARD_STREAM);
+        final int threads = commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+        final Optional<Long> seed = commandLine.getOption("seed").map(Long::parseLong);
+
+        final PuzzleMinimizer minimizer = new PuzzleMinimizer();
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final int maxPuzzlesInFlight = 4 * threads;
+        final Deque<Future<MinimizedPuzzle>> puzzlesInFlight = new ArrayDeque<>(maxPuzzlesInFlight);
+        final Counts counts = new Counts();
+
+        try (BufferedReader reader = CorpusFiles.openReader(input); BufferedWriter writer = CorpusFiles.openWriter(output)) {
+            String line = reader.readLine();
+            if (line != null && CorpusFiles.isHeader(line)) {
+                writer.write(line);
+                writer.newLine();
+                line = reader.readLine();
+            }
+            for (long lineNumber = 0; line != null; lineNumber++, line = reader.readLine()) {
+                final String puzzleLine = line;
+                final long currentLineNumber = lineNumber;
+                final Optional<Random> random = seed.map(value -> new Random(value + currentLineNumber));
+                puzzlesInFlight.add(executorService.submit(() -> minimize(minimizer, puzzleLine, random)));
+                if (puzzlesInFlight.size() >= maxPuzzlesInFlight) {
+                    write(await(puzzlesInFlight.poll()), writer, counts);
+                }
+            }
+            while (!puzzlesInFlight.isEmpty()) {
+                write(await(puzzlesInFlight.poll()), writer, counts);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        System.err.println("Minimized " + counts.puzzles + " puzzles, removed " + counts.removedGivens + " givens");
+        if (counts.skippedLines > 0) {
+            System.err.println("Skipped " + counts.skippedLines + " lines without a puzzle with a unique solution");
+        }
+    }
+
+    /*
+     * Returns null for lines without a puzzle with a unique solution
+     */
+    private static MinimizedPuzzle minimize(PuzzleMinimizer minimizer, String line, Optional<Random> random) {
+        try {
+            final Sudoku puzzle = Sudoku.fromString(CorpusFiles.getPuzzle(line));
+            final Sudoku minimized = random.isPresent() ? minimizer.minimize(puzzle, random.get()) : minimizer.minimize(puzzle);
+            return new MinimizedPuzzle(countGivens(puzzle) - countGivens(minimized), minimized, new PropagatingSudokuSolver().solve(minimized));
+        } catch (SudokuFormatException | IllegalArgumentException e) {
+            // Invalid digits, wrong length or no unique solution
+            return null;
+        }
+    }
+
+    private static void write(MinimizedPuzzle minimizedPuzzle, BufferedWriter writer, Counts counts) throws IOException {
+        if (minimizedPuzzle == null) {
+            counts.skippedLines++;
+            return;
+        }
+        counts.puzzles++;
+        counts.removedGivens += minimizedPuzzle.removedGivens;
+        writer.write(minimizedPuzzle.minimized.toCompactString());
+        writer.write(',');
+        writer.write(minimizedPuzzle.solution.toCompactString());
+        writer.newLine();
+    }
+
+    private static int countGivens(Sudoku sudoku) {
+        int givens = 0;
+        for (char value : sudoku.toCompactString().toCharArray()) {
+            givens += value == '0' ? 0 : 1;
+        }
+        return givens;
+    }
+
+    private static class MinimizedPuzzle {
+        private final int removedGivens;
+        private final Sudoku minimized;
+        private final Sudoku solution;
+
+        private MinimizedPuzzle(int removedGivens, Sudoku minimized, Sudoku solution) {
+            this.removedGivens = removedGivens;
+            this.minimized = minimized;
+            this.solution = solution;
+        }
+    }
+
+    private static class Counts {
+        private long puzzles;
+        private long removedGivens;
+        private long skippedLines;
+    }
+}
@@ -0,0 +1,96 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuFormatException;
+import de.tilmanschweitzer.sudoku.solver.SolveLimits;
+import de.tilmanschweitzer.sudoku.solver.SolveResult;
+import de.tilmanschweitzer.sudoku.solver.SudokuSolver;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+ * Parses, solves and times a single puzzle, the solver must be safe to use from multiple threads.
+ * With --timeout-ms=<millis> or --max-nodes=<nodes> every puzzle gets its own limits, a puzzle that exceeds
+ * them is reported with status limit_exceeded and the values known so far.
+ * With SolverMetrics every processed puzzle is also counted there.
+ */
+public class PuzzleProcessor {
+
+    private final SudokuSolver sudokuSolver;
+    private final Optional<Duration> timeout;
+    private final long maxNodes;
+    private final Optional<SolverMetrics> metrics;
+
+    public PuzzleProcessor(SudokuSolver sudokuSolver) {
+        this(sudokuSolver, Optional.empty(), Long.MAX_VALUE);
+    }
+
+    public PuzzleProcessor(SudokuSolver sudokuSolver, Optional<Duration> timeout, long maxNodes) {
+        this(sudokuSolver, timeout, maxNodes, Optional.empty());
+    }
+
+    private PuzzleProcessor(SudokuSolver sudokuSolver, Optional<Duration> timeout, long maxNodes, Optional<SolverMetrics> metrics) {
+        this.sudokuSolver = sudokuSolver;
+        this.timeout = timeout;
+        this.maxNodes = maxNodes;
+        this.metrics = metrics;
+    }
+
+    public PuzzleProcessor withMetrics(SolverMetrics metrics) {
+        return new PuzzleProcessor(sudokuSolver, timeout, maxNodes, Optional.of(metrics));
+    }
+
+    public static PuzzleProcessor fromCommandLine(CommandLine commandLine, SudokuSolver sudokuSolver) {
+        final Optional<Duration> timeout = commandLine.getOption("timeout-ms").map(Long::parseLong).map(Duration::ofMillis);
+        return new PuzzleProcessor(sudokuSolver, timeout, commandLine.getLongOption("max-nodes", Long.MAX_VALUE));
+    }
+
+    public PuzzleResult process(String puzzle) {
+        if (metrics.isEmpty()) {
+            return solve(puzzle);
+        }
+        metrics.get().started();
+        final PuzzleResult result = solve(puzzle);
+        metrics.get().finished(result);
+        return result;
+    }
+
+    private PuzzleResult solve(String puzzle) {
+        final Sudoku unsolvedSudoku;
+        try {
+            unsolvedSudoku = Sudoku.fromString(puzzle);
+        } catch (SudokuFormatException | NumberFormatException e) {
+            return new PuzzleResult(puzzle, "", PuzzleResult.Status.INVALID, 0);
+        }
+
+        final long startTime = System.nanoTime();
+        try {
+            final SolveResult result = sudokuSolver.solve(unsolvedSudoku, createLimits(startTime));
+            final long nanos = System.nanoTime() - startTime;
+            return new PuzzleResult(puzzle, solutionOf(result), statusOf(result), nanos, result.getNodes());
+        } catch (RuntimeException e) {
+            return new PuzzleResult(puzzle, "", PuzzleResult.Status.FAILED, System.nanoTime() - startTime);
+        }
+    }
+
+    private SolveLimits createLimits(long startTime) {
+        final SolveLimits limits = maxNodes == Long.MAX_VALUE ? SolveLimits.NONE : SolveLimits.NONE.withMaxNodes(maxNodes);
+        return timeout.map(duration -> limits.withDeadline(startTime + duration.toNanos())).orElse(limits);
+    }
+
+    private static String solutionOf(SolveResult result) {
+        return result.getStatus() == SolveResult.Status.FAILED ? "" : result.getSudoku().toCompactString();
+    }
+
+    private static PuzzleResult.Status statusOf(SolveResult result) {
+        if (result.getStatus().isLimitExceeded()) {
+            return PuzzleResult.Status.LIMIT_EXCEEDED;
+        }
+        switch (result.getStatus()) {
+            case SOLVED: return PuzzleResult.Status.SOLVED;
+            case UNSOLVED: return PuzzleResult.Status.UNSOLVED;
+            default: return PuzzleResult.Status.FAILED;
+        }
+    }
+}
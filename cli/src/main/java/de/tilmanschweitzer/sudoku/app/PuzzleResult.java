@@ -0,0 +1,71 @@
+package de.tilmanschweitzer.sudoku.app;
+
+/*
+ * Outcome of solving a single corpus puzzle
+ */
+public class PuzzleResult {
+
+    public static final String CSV_HEADER = "puzzle,solution,status,nanos";
+
+    public enum Status {
+        // Completed and valid solution
+        SOLVED,
+        // The solver returned without a complete and valid solution
+        UNSOLVED,
+        // The solver failed, e.g. because the puzzle has no or multiple solutions
+        FAILED,
+        // The puzzle could not be parsed
+        INVALID,
+        // The solver stopped at the deadline or the node limit
+        LIMIT_EXCEEDED;
+
+        public String toCsvValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final String puzzle;
+    private final String solution;
+    private final Status status;
+    private final long nanos;
+    private final long nodes;
+
+    public PuzzleResult(String puzzle, String solution, Status status, long nanos) {
+        this(puzzle, solution, status, nanos, 0);
+    }
+
+    public PuzzleResult(String puzzle, String solution, Status status, long nanos, long nodes) {
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.status = status;
+        this.nanos = nanos;
+        this.nodes = nodes;
+    }
+
+    public String getPuzzle() {
+        return puzzle;
+    }
+
+    public String getSolution() {
+        return solution;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /*
+     * Search nodes visited by the solver, 0 if the puzzle was solved without search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public String toCsvLine() {
+        return puzzle + ',' + solution + ',' + status.toCsvValue() + ',' + nanos;
+    }
+}
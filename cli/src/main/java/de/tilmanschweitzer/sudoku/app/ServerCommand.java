@@ -0,0 +1,37 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * Runs the HTTP solve endpoint until the process is stopped, see SolveServer for the protocol.
+ * The solver metrics and the number of solver threads are available over JMX as SolverMetrics "server".
+ *
+ * Usage: server [--port=8080] [--solver=propagating] [--threads=<cores>] [--queue=4096] [--batch=32]
+ *               [--timeout-ms=<millis>] [--max-nodes=<nodes>]
+ */
+public class ServerCommand implements Command {
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final int port = commandLine.getIntOption("port", 8080);
+        final SolverConfiguration solverConfiguration = SolverConfiguration.fromCommandLine(commandLine, SolverConfiguration.PROPAGATING);
+        final int threads = commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+        final int queueCapacity = commandLine.getIntOption("queue", 4096);
+        final int batchSize = commandLine.getIntOption("batch", 32);
+
+        final SolverMetrics metrics = new SolverMetrics();
+        final PuzzleProcessor puzzleProcessor = PuzzleProcessor.fromCommandLine(commandLine, solverConfiguration.createSolver()).withMetrics(metrics);
+        final SolveQueue solveQueue = new SolveQueue(puzzleProcessor, threads, queueCapacity, batchSize);
+        metrics.withParallelismControl(solveQueue::getParallelism, solveQueue::setParallelism).register("server");
+        final SolveServer solveServer = new SolveServer(solveQueue, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            solveServer.close();
+            solveQueue.close();
+        }));
+        solveServer.start();
+        System.err.println("Solving with " + solverConfiguration.getName() + " on port " + solveServer.getPort()
+                + " (" + threads + " threads, queue capacity " + queueCapacity + ", batch size " + batchSize + ")");
+    }
+}
@@ -0,0 +1,134 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+
+/*
+ * Checks the solution column of a CSV line directly on its bytes: complete, no value twice in a house, consistent
+ * with the givens of the puzzle in the first column and optionally equal to an expected column. The used values
+ * of the houses are collected as bitmasks in arrays that are reused for every line, so a check allocates nothing.
+ *
+ * An instance is not thread safe, every thread needs its own verifier.
+ */
+public class SolutionVerifier {
+
+    public static final int NO_COLUMN = -1;
+
+    public enum Outcome {
+        VALID, MALFORMED, INCOMPLETE, INVALID, INCONSISTENT, MISMATCH;
+
+        public String toCsvValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final int solutionColumn;
+    private final int expectedColumn;
+    private final int[] columnStarts;
+    private final int[] columnEnds;
+    private final int[] usedInCol = new int[9];
+    private final int[] usedInBox = new int[9];
+
+    public SolutionVerifier(int solutionColumn, int expectedColumn) {
+        if (solutionColumn < 1 || (expectedColumn != NO_COLUMN && expectedColumn < 1)) {
+            throw new IllegalArgumentException("The first column is the puzzle");
+        }
+        this.solutionColumn = solutionColumn;
+        this.expectedColumn = expectedColumn;
+        final int columns = Math.max(solutionColumn, expectedColumn) + 1;
+        this.columnStarts = new int[columns];
+        this.columnEnds = new int[columns];
+    }
+
+    public Outcome verify(byte[] line, int length) {
+        if (!findColumns(line, length)) {
+            return Outcome.MALFORMED;
+        }
+        final int puzzleStart = columnStarts[0];
+        final int solutionStart = columnStarts[solutionColumn];
+        if (!isGrid(line, 0) || !isGrid(line, solutionColumn)) {
+            return Outcome.MALFORMED;
+        }
+        if (expectedColumn != NO_COLUMN && !isGrid(line, expectedColumn)) {
+            return Outcome.MALFORMED;
+        }
+
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            if (line[solutionStart + index] == '0') {
+                return Outcome.INCOMPLETE;
+            }
+        }
+        if (!hasDistinctHouses(line, solutionStart)) {
+            return Outcome.INVALID;
+        }
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            final byte given = line[puzzleStart + index];
+            if (given != '0' && given != line[solutionStart + index]) {
+                return Outcome.INCONSISTENT;
+            }
+        }
+        if (expectedColumn != NO_COLUMN) {
+            final int expectedStart = columnStarts[expectedColumn];
+            for (int index = 0; index < SUDOKU_SIZE; index++) {
+                if (line[expectedStart + index] != line[solutionStart + index]) {
+                    return Outcome.MISMATCH;
+                }
+            }
+        }
+        return Outcome.VALID;
+    }
+
+    /*
+     * Returns false if the line has not enough columns
+     */
+    private boolean findColumns(byte[] line, int length) {
+        int column = 0;
+        columnStarts[0] = 0;
+        for (int index = 0; index < length; index++) {
+            if (line[index] == ',') {
+                columnEnds[column] = index;
+                if (++column == columnStarts.length) {
+                    return true;
+                }
+                columnStarts[column] = index + 1;
+            }
+        }
+        columnEnds[column] = length;
+        return column == columnStarts.length - 1;
+    }
+
+    /*
+     * 81 digits between 0 and 9
+     */
+    private boolean isGrid(byte[] line, int column) {
+        if (columnEnds[column] - columnStarts[column] != SUDOKU_SIZE) {
+            return false;
+        }
+        for (int index = columnStarts[column]; index < columnEnds[column]; index++) {
+            if (line[index] < '0' || line[index] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasDistinctHouses(byte[] line, int start) {
+        for (int i = 0; i < 9; i++) {
+            usedInCol[i] = 0;
+            usedInBox[i] = 0;
+        }
+        for (int row = 0; row < 9; row++) {
+            int usedInRow = 0;
+            for (int col = 0; col < 9; col++) {
+                final int bit = 1 << (line[start + row * 9 + col] - '0');
+                final int box = row / 3 * 3 + col / 3;
+                if (((usedInRow | usedInCol[col] | usedInBox[box]) & bit) != 0) {
+                    return false;
+                }
+                usedInRow |= bit;
+                usedInCol[col] |= bit;
+                usedInBox[box] |= bit;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,150 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/*
+ * Checkpoints of a solve run from an input file to an output file. A checkpoint contains the input offset of the
+ * next unsolved line, the size of the output file up to the last complete result and the statistics of all
+ * results so far.
+ *
+ * The output is forced to disk before the checkpoint file is replaced, so the checkpoint never points behind the
+ * written results. A resumed run truncates the output to the checkpointed size, results written after the last
+ * checkpoint are solved again.
+ */
+public class SolveCheckpoint {
+
+    private static final String PREFIX = "checkpoint.";
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path path;
+    private final String input;
+    private final InputSlice slice;
+    private final long intervalNanos;
+    private final SolveStatistics statistics;
+    private long inputOffset;
+    private long outputPosition;
+    private boolean resumed;
+    private long lastWriteNanos = System.nanoTime();
+    private FileChannel outputChannel;
+    private BufferedWriter outputWriter;
+
+    private SolveCheckpoint(Path path, String input, InputSlice slice, long intervalNanos) {
+        this.path = path;
+        this.input = input;
+        this.slice = slice;
+        this.intervalNanos = intervalNanos;
+        this.statistics = new SolveStatistics();
+        this.inputOffset = slice.getStartOffset();
+    }
+
+    /*
+     * Continues from the checkpoint file if it exists, the run must have the same input and slice
+     */
+    public static SolveCheckpoint open(Path path, String input, InputSlice slice, long intervalNanos) throws IOException {
+        if (CorpusFiles.STANDARD_STREAM.equals(input)) {
+            throw new IllegalArgumentException("Checkpoints need an input file");
+        }
+        final SolveCheckpoint checkpoint = new SolveCheckpoint(path, input, slice, intervalNanos);
+        if (!Files.exists(path)) {
+            return checkpoint;
+        }
+
+        final Properties properties = new Properties();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        final String checkpointedRun = properties.getProperty(PREFIX + "input") + " " + properties.getProperty(PREFIX + "slice");
+        if (!checkpointedRun.equals(input + " " + slice)) {
+            throw new IllegalArgumentException("Checkpoint " + path + " belongs to the run " + checkpointedRun);
+        }
+        checkpoint.inputOffset = Long.parseLong(properties.getProperty(PREFIX + "input-offset"));
+        checkpoint.outputPosition = Long.parseLong(properties.getProperty(PREFIX + "output-position"));
+        checkpoint.statistics.merge(SolveStatistics.fromProperties(properties));
+        checkpoint.resumed = true;
+        return checkpoint;
+    }
+
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /*
+     * Part of the input slice that was not solved yet
+     */
+    public InputSlice getRemainingSlice() {
+        return new InputSlice(inputOffset, slice.getEndOffset());
+    }
+
+    /*
+     * Statistics of all results up to the checkpoint, further results are recorded here as well
+     */
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+
+    /*
+     * Opens the output file, a resumed run continues after the checkpointed results
+     */
+    public BufferedWriter openOutput(String output) throws IOException {
+        if (CorpusFiles.STANDARD_STREAM.equals(output)) {
+            throw new IllegalArgumentException("Checkpoints need an output file");
+        }
+        outputChannel = FileChannel.open(Path.of(output), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (outputChannel.size() < outputPosition) {
+            throw new IllegalStateException("Output " + output + " is shorter than its checkpoint");
+        }
+        outputChannel.truncate(outputPosition);
+        outputChannel.position(outputPosition);
+        outputWriter = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(outputChannel), StandardCharsets.US_ASCII), BUFFER_SIZE);
+        return outputWriter;
+    }
+
+    /*
+     * Writes a checkpoint if the interval has passed. All results up to the input offset must be written and
+     * recorded in the statistics.
+     */
+    public void update(long inputOffset) throws IOException {
+        if (System.nanoTime() - lastWriteNanos < intervalNanos) {
+            return;
+        }
+        outputWriter.flush();
+        outputChannel.force(false);
+        this.inputOffset = inputOffset;
+        this.outputPosition = outputChannel.position();
+        write();
+        lastWriteNanos = System.nanoTime();
+    }
+
+    /*
+     * Removes the checkpoint after the run is complete
+     */
+    public void complete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private void write() throws IOException {
+        final Properties properties = statistics.toProperties();
+        properties.setProperty(PREFIX + "input", input);
+        properties.setProperty(PREFIX + "slice", slice.toString());
+        properties.setProperty(PREFIX + "input-offset", Long.toString(inputOffset));
+        properties.setProperty(PREFIX + "output-position", Long.toString(outputPosition));
+
+        // Written next to the checkpoint and moved, so a crash never leaves a partial checkpoint
+        final Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryPath)) {
+            properties.store(writer, "sudoku-solver checkpoint");
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,140 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+
+/*
+ * Bounded queue in front of the solver threads. Every worker takes all waiting puzzles up to the batch size
+ * from the queue at once and then solves them one after another, so under load there is one queue hand-off per
+ * batch instead of per puzzle. The solving itself is not batched.
+ * The capacity is counted in puzzles, a request that does not fit completely is rejected.
+ *
+ * After close no puzzles are accepted anymore and the futures of the puzzles that are still waiting complete
+ * with a RejectedExecutionException.
+ *
+ * The number of workers can be changed while puzzles are solved: missing workers are started at once, surplus
+ * workers stop after their current batch or when they are idle.
+ */
+public class SolveQueue implements AutoCloseable {
+
+    private static final long IDLE_CHECK_MILLIS = 100;
+
+    private final PuzzleProcessor puzzleProcessor;
+    private final int batchSize;
+    private final int capacity;
+    private final Semaphore freeCapacity;
+    private final BlockingQueue<PendingPuzzle> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private volatile int parallelism;
+    private boolean closed;
+
+    public SolveQueue(PuzzleProcessor puzzleProcessor, int threads, int capacity, int batchSize) {
+        this.puzzleProcessor = puzzleProcessor;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.freeCapacity = new Semaphore(capacity);
+        setParallelism(threads);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+        this.parallelism = parallelism;
+        while (workerCount.get() < parallelism) {
+            workerCount.incrementAndGet();
+            workers.execute(this::work);
+        }
+    }
+
+    /*
+     * Returns one future per puzzle in the given order or an empty optional if the queue is full
+     * Throws a RejectedExecutionException if the queue is closed
+     */
+    public synchronized Optional<List<CompletableFuture<PuzzleResult>>> trySubmit(List<String> puzzles) {
+        if (closed) {
+            throw new RejectedExecutionException("The solve queue is closed");
+        }
+        if (!freeCapacity.tryAcquire(puzzles.size())) {
+            return Optional.empty();
+        }
+        final List<PendingPuzzle> pendingPuzzles = puzzles.stream().map(PendingPuzzle::new).collect(toList());
+        queue.addAll(pendingPuzzles);
+        return Optional.of(pendingPuzzles.stream().map(pendingPuzzle -> pendingPuzzle.result).collect(toList()));
+    }
+
+    private void work() {
+        final List<PendingPuzzle> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted() && !retireIfSurplus()) {
+                final PendingPuzzle first = queue.poll(IDLE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                freeCapacity.release(batch.size());
+                for (PendingPuzzle pendingPuzzle : batch) {
+                    pendingPuzzle.result.complete(puzzleProcessor.process(pendingPuzzle.puzzle));
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean retireIfSurplus() {
+        int count;
+        while ((count = workerCount.get()) > parallelism) {
+            if (workerCount.compareAndSet(count, count - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        workers.shutdownNow();
+        // Puzzles that a worker already took are still solved
+        final List<PendingPuzzle> waitingPuzzles = new ArrayList<>();
+        queue.drainTo(waitingPuzzles);
+        for (PendingPuzzle pendingPuzzle : waitingPuzzles) {
+            pendingPuzzle.result.completeExceptionally(new RejectedExecutionException("The solve queue is closed"));
+        }
+    }
+
+    private static class PendingPuzzle {
+        private final String puzzle;
+        private final CompletableFuture<PuzzleResult> result = new CompletableFuture<>();
+
+        private PendingPuzzle(String puzzle) {
+            this.puzzle = puzzle;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.stream.Collectors.toList;
+
+/*
+ * HTTP endpoint for the solvers:
+ *
+ * POST /solve        body: one puzzle with 81 digits
+ *                    response: one "puzzle,solution,status,nanos" line, 200 if solved, 400 if invalid, 422 otherwise
+ * POST /solve/batch  body: one puzzle per line (a CSV header and further columns are ignored)
+ *                    response: CSV header and one line per puzzle in request order, 200 for every processed batch
+ *
+ * All puzzles go through a bounded SolveQueue, requests that do not fit into the queue are answered with 429.
+ * Responses are written by the HTTP threads, the solver threads only solve.
+ */
+public class SolveServer implements AutoCloseable {
+
+    private static final int HANDLER_THREADS = 4;
+    private static final String CONTENT_TYPE = "text/csv; charset=us-ascii";
+
+    private final SolveQueue solveQueue;
+    private final HttpServer httpServer;
+    private final ExecutorService handlerExecutor = Executors.newFixedThreadPool(HANDLER_THREADS);
+
+    public SolveServer(SolveQueue solveQueue, int port) throws IOException {
+        this.solveQueue = solveQueue;
+        this.httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.setExecutor(handlerExecutor);
+        httpServer.createContext("/solve", exchange -> handle(exchange, false));
+        httpServer.createContext("/solve/batch", exchange -> handle(exchange, true));
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange, boolean batch) throws IOException {
+        if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+            respond(exchange, 404, "Not found\n");
+            return;
+        }
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Only POST is supported\n");
+            return;
+        }
+        final String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.US_ASCII);
+        final List<String> puzzles = batch ? parseBatch(body) : List.of(body.trim());
+        if (puzzles.size() > solveQueue.getCapacity()) {
+            respond(exchange, 413, "At most " + solveQueue.getCapacity() + " puzzles per request\n");
+            return;
+        }
+
+        final Optional<List<CompletableFuture<PuzzleResult>>> results;
+        try {
+            results = solveQueue.trySubmit(puzzles);
+        } catch (RejectedExecutionException e) {
+            respond(exchange, 503, "Server is shutting down\n");
+            return;
+        }
+        if (results.isEmpty()) {
+            respond(exchange, 429, "Queue is full\n");
+            return;
+        }
+
+        // The exchange is completed asynchronously, so the handler thread is free for further requests
+        CompletableFuture.allOf(results.get().toArray(new CompletableFuture[0]))
+                .whenCompleteAsync((ignored, error) -> {
+                    try {
+                        if (error != null) {
+                            respond(exchange, 503, "Server is shutting down\n");
+                        } else if (batch) {
+                            respondWithBatch(exchange, results.get());
+                        } else {
+                            respondWithSingle(exchange, results.get().get(0).join());
+                        }
+                    } catch (IOException e) {
+                        exchange.close();
+                    }
+                }, handlerExecutor);
+    }
+
+    private static List<String> parseBatch(String body) {
+        return body.lines()
+                .filter(line -> !line.isBlank() && !CorpusFiles.isHeader(line))
+                .map(CorpusFiles::getPuzzle)
+                .collect(toList());
+    }
+
+    private static void respondWithSingle(HttpExchange exchange, PuzzleResult result) throws IOException {
+        respond(exchange, statusCodeOf(result.getStatus()), result.toCsvLine() + '\n');
+    }
+
+    private static void respondWithBatch(HttpExchange exchange, List<CompletableFuture<PuzzleResult>> results) throws IOException {
+        final StringBuilder response = new StringBuilder(PuzzleResult.CSV_HEADER.length() + 1 + results.size() * 200);
+        response.append(PuzzleResult.CSV_HEADER).append('\n');
+        for (CompletableFuture<PuzzleResult> result : results) {
+            response.append(result.join().toCsvLine()).append('\n');
+        }
+        respond(exchange, 200, response.toString());
+    }
+
+    private static int statusCodeOf(PuzzleResult.Status status) {
+        switch (status) {
+            case SOLVED: return 200;
+            case INVALID: return 400;
+            default: return 422;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        handlerExecutor.shutdownNow();
+    }
+}
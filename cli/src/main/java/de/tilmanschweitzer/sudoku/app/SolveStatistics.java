@@ -0,0 +1,113 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+ * Statistics of a (partial) corpus run that can be written to a file and merged with the statistics of other
+ * shards of the same run
+ */
+public class SolveStatistics {
+
+    private static final String STATUS_PREFIX = "status.";
+    private static final String LATENCY_PREFIX = "latency.";
+
+    private final Map<PuzzleResult.Status, Long> numberOfResultsByStatus = new EnumMap<>(PuzzleResult.Status.class);
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    public void record(PuzzleResult result) {
+        numberOfResultsByStatus.merge(result.getStatus(), 1L, Long::sum);
+        if (result.getStatus() != PuzzleResult.Status.INVALID) {
+            latencies.record(result.getNanos());
+        }
+    }
+
+    public void merge(SolveStatistics other) {
+        other.numberOfResultsByStatus.forEach((status, count) -> numberOfResultsByStatus.merge(status, count, Long::sum));
+        latencies.merge(other.latencies);
+    }
+
+    public long getNumberOfResults(PuzzleResult.Status status) {
+        return numberOfResultsByStatus.getOrDefault(status, 0L);
+    }
+
+    public long getNumberOfResults() {
+        return numberOfResultsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public void writeTo(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            toProperties().store(writer, "sudoku-solver statistics");
+        }
+    }
+
+    public static SolveStatistics readFrom(Path path) throws IOException {
+        final Properties properties = new Properties();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+
+    public Properties toProperties() {
+        final Properties properties = new Properties();
+        for (PuzzleResult.Status status : PuzzleResult.Status.values()) {
+            properties.setProperty(STATUS_PREFIX + status.toCsvValue(), Long.toString(getNumberOfResults(status)));
+        }
+        properties.setProperty(LATENCY_PREFIX + "count", Long.toString(latencies.getCount()));
+        properties.setProperty(LATENCY_PREFIX + "sum", Long.toString(latencies.getSum()));
+        properties.setProperty(LATENCY_PREFIX + "min", Long.toString(latencies.getMin()));
+        properties.setProperty(LATENCY_PREFIX + "max", Long.toString(latencies.getMax()));
+        properties.setProperty(LATENCY_PREFIX + "buckets", latencies.bucketsToString());
+        return properties;
+    }
+
+    public static SolveStatistics fromProperties(Properties properties) {
+        final SolveStatistics statistics = new SolveStatistics();
+        for (PuzzleResult.Status status : PuzzleResult.Status.values()) {
+            final long count = Long.parseLong(properties.getProperty(STATUS_PREFIX + status.toCsvValue(), "0"));
+            if (count > 0) {
+                statistics.numberOfResultsByStatus.put(status, count);
+            }
+        }
+        statistics.latencies.merge(LatencyHistogram.of(
+                Long.parseLong(properties.getProperty(LATENCY_PREFIX + "count", "0")),
+                Long.parseLong(properties.getProperty(LATENCY_PREFIX + "sum", "0")),
+                Long.parseLong(properties.getProperty(LATENCY_PREFIX + "min", "0")),
+                Long.parseLong(properties.getProperty(LATENCY_PREFIX + "max", "0")),
+                properties.getProperty(LATENCY_PREFIX + "buckets", "")));
+        return statistics;
+    }
+
+    public void printReport(PrintStream out) {
+        out.println("Solved " + getNumberOfResults(PuzzleResult.Status.SOLVED) + " of " + getNumberOfResults() + " sudokus");
+        for (PuzzleResult.Status status : PuzzleResult.Status.values()) {
+            out.println("  " + status.toCsvValue() + ": " + getNumberOfResults(status));
+        }
+        out.println("==============================\n");
+        out.println("Latency statistics:");
+        out.println("Sum of latencies: " + formatNanos(latencies.getSum()));
+        out.println("Mean latency: " + formatNanos(latencies.getMean()));
+        out.println("Min latency: " + formatNanos(latencies.getMin()));
+        out.println("p50 latency: " + formatNanos(latencies.getPercentile(50)));
+        out.println("p90 latency: " + formatNanos(latencies.getPercentile(90)));
+        out.println("p99 latency: " + formatNanos(latencies.getPercentile(99)));
+        out.println("p99.9 latency: " + formatNanos(latencies.getPercentile(99.9)));
+        out.println("Max latency: " + formatNanos(latencies.getMax()));
+    }
+
+    private static String formatNanos(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+}
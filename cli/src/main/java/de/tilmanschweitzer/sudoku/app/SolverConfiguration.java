@@ -0,0 +1,61 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.AdaptiveSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.BacktrackingSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.DeductiveSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.PortfolioSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.SudokuSolver;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.joining;
+
+/*
+ * Solver configurations selectable by name on the command line
+ */
+public enum SolverConfiguration {
+    DEDUCTIVE_WITH_FALLBACK("deductive", () -> DeductiveSudokuSolver.createWithFallbackSolver(new BacktrackingSudokuSolver())),
+    DEDUCTIVE_ONLY("deductive-only", () -> DeductiveSudokuSolver.withFailWhenUnsolved(false)),
+    BACKTRACKING("backtracking", BacktrackingSudokuSolver::new),
+    PROPAGATING("propagating", PropagatingSudokuSolver::new),
+    // Deduction only for puzzles that the calibrated thresholds consider easy, backtracking for all others
+    ADAPTIVE("adaptive", () -> AdaptiveSudokuSolver.withDefaultThresholds(new BacktrackingSudokuSolver())),
+    // Races the propagating solver against the deductive solver with backtracking fallback
+    PORTFOLIO("portfolio", () -> PortfolioSudokuSolver.racing(new PropagatingSudokuSolver(), DEDUCTIVE_WITH_FALLBACK.createSolver())),
+    // Starts the deductive solver only if the propagating solver needs more than 5ms
+    HEDGED("hedged", () -> PortfolioSudokuSolver.racing(new PropagatingSudokuSolver(), DEDUCTIVE_WITH_FALLBACK.createSolver())
+            .withHedgingDelay(Duration.ofMillis(5)));
+
+    public static final String OPTION_NAME = "solver";
+
+    private final String name;
+    private final Supplier<SudokuSolver> solverSupplier;
+
+    SolverConfiguration(String name, Supplier<SudokuSolver> solverSupplier) {
+        this.name = name;
+        this.solverSupplier = solverSupplier;
+    }
+
+    public static SolverConfiguration byName(String name) {
+        return Arrays.stream(values())
+                .filter(configuration -> configuration.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown solver " + name + ", expected one of "
+                        + Arrays.stream(values()).map(SolverConfiguration::getName).collect(joining(", "))));
+    }
+
+    public static SolverConfiguration fromCommandLine(CommandLine commandLine, SolverConfiguration defaultConfiguration) {
+        return commandLine.getOption(OPTION_NAME).map(SolverConfiguration::byName).orElse(defaultConfiguration);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SudokuSolver createSolver() {
+        return solverSupplier.get();
+    }
+}
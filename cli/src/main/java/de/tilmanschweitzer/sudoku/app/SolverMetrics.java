@@ -0,0 +1,196 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/*
+ * Live counters of a solving process for JMX clients like jconsole. All counters are LongAdders, so the solver
+ * threads update their own cells without contending on a shared value. The latency histogram has one adder per
+ * bucket and is only summed up when a client reads a percentile.
+ *
+ * The worker parallelism is read and changed through the functions of the command that owns the workers, which
+ * are attached after the workers were created.
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+
+    private static final String OBJECT_NAME = "de.tilmanschweitzer.sudoku:type=SolverMetrics,name=";
+
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder unsolved = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder limitExceeded = new LongAdder();
+    private final LongAdder searched = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder[] latencyBuckets = new LongAdder[LatencyHistogram.BUCKET_COUNT];
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAccumulator latencyMin = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator latencyMax = new LongAccumulator(Math::max, 0);
+
+    private volatile ObjectName objectName;
+    private volatile IntSupplier parallelismGetter = () -> 0;
+    private volatile IntConsumer parallelismSetter = parallelism -> {
+        throw new UnsupportedOperationException("The parallelism of this process cannot be changed");
+    };
+
+    public SolverMetrics() {
+        for (int index = 0; index < latencyBuckets.length; index++) {
+            latencyBuckets[index] = new LongAdder();
+        }
+    }
+
+    public SolverMetrics withParallelismControl(IntSupplier parallelismGetter, IntConsumer parallelismSetter) {
+        this.parallelismGetter = parallelismGetter;
+        this.parallelismSetter = parallelismSetter;
+        return this;
+    }
+
+    /*
+     * Registers the metrics at the platform MBean server as de.tilmanschweitzer.sudoku:type=SolverMetrics,name=<name>
+     */
+    public SolverMetrics register(String name) {
+        try {
+            objectName = new ObjectName(OBJECT_NAME + name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register solver metrics " + name, e);
+        }
+        return this;
+    }
+
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister solver metrics " + objectName, e);
+        }
+    }
+
+    void started() {
+        inFlight.increment();
+    }
+
+    void finished(PuzzleResult result) {
+        inFlight.decrement();
+        switch (result.getStatus()) {
+            case SOLVED: solved.increment(); break;
+            case UNSOLVED: unsolved.increment(); break;
+            case INVALID: invalid.increment(); return;
+            case LIMIT_EXCEEDED: limitExceeded.increment(); break;
+            default: failed.increment();
+        }
+        // The search solvers count the root as a node, even if propagation already completed the grid
+        if (result.getNodes() > 1) {
+            searched.increment();
+        }
+        final long nanos = Math.max(0, result.getNanos());
+        latencyBuckets[LatencyHistogram.indexFor(nanos)].increment();
+        latencySum.add(nanos);
+        latencyMin.accumulate(nanos);
+        latencyMax.accumulate(nanos);
+    }
+
+    @Override
+    public long getSolved() {
+        return solved.sum();
+    }
+
+    @Override
+    public long getUnsolved() {
+        return unsolved.sum();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getInvalid() {
+        return invalid.sum();
+    }
+
+    @Override
+    public long getLimitExceeded() {
+        return limitExceeded.sum();
+    }
+
+    @Override
+    public double getFallbackRate() {
+        final long processed = solved.sum() + unsolved.sum() + failed.sum() + limitExceeded.sum();
+        return processed == 0 ? 0 : (double) searched.sum() / processed;
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public long getLatencyP50() {
+        return getLatencies().getPercentile(50);
+    }
+
+    @Override
+    public long getLatencyP99() {
+        return getLatencies().getPercentile(99);
+    }
+
+    @Override
+    public long getLatencyP999() {
+        return getLatencies().getPercentile(99.9);
+    }
+
+    @Override
+    public long getLatencyMax() {
+        return latencyMax.get();
+    }
+
+    /*
+     * Snapshot of the latencies, concurrent updates may be partially included
+     */
+    public LatencyHistogram getLatencies() {
+        final long[] counts = new long[latencyBuckets.length];
+        for (int index = 0; index < latencyBuckets.length; index++) {
+            counts[index] = latencyBuckets[index].sum();
+        }
+        return LatencyHistogram.ofBucketCounts(counts, latencySum.sum(), latencyMin.get(), latencyMax.get());
+    }
+
+    @Override
+    public int getWorkerParallelism() {
+        return parallelismGetter.getAsInt();
+    }
+
+    @Override
+    public void setWorkerParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+        parallelismSetter.accept(parallelism);
+    }
+
+    /*
+     * Resets everything but the in flight count, puzzles finishing during the reset may be partially counted
+     */
+    @Override
+    public void resetCounters() {
+        solved.reset();
+        unsolved.reset();
+        failed.reset();
+        invalid.reset();
+        limitExceeded.reset();
+        searched.reset();
+        for (LongAdder latencyBucket : latencyBuckets) {
+            latencyBucket.reset();
+        }
+        latencySum.reset();
+        latencyMin.reset();
+        latencyMax.reset();
+    }
+}
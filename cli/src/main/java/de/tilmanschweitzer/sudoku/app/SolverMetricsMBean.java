@@ -0,0 +1,39 @@
+package de.tilmanschweitzer.sudoku.app;
+
+/*
+ * Management interface of SolverMetrics, latencies are in nanoseconds
+ */
+public interface SolverMetricsMBean {
+
+    long getSolved();
+
+    long getUnsolved();
+
+    long getFailed();
+
+    long getInvalid();
+
+    long getLimitExceeded();
+
+    /*
+     * Share of the processed puzzles that needed search nodes beyond the root, i.e. that deduction and propagation
+     * could not complete without guessing a value
+     */
+    double getFallbackRate();
+
+    long getInFlight();
+
+    long getLatencyP50();
+
+    long getLatencyP99();
+
+    long getLatencyP999();
+
+    long getLatencyMax();
+
+    int getWorkerParallelism();
+
+    void setWorkerParallelism(int parallelism);
+
+    void resetCounters();
+}
@@ -0,0 +1,163 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/*
+ * Streams puzzles from a corpus file or stdin through the solver and writes one
+ * "puzzle,solution,status,nanos" line per puzzle in input order. Puzzles are solved in batches on a fixed
+ * number of threads and at most --in-flight batches are read ahead, so the memory does not grow with the input.
+ *
+ * With --shard=<index>/<count> or --byte-range=<start>-<end> only the lines starting in that part of the input
+ * file are solved, so multiple processes can share one input file. --stats=<file> writes statistics that can
+ * be combined with the merge command.
+ *
+ * With --checkpoint=<file> the progress is written to the checkpoint file every --checkpoint-interval seconds
+ * (default 60) and a run that is started again with the same checkpoint continues from there instead of
+ * starting over. The checkpoint is removed when the run is complete.
+ *
+ * With --jmx the solver metrics and the number of solver threads are available over JMX as SolverMetrics "solve"
+ * while the command runs. It is off by default, because the platform MBean server adds a lot to the startup time.
+ *
+ * Usage: solve <input|-> [output|-] [--solver=propagating] [--threads=<cores>] [--in-flight=<4 * threads>]
+ *              [--shard=<index>/<count> | --byte-range=<start>-<end>] [--stats=<file>]
+ *              [--timeout-ms=<millis>] [--max-nodes=<nodes>]
+ *              [--checkpoint=<file>] [--checkpoint-interval=<seconds>] [--jmx]
+ */
+public class StreamSolveCommand implements Command {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long DEFAULT_CHECKPOINT_INTERVAL_SECONDS = 60;
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final String input = commandLine.getPositionalArgument(0, "input file");
+        final String output = commandLine.getPositionalArgument(1, "output file", CorpusFiles.STANDARD_STREAM);
+        final SolverConfiguration solverConfiguration = SolverConfiguration.fromCommandLine(commandLine, SolverConfiguration.PROPAGATING);
+        final int threads = commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+        final int maxBatchesInFlight = commandLine.getIntOption("in-flight", 4 * threads);
+
+        final InputSlice slice = InputSlice.fromCommandLine(commandLine, CorpusFiles.size(input));
+        final long checkpointIntervalNanos = TimeUnit.SECONDS.toNanos(commandLine.getLongOption("checkpoint-interval", DEFAULT_CHECKPOINT_INTERVAL_SECONDS));
+        final Optional<SolveCheckpoint> checkpoint = commandLine.getOption("checkpoint").isPresent()
+                ? Optional.of(SolveCheckpoint.open(Path.of(commandLine.getOption("checkpoint").get()), input, slice, checkpointIntervalNanos))
+                : Optional.empty();
+
+        final ThreadPoolExecutor executorService = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        final Optional<SolverMetrics> metrics = commandLine.hasFlag("jmx")
+                ? Optional.of(new SolverMetrics().withParallelismControl(executorService::getMaximumPoolSize, parallelism -> resize(executorService, parallelism)).register("solve"))
+                : Optional.empty();
+        final PuzzleProcessor unmonitoredPuzzleProcessor = PuzzleProcessor.fromCommandLine(commandLine, solverConfiguration.createSolver());
+        final PuzzleProcessor puzzleProcessor = metrics.map(unmonitoredPuzzleProcessor::withMetrics).orElse(unmonitoredPuzzleProcessor);
+        final SolveStatistics statistics = checkpoint.map(SolveCheckpoint::getStatistics).orElseGet(SolveStatistics::new);
+        final InputSlice remainingSlice = checkpoint.map(SolveCheckpoint::getRemainingSlice).orElse(slice);
+
+        try (CorpusLineReader reader = CorpusLineReader.open(input, remainingSlice);
+             BufferedWriter writer = checkpoint.isPresent() ? checkpoint.get().openOutput(output) : CorpusFiles.openWriter(output)) {
+            if (checkpoint.isEmpty() || !checkpoint.get().isResumed()) {
+                writer.write(PuzzleResult.CSV_HEADER);
+                writer.newLine();
+            }
+
+            final Deque<PendingBatch> batchesInFlight = new ArrayDeque<>(maxBatchesInFlight);
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || CorpusFiles.isHeader(line)) {
+                    continue;
+                }
+                batch.add(CorpusFiles.getPuzzle(line));
+                if (batch.size() == BATCH_SIZE) {
+                    batchesInFlight.add(submit(executorService, puzzleProcessor, batch, reader.getOffset()));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    if (batchesInFlight.size() >= maxBatchesInFlight) {
+                        write(batchesInFlight.poll(), writer, statistics, checkpoint);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchesInFlight.add(submit(executorService, puzzleProcessor, batch, reader.getOffset()));
+            }
+            while (!batchesInFlight.isEmpty()) {
+                write(batchesInFlight.poll(), writer, statistics, checkpoint);
+            }
+        } finally {
+            executorService.shutdownNow();
+            metrics.ifPresent(SolverMetrics::unregister);
+        }
+
+        final Optional<String> statsFile = commandLine.getOption("stats");
+        if (statsFile.isPresent()) {
+            statistics.writeTo(Path.of(statsFile.get()));
+        }
+        if (checkpoint.isPresent()) {
+            checkpoint.get().complete();
+        }
+        statistics.printReport(System.err);
+    }
+
+    /*
+     * The core size must not exceed the maximum size at any time
+     */
+    private static void resize(ThreadPoolExecutor executor, int threads) {
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    private static PendingBatch submit(ExecutorService executorService, PuzzleProcessor puzzleProcessor, List<String> puzzles, long inputOffset) {
+        return new PendingBatch(executorService.submit(() -> puzzles.stream().map(puzzleProcessor::process).collect(toList())), inputOffset);
+    }
+
+    private static void write(PendingBatch batch, BufferedWriter writer, SolveStatistics statistics, Optional<SolveCheckpoint> checkpoint) throws IOException {
+        for (PuzzleResult result : await(batch.results)) {
+            writer.write(result.toCsvLine());
+            writer.newLine();
+            statistics.record(result);
+        }
+        if (checkpoint.isPresent()) {
+            checkpoint.get().update(batch.inputOffset);
+        }
+    }
+
+    static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for solver", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Solver failed", e.getCause());
+        }
+    }
+
+    private static class PendingBatch {
+        private final Future<List<PuzzleResult>> results;
+        // Input offset of the line after the last puzzle of the batch
+        private final long inputOffset;
+
+        private PendingBatch(Future<List<PuzzleResult>> results, long inputOffset) {
+            this.results = results;
+            this.inputOffset = inputOffset;
+        }
+    }
+}
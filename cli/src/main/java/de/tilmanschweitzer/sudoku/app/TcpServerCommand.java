@@ -0,0 +1,32 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Runs the TCP line protocol until the process is stopped, see LineProtocolServer for the protocol.
+ * Puzzles are solved on the event loops, so every puzzle gets a timeout (default 1000 ms) and a puzzle that
+ * exceeds it or --max-nodes is answered with limit_exceeded.
+ *
+ * Usage: tcp [--port=9090] [--solver=propagating] [--threads=<cores>] [--timeout-ms=1000] [--max-nodes=<nodes>]
+ */
+public class TcpServerCommand implements Command {
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 1000;
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final int port = commandLine.getIntOption("port", 9090);
+        final SolverConfiguration solverConfiguration = SolverConfiguration.fromCommandLine(commandLine, SolverConfiguration.PROPAGATING);
+        final int threads = commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+        final Duration timeout = Duration.ofMillis(commandLine.getLongOption("timeout-ms", DEFAULT_TIMEOUT_MILLIS));
+        final long maxNodes = commandLine.getLongOption("max-nodes", Long.MAX_VALUE);
+
+        final LineProtocolServer server = new LineProtocolServer(solverConfiguration.createSolver(), Optional.of(timeout), maxNodes, port, threads);
+        server.start();
+        System.err.println("Solving with " + solverConfiguration.getName() + " on TCP port " + server.getPort() + " (" + threads + " event loops)");
+    }
+}
@@ -0,0 +1,74 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.SelectionThresholds;
+
+import java.util.List;
+import java.util.TreeSet;
+
+/*
+ * Finds the selection thresholds with the lowest total solve time for a recorded calibration run by trying
+ * every combination of the feature values that occur in the run
+ */
+public class ThresholdCalibration {
+
+    private static final int MAX_CANDIDATE_THRESHOLDS = 64;
+
+    private ThresholdCalibration() {
+    }
+
+    public static SelectionThresholds calibrate(List<CalibrationSample> samples) {
+        final TreeSet<Integer> minCluesValues = new TreeSet<>();
+        final TreeSet<Integer> maxCandidatesValues = new TreeSet<>();
+        final TreeSet<Integer> maxDigitSpreadValues = new TreeSet<>();
+        for (CalibrationSample sample : samples) {
+            minCluesValues.add(sample.getClueCount());
+            maxCandidatesValues.add(sample.getCandidateCount());
+            maxDigitSpreadValues.add(sample.getDigitSpread());
+        }
+
+        SelectionThresholds bestThresholds = SelectionThresholds.NEVER_DEDUCE;
+        long bestNanos = totalNanos(bestThresholds, samples);
+        for (int minClues : minCluesValues) {
+            for (int maxCandidates : thin(maxCandidatesValues)) {
+                for (int maxDigitSpread : maxDigitSpreadValues) {
+                    final SelectionThresholds thresholds = new SelectionThresholds(minClues, maxCandidates, maxDigitSpread);
+                    final long nanos = totalNanos(thresholds, samples);
+                    if (nanos < bestNanos) {
+                        bestThresholds = thresholds;
+                        bestNanos = nanos;
+                    }
+                }
+            }
+        }
+        return bestThresholds;
+    }
+
+    public static long totalNanos(SelectionThresholds thresholds, List<CalibrationSample> samples) {
+        long nanos = 0;
+        for (CalibrationSample sample : samples) {
+            nanos += prefersDeduction(thresholds, sample) ? sample.getDeductionFirstNanos() : sample.getSearchNanos();
+        }
+        return nanos;
+    }
+
+    private static boolean prefersDeduction(SelectionThresholds thresholds, CalibrationSample sample) {
+        return sample.getClueCount() >= thresholds.getMinClues()
+                && sample.getCandidateCount() <= thresholds.getMaxCandidates()
+                && sample.getDigitSpread() <= thresholds.getMaxDigitSpread();
+    }
+
+    /*
+     * At most MAX_CANDIDATE_THRESHOLDS evenly spaced values including the largest one
+     */
+    private static List<Integer> thin(TreeSet<Integer> values) {
+        final List<Integer> sortedValues = List.copyOf(values);
+        if (sortedValues.size() <= MAX_CANDIDATE_THRESHOLDS) {
+            return sortedValues;
+        }
+        final Integer[] thinnedValues = new Integer[MAX_CANDIDATE_THRESHOLDS];
+        for (int i = 0; i < MAX_CANDIDATE_THRESHOLDS; i++) {
+            thinnedValues[i] = sortedValues.get((int) ((long) (sortedValues.size() - 1) * (i + 1) / MAX_CANDIDATE_THRESHOLDS));
+        }
+        return List.of(thinnedValues);
+    }
+}
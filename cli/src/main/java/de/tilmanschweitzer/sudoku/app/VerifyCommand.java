@@ -0,0 +1,141 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static de.tilmanschweitzer.sudoku.app.StreamSolveCommand.await;
+
+/*
+ * Verifies the solutions of a CSV file, e.g. the output of the solve command or a corpus: every line needs a
+ * complete and valid solution that keeps the givens of the puzzle in the first column. With --expected-column the
+ * solution also has to be equal to that column.
+ *
+ * The file is split into one byte range per thread (stdin and compressed files are read by one thread) and the
+ * lines are checked on the bytes of the read buffer, see SolutionVerifier. The first --max-reports failed lines are
+ * printed with their byte offset and the command exits with status 1 if any line failed.
+ *
+ * Usage: verify <input|-> [--solution-column=1] [--expected-column=<column>] [--threads=<cores>] [--max-reports=10]
+ */
+public class VerifyCommand implements Command {
+
+    @Override
+    public void run(List<String> arguments) throws IOException {
+        final CommandLine commandLine = CommandLine.parse(arguments);
+        final String input = commandLine.getPositionalArgument(0, "input file");
+        final int solutionColumn = commandLine.getIntOption("solution-column", 1);
+        final int expectedColumn = commandLine.getIntOption("expected-column", SolutionVerifier.NO_COLUMN);
+        final int maxReports = commandLine.getIntOption("max-reports", 10);
+        final long size = CorpusFiles.size(input);
+        // Stdin and compressed files cannot be split into byte ranges
+        final int threads = size == Long.MAX_VALUE ? 1 : commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final List<Future<SliceVerification>> verifications = new ArrayList<>();
+        try {
+            for (int index = 0; index < threads; index++) {
+                final InputSlice slice = threads == 1 ? InputSlice.WHOLE_INPUT : InputSlice.ofShard(index + "/" + threads, size);
+                verifications.add(executorService.submit(() -> verify(input, slice, new SolutionVerifier(solutionColumn, expectedColumn), maxReports)));
+            }
+
+            final SliceVerification total = new SliceVerification();
+            for (Future<SliceVerification> verification : verifications) {
+                total.merge(await(verification));
+            }
+            total.printReport(maxReports);
+            if (total.getNumberOfFailures() > 0) {
+                System.exit(1);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    static SliceVerification verify(String input, InputSlice slice, SolutionVerifier verifier, int maxReports) throws IOException {
+        final SliceVerification verification = new SliceVerification();
+        try (CorpusLineReader reader = CorpusLineReader.open(input, slice)) {
+            long lineOffset = reader.getOffset();
+            while (reader.nextLine()) {
+                final byte[] line = reader.getLineBuffer();
+                final int length = reader.getLineLength();
+                if (length > 0 && !isHeader(line, length)) {
+                    final SolutionVerifier.Outcome outcome = verifier.verify(line, length);
+                    verification.record(outcome);
+                    if (outcome != SolutionVerifier.Outcome.VALID && verification.reports.size() < maxReports) {
+                        verification.reports.add(new FailedLine(lineOffset, outcome, new String(line, 0, length, StandardCharsets.US_ASCII)));
+                    }
+                }
+                lineOffset = reader.getOffset();
+            }
+        }
+        return verification;
+    }
+
+    private static boolean isHeader(byte[] line, int length) {
+        final String prefix = CorpusFiles.HEADER_PREFIX;
+        if (length < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static class SliceVerification {
+        private final Map<SolutionVerifier.Outcome, Long> numberOfLinesByOutcome = new EnumMap<>(SolutionVerifier.Outcome.class);
+        private final List<FailedLine> reports = new ArrayList<>();
+
+        private void record(SolutionVerifier.Outcome outcome) {
+            numberOfLinesByOutcome.merge(outcome, 1L, Long::sum);
+        }
+
+        private void merge(SliceVerification other) {
+            other.numberOfLinesByOutcome.forEach((outcome, count) -> numberOfLinesByOutcome.merge(outcome, count, Long::sum));
+            reports.addAll(other.reports);
+        }
+
+        long getNumberOfLines(SolutionVerifier.Outcome outcome) {
+            return numberOfLinesByOutcome.getOrDefault(outcome, 0L);
+        }
+
+        long getNumberOfFailures() {
+            return numberOfLinesByOutcome.entrySet().stream()
+                    .filter(entry -> entry.getKey() != SolutionVerifier.Outcome.VALID)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+
+        private void printReport(int maxReports) {
+            reports.sort(Comparator.comparingLong(failedLine -> failedLine.offset));
+            for (FailedLine failedLine : reports.subList(0, Math.min(maxReports, reports.size()))) {
+                System.err.println("Offset " + failedLine.offset + ": " + failedLine.outcome.toCsvValue() + ": " + failedLine.line);
+            }
+            final long lines = numberOfLinesByOutcome.values().stream().mapToLong(Long::longValue).sum();
+            System.err.println("Verified " + getNumberOfLines(SolutionVerifier.Outcome.VALID) + " of " + lines + " solutions");
+            for (SolutionVerifier.Outcome outcome : SolutionVerifier.Outcome.values()) {
+                System.err.println("  " + outcome.toCsvValue() + ": " + getNumberOfLines(outcome));
+            }
+        }
+    }
+
+    private static class FailedLine {
+        private final long offset;
+        private final SolutionVerifier.Outcome outcome;
+        private final String line;
+
+        private FailedLine(long offset, SolutionVerifier.Outcome outcome, String line) {
+            this.offset = offset;
+            this.outcome = outcome;
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BenchmarkReportTest {
+
+    private static final BenchmarkResult PROPAGATING = new BenchmarkResult("propagating", 1500, 1500, 20000.5, 16000, 40000, 4000000, 9000000, 15000);
+    private static final BenchmarkResult DEDUCTIVE = new BenchmarkResult("deductive", 1500, 1500, 4000.0, 120000, 4000000, 8000000, 10000000, 117000);
+
+    @Test
+    void fromJson_readsReportWrittenByToJson() {
+        final BenchmarkReport report = BenchmarkReport.fromJson(new BenchmarkReport("0-500,9500-10000", 3, List.of(PROPAGATING, DEDUCTIVE)).toJson());
+
+        assertThat(report.getSlices(), is("0-500,9500-10000"));
+        assertThat(report.getIterations(), is(3));
+        assertThat(report.getResults(), hasSize(2));
+        final BenchmarkResult propagating = report.getResult("propagating").orElseThrow();
+        assertThat(propagating.getThroughput(), is(20000.5));
+        assertThat(propagating.getP50(), is(16000L));
+        assertThat(propagating.getP999(), is(4000000L));
+        assertThat(propagating.getAllocatedBytesPerSolve(), is(15000L));
+    }
+
+    @Test
+    void findRegressions_acceptsResultsWithinTolerance() {
+        final BenchmarkResult slightlySlower = new BenchmarkResult("propagating", 1500, 1500, 16000, 19000, 90000, 4000000, 9000000, 16000);
+        final BenchmarkReport baseline = new BenchmarkReport("0-500", 3, List.of(PROPAGATING));
+
+        assertThat(new BenchmarkReport("0-500", 3, List.of(slightlySlower, DEDUCTIVE)).findRegressions(baseline, 0.25, 0.1), is(empty()));
+    }
+
+    @Test
+    void findRegressions_reportsSlowerAndAllocatingResults() {
+        final BenchmarkResult regressed = new BenchmarkResult("propagating", 1500, 1499, 10000, 32000, 40000, 4000000, 9000000, 17000);
+        final BenchmarkReport baseline = new BenchmarkReport("0-500", 3, List.of(PROPAGATING));
+
+        assertThat(new BenchmarkReport("0-500", 3, List.of(regressed)).findRegressions(baseline, 0.25, 0.1), contains(
+                "propagating: solved 1499 puzzles, baseline 1500",
+                "propagating: throughput 10000.0/s, baseline 20000.5/s",
+                "propagating: p50 latency 32000, baseline 16000",
+                "propagating: allocated bytes per solve 17000, baseline 15000"));
+    }
+
+    @Test
+    void findRegressions_reportsSolversMissingInThisRun() {
+        final BenchmarkReport baseline = new BenchmarkReport("0-500", 3, List.of(PROPAGATING, DEDUCTIVE));
+
+        assertThat(new BenchmarkReport("0-500", 3, List.of(PROPAGATING)).findRegressions(baseline, 0.25, 0.1), contains(
+                "deductive: not measured, but in the baseline"));
+    }
+
+    @Test
+    void findRegressions_rejectsBaselineOfOtherPuzzles() {
+        final BenchmarkReport baseline = new BenchmarkReport("0-500", 3, List.of(PROPAGATING));
+
+        assertThrows(IllegalArgumentException.class, () -> new BenchmarkReport("0-1000", 3, List.of(PROPAGATING)).findRegressions(baseline, 0.25, 0.1));
+    }
+
+    @Test
+    void selectPuzzles_concatenatesSlices() {
+        final List<String> puzzles = List.of("a", "b", "c", "d", "e");
+
+        assertThat(BenchmarkCommand.selectPuzzles(puzzles, "0-2,4-5"), contains("a", "b", "e"));
+        assertThrows(IllegalArgumentException.class, () -> BenchmarkCommand.selectPuzzles(puzzles, "3-6"));
+    }
+
+    @Test
+    void median_ignoresOneOutlierIteration() {
+        assertThat(BenchmarkResult.median(new double[]{100, 20, 95, 90, 105}), is(95.0));
+        assertThat(BenchmarkResult.median(new double[]{100, 90}), is(95.0));
+    }
+
+    @Test
+    void measure_countsSolvedPuzzlesOfAllIterations() {
+        final BenchmarkResult result = BenchmarkCommand.measure(SolverConfiguration.PROPAGATING, List.of(SolveQueueTest.PUZZLE), 1, 2);
+
+        assertThat(result.getPuzzles(), is(2L));
+        assertThat(result.getSolved(), is(2L));
+    }
+}
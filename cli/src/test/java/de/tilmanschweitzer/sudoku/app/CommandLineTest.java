@@ -0,0 +1,41 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CommandLineTest {
+
+    final CommandLine commandLine = CommandLine.parse(List.of("input.csv", "--symmetry", "--threads=4", "output.csv", "--solver=backtracking"));
+
+    @Test
+    public void hasFlag_returnsTrueForGivenFlags() {
+        assertThat(commandLine.hasFlag("symmetry"), is(true));
+        assertThat(commandLine.hasFlag("async"), is(false));
+    }
+
+    @Test
+    public void getOption_returnsValueOfOption() {
+        assertThat(commandLine.getOption("solver"), is(Optional.of("backtracking")));
+        assertThat(commandLine.getOption("missing"), is(Optional.empty()));
+        assertThat(commandLine.getIntOption("threads", 1), is(4));
+        assertThat(commandLine.getIntOption("in-flight", 16), is(16));
+    }
+
+    @Test
+    public void getPositionalArgument_skipsFlagsAndOptions() {
+        assertThat(commandLine.getPositionalArguments(), is(List.of("input.csv", "output.csv")));
+        assertThat(commandLine.getPositionalArgument(1, "output file"), is("output.csv"));
+        assertThat(commandLine.getPositionalArgument(2, "stats file", "-"), is("-"));
+    }
+
+    @Test
+    public void getPositionalArgument_throwsExceptionForMissingArgument() {
+        assertThrows(IllegalArgumentException.class, () -> commandLine.getPositionalArgument(2, "stats file"));
+    }
+}
@@ -0,0 +1,96 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+class CorpusLineReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void readLine_readsAllLinesOfTheWholeInput() throws IOException {
+        final Path file = writeLines("first", "second\r", "third");
+
+        assertThat(readAll(file, InputSlice.WHOLE_INPUT), contains("first", "second", "third"));
+    }
+
+    @Test
+    public void readLine_assignsEachLineToExactlyOneShard() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add("line" + i);
+        }
+        final Path file = writeLines(lines.toArray(new String[0]));
+        final long size = Files.size(file);
+
+        final List<String> readLines = new ArrayList<>();
+        for (int shard = 0; shard < 7; shard++) {
+            readLines.addAll(readAll(file, InputSlice.ofShard(shard + "/7", size)));
+        }
+
+        assertThat(readLines, is(lines));
+    }
+
+    @Test
+    public void readLine_startsAfterPartialLineOfByteRange() throws IOException {
+        final Path file = writeLines("aaaa", "bbbb", "cccc");
+
+        // The range starts within "aaaa" and ends within "bbbb", the line starting in the range is read completely
+        assertThat(readAll(file, InputSlice.ofByteRange("2-7")), contains("bbbb"));
+    }
+
+    @Test
+    public void nextLine_readsTheLineBytesWithoutLineTerminator() throws IOException {
+        final Path file = writeLines("first\r", "second");
+
+        try (CorpusLineReader reader = CorpusLineReader.open(file.toString(), InputSlice.WHOLE_INPUT)) {
+            assertThat(reader.nextLine(), is(true));
+            assertThat(new String(reader.getLineBuffer(), 0, reader.getLineLength(), StandardCharsets.US_ASCII), is("first"));
+            assertThat(reader.nextLine(), is(true));
+            assertThat(new String(reader.getLineBuffer(), 0, reader.getLineLength(), StandardCharsets.US_ASCII), is("second"));
+            assertThat(reader.nextLine(), is(false));
+        }
+    }
+
+    @Test
+    public void readLine_readsByteRangeOfCompressedFile() throws IOException {
+        final Path file = tempDir.resolve("corpus.csv.gz");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(file))) {
+            outputStream.write("aaaa\nbbbb\ncccc\n".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        assertThat(readAll(file, InputSlice.ofByteRange("2-7")), contains("bbbb"));
+        assertThat(readAll(file, InputSlice.ofByteRange("5-15")), contains("bbbb", "cccc"));
+    }
+
+    private Path writeLines(String... lines) throws IOException {
+        final Path file = tempDir.resolve("corpus.csv");
+        Files.write(file, List.of(lines), StandardCharsets.US_ASCII);
+        return file;
+    }
+
+    private List<String> readAll(Path file, InputSlice slice) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        try (CorpusLineReader reader = CorpusLineReader.open(file.toString(), slice)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
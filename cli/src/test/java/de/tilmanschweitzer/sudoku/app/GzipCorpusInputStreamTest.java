@@ -0,0 +1,147 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GzipCorpusInputStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void read_decompressesASingleMember() throws IOException {
+        final byte[] content = corpus(0, 20_000);
+
+        assertThat(readAll(write(gzip(content, Deflater.DEFAULT_COMPRESSION)), 4), is(content));
+    }
+
+    @Test
+    public void read_decompressesMultipleMembersInOrder() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int member = 0; member < 50; member++) {
+            final byte[] memberContent = corpus(member * 100, 100);
+            content.write(memberContent);
+            compressed.write(gzip(memberContent, Deflater.DEFAULT_COMPRESSION));
+        }
+
+        assertThat(readAll(write(compressed.toByteArray()), 4), is(content.toByteArray()));
+        assertThat(readAll(write(compressed.toByteArray()), 1), is(content.toByteArray()));
+    }
+
+    @Test
+    public void read_decompressesMembersThatContainTheHeaderSignature() throws IOException {
+        // Stored blocks keep the content as it is, so the signature occurs within the compressed data
+        final byte[] signature = {0x1F, (byte) 0x8B, 8, 0, 0, 0, 0, 0, 0, 0};
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int member = 0; member < 10; member++) {
+            final ByteArrayOutputStream memberContent = new ByteArrayOutputStream();
+            memberContent.write(corpus(member, 10));
+            memberContent.write(signature);
+            memberContent.write(corpus(member, 10));
+            content.write(memberContent.toByteArray());
+            compressed.write(gzip(memberContent.toByteArray(), Deflater.NO_COMPRESSION));
+        }
+
+        assertThat(readAll(write(compressed.toByteArray()), 4), is(content.toByteArray()));
+    }
+
+    @Test
+    public void read_decompressesMembersLargerThanTheBuffer() throws IOException {
+        final byte[] content = new byte[10 << 20];
+        new Random(42).nextBytes(content);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressed.write(gzip(content, Deflater.BEST_SPEED));
+        compressed.write(gzip(content, Deflater.BEST_SPEED));
+
+        final byte[] decompressed = readAll(write(compressed.toByteArray()), 4);
+
+        assertThat(decompressed.length, is(2 * content.length));
+        assertThat(Arrays.equals(decompressed, content.length, decompressed.length, content, 0, content.length), is(true));
+    }
+
+    @Test
+    public void read_decompressesMembersAcrossMappedWindows() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int member = 0; member < 20; member++) {
+            final byte[] memberContent = corpus(member * 10, 10 + member);
+            content.write(memberContent);
+            compressed.write(gzip(memberContent, member % 2 == 0 ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION));
+        }
+        final Path file = write(compressed.toByteArray());
+
+        // The window size does not divide the member sizes, so headers, data and trailers span windows
+        assertThat(readAll(file, 4, 13), is(content.toByteArray()));
+        assertThat(readAll(file, 1, 4099), is(content.toByteArray()));
+    }
+
+    @Test
+    public void read_failsForCorruptMember() throws IOException {
+        final byte[] compressed = gzip(corpus(0, 1000), Deflater.DEFAULT_COMPRESSION);
+        compressed[compressed.length / 2] ^= 0x55;
+        final Path file = write(compressed);
+
+        assertThrows(IOException.class, () -> readAll(file, 4));
+    }
+
+    @Test
+    public void read_failsForUncompressedFile() throws IOException {
+        final Path file = write(corpus(0, 10));
+
+        assertThrows(IOException.class, () -> readAll(file, 4));
+    }
+
+    private static byte[] corpus(int firstPuzzle, int puzzles) {
+        final StringBuilder corpus = new StringBuilder();
+        for (int i = firstPuzzle; i < firstPuzzle + puzzles; i++) {
+            corpus.append(String.format("%081d", i)).append(',').append(String.format("%081d", i * 7L)).append('\n');
+        }
+        return corpus.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] gzip(byte[] content, int level) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            outputStream.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private Path write(byte[] bytes) throws IOException {
+        return Files.write(tempDir.resolve("corpus.csv.gz"), bytes);
+    }
+
+    private static byte[] readAll(Path file, int threads) throws IOException {
+        try (InputStream inputStream = GzipCorpusInputStream.open(file, threads)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static byte[] readAll(Path file, int threads, long windowSize) throws IOException {
+        try (InputStream inputStream = GzipCorpusInputStream.open(file, threads, windowSize)) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
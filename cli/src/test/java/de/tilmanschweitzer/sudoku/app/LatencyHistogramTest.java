@@ -0,0 +1,75 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class LatencyHistogramTest {
+
+    @Test
+    public void getPercentile_isExactForSmallValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 50; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getPercentile(50), is(25L));
+        assertThat(histogram.getPercentile(100), is(50L));
+        assertThat(histogram.getMin(), is(1L));
+        assertThat(histogram.getMean(), is(25L));
+    }
+
+    @Test
+    public void getPercentile_hasBoundedRelativeErrorForLargeValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertThat(histogram.getPercentile(90), allOf(greaterThanOrEqualTo(90_000_000L), lessThanOrEqualTo(90_000_000L * 33 / 32)));
+        assertThat(histogram.getPercentile(100), is(100_000_000L));
+    }
+
+    @Test
+    public void merge_equalsRecordingAllValuesInOneHistogram() {
+        final LatencyHistogram combined = new LatencyHistogram();
+        final LatencyHistogram first = new LatencyHistogram();
+        final LatencyHistogram second = new LatencyHistogram();
+        for (long value = 0; value < 10_000; value++) {
+            final long nanos = value * value;
+            combined.record(nanos);
+            (value % 2 == 0 ? first : second).record(nanos);
+        }
+
+        first.merge(second);
+
+        assertThat(first.getCount(), is(combined.getCount()));
+        assertThat(first.getSum(), is(combined.getSum()));
+        assertThat(first.getMax(), is(combined.getMax()));
+        assertThat(first.getPercentile(99), is(combined.getPercentile(99)));
+        assertThat(first.bucketsToString(), is(combined.bucketsToString()));
+    }
+
+    @Test
+    public void of_restoresHistogramFromBucketsString() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(12);
+        histogram.record(3_000_000);
+
+        final LatencyHistogram restored = LatencyHistogram.of(histogram.getCount(), histogram.getSum(), histogram.getMin(), histogram.getMax(), histogram.bucketsToString());
+
+        assertThat(restored.getPercentile(50), is(histogram.getPercentile(50)));
+        assertThat(restored.getPercentile(100), is(histogram.getPercentile(100)));
+    }
+
+    @Test
+    public void indexFor_isConsistentWithUpperBound() {
+        for (long value = 0; value < 1_000_000; value += 997) {
+            assertThat(LatencyHistogram.upperBoundOf(LatencyHistogram.indexFor(value)), greaterThanOrEqualTo(value));
+        }
+    }
+}
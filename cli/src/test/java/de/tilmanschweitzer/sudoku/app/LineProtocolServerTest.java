@@ -0,0 +1,137 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.PUZZLE;
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.SOLUTION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class LineProtocolServerTest {
+
+    LineProtocolServer server;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = new LineProtocolServer(new PropagatingSudokuSolver(), 0, 2);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void answersPipelinedRequestsInOrder() throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            final OutputStream output = socket.getOutputStream();
+            output.write((PUZZLE + "\r\n12345\n" + PUZZLE.replace('0', 'x') + "\n" + "3" + PUZZLE.substring(1) + "\n" + PUZZLE + "\n").getBytes(StandardCharsets.US_ASCII));
+            socket.shutdownOutput();
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertThat(reader.readLine(), is(SOLUTION));
+            assertThat(reader.readLine(), is("invalid"));
+            assertThat(reader.readLine(), is("invalid"));
+            assertThat(reader.readLine(), is("failed"));
+            assertThat(reader.readLine(), is(SOLUTION));
+            assertThat(reader.readLine(), nullValue());
+        }
+    }
+
+    @Test
+    public void answersManyPipelinedRequestsWithBackpressure() throws Exception {
+        final int requests = 5000;
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                try {
+                    final OutputStream output = socket.getOutputStream();
+                    final byte[] line = (PUZZLE + "\n").getBytes(StandardCharsets.US_ASCII);
+                    for (int i = 0; i < requests; i++) {
+                        output.write(line);
+                    }
+                    output.flush();
+                    socket.shutdownOutput();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            for (int i = 0; i < requests; i++) {
+                assertThat(reader.readLine(), is(SOLUTION));
+            }
+            assertThat(reader.readLine(), nullValue());
+            writer.get();
+        }
+    }
+
+    @Test
+    public void answersTooLongLineAsInvalid() throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            final OutputStream output = socket.getOutputStream();
+            output.write(("1".repeat(100_000) + "\n" + PUZZLE + "\n").getBytes(StandardCharsets.US_ASCII));
+            socket.shutdownOutput();
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertThat(reader.readLine(), is("invalid"));
+            assertThat(reader.readLine(), is(SOLUTION));
+        }
+    }
+
+    @Test
+    public void answersLastLineWithoutTerminatorAfterHalfClose() throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            final OutputStream output = socket.getOutputStream();
+            output.write((PUZZLE + "\n" + PUZZLE).getBytes(StandardCharsets.US_ASCII));
+            socket.shutdownOutput();
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertThat(reader.readLine(), is(SOLUTION));
+            assertThat(reader.readLine(), is(SOLUTION));
+            assertThat(reader.readLine(), nullValue());
+        }
+    }
+
+    @Test
+    public void answersLimitExceededWithinTheNodeLimit() throws IOException {
+        try (LineProtocolServer limitedServer = new LineProtocolServer(new PropagatingSudokuSolver(), Optional.empty(), 1, 0, 1)) {
+            limitedServer.start();
+            try (Socket socket = new Socket("localhost", limitedServer.getPort())) {
+                final OutputStream output = socket.getOutputStream();
+                output.write("100007090030020008009600500005300900010080002600004000300000010040000007007000300\n".getBytes(StandardCharsets.US_ASCII));
+                socket.shutdownOutput();
+
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                assertThat(reader.readLine(), is("limit_exceeded"));
+            }
+        }
+    }
+
+    @Test
+    public void closeClosesClientConnections() throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            final OutputStream output = socket.getOutputStream();
+            output.write((PUZZLE + "\n").getBytes(StandardCharsets.US_ASCII));
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertThat(reader.readLine(), is(SOLUTION));
+
+            server.close();
+
+            assertThat(reader.readLine(), nullValue());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    public void add_returnsFalseForDuplicateValues() {
+        final LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(17L), is(true));
+        assertThat(set.add(23L), is(true));
+        assertThat(set.add(17L), is(false));
+        assertThat(set.size(), is(2));
+    }
+
+    @Test
+    public void add_handlesZeroAndNegativeValues() {
+        final LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(0L), is(true));
+        assertThat(set.add(0L), is(false));
+        assertThat(set.add(-1L), is(true));
+        assertThat(set.contains(0L), is(true));
+        assertThat(set.contains(-1L), is(true));
+        assertThat(set.size(), is(2));
+    }
+
+    @Test
+    public void add_growsBeyondInitialCapacity() {
+        final LongHashSet set = new LongHashSet(16);
+        final Random random = new Random(42);
+        final long[] values = random.longs(10_000).toArray();
+
+        for (long value : values) {
+            set.add(value);
+        }
+
+        assertThat(set.size(), is(10_000));
+        for (long value : values) {
+            assertThat(set.contains(value), is(true));
+        }
+        assertThat(set.contains(4711L), is(false));
+    }
+}
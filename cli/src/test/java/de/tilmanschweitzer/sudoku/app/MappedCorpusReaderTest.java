@@ -0,0 +1,106 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+class MappedCorpusReaderTest {
+
+    private static final MappedCorpusReader.LineProcessor<String> TO_STRING = (buffer, start, end) -> {
+        final byte[] line = new byte[end - start];
+        for (int i = 0; i < line.length; i++) {
+            line[i] = buffer.get(start + i);
+        }
+        return line.length == 0 ? null : new String(line, StandardCharsets.US_ASCII);
+    };
+
+    @TempDir
+    Path tempDir;
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @Test
+    public void processLines_returnsTheResultsInInputOrder() throws IOException {
+        final List<String> lines = createLines(20_000);
+        final Path file = writeLines(lines);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThat(MappedCorpusReader.findChunkBoundaries(channel, InputSlice.WHOLE_INPUT, pool.getParallelism()).length, greaterThan(2));
+        }
+        assertThat(MappedCorpusReader.processLines(file, InputSlice.WHOLE_INPUT, pool, TO_STRING), is(lines));
+    }
+
+    @Test
+    public void processLines_assignsEachLineToExactlyOneShard() throws IOException {
+        final List<String> lines = createLines(20_000);
+        final Path file = writeLines(lines);
+
+        final List<String> processedLines = new ArrayList<>();
+        for (int shard = 0; shard < 7; shard++) {
+            processedLines.addAll(MappedCorpusReader.processLines(file, InputSlice.ofShard(shard + "/7", Files.size(file)), pool, TO_STRING));
+        }
+
+        assertThat(processedLines, is(lines));
+    }
+
+    @Test
+    public void processLines_stripsCarriageReturnAndReadsLastLineWithoutTerminator() throws IOException {
+        final Path file = Files.write(tempDir.resolve("corpus.csv"), "first\r\n\nsecond".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(MappedCorpusReader.processLines(file, InputSlice.WHOLE_INPUT, pool, TO_STRING), contains("first", "second"));
+    }
+
+    @Test
+    public void processLines_startsAfterPartialLineOfByteRange() throws IOException {
+        final Path file = writeLines(List.of("aaaa", "bbbb", "cccc"));
+
+        assertThat(MappedCorpusReader.processLines(file, InputSlice.ofByteRange("2-7"), pool, TO_STRING), contains("bbbb"));
+    }
+
+    @Test
+    public void foldLines_stopsAfterTheLimitInInputOrder() throws IOException {
+        final List<String> lines = new ArrayList<>(List.of("puzzle,solution", ""));
+        lines.addAll(createLines(20_000));
+        final Path file = writeLines(lines);
+
+        for (long maxRecords : new long[]{0, 1, 15_000, 20_000, 30_000}) {
+            final List<String> processedLines = MappedCorpusReader.foldLines(file, InputSlice.WHOLE_INPUT, maxRecords, pool, ArrayList::new,
+                    (List<String> results, ByteBuffer buffer, int start, int end) -> results.add(TO_STRING.process(buffer, start, end)),
+                    (first, second) -> {
+                        first.addAll(second);
+                        return first;
+                    });
+            final List<String> expectedLines = lines.subList(2, 2 + (int) Math.min(maxRecords, 20_000));
+
+            assertThat(processedLines.stream().filter(line -> line != null && !line.startsWith("puzzle")).collect(toList()), is(expectedLines));
+        }
+    }
+
+    private static List<String> createLines(int count) {
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add("line" + i + ",".repeat(i % 13));
+        }
+        return lines;
+    }
+
+    private Path writeLines(List<String> lines) throws IOException {
+        return Files.write(tempDir.resolve("corpus.csv"), lines, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,46 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.PUZZLE;
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.SOLUTION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class PuzzleProcessorTest {
+
+    static final String HARD_PUZZLE = "100007090030020008009600500005300900010080002600004000300000010040000007007000300";
+
+    @Test
+    public void process_solvesPuzzle() {
+        final PuzzleResult result = new PuzzleProcessor(new PropagatingSudokuSolver()).process(PUZZLE);
+
+        assertThat(result.getStatus(), is(PuzzleResult.Status.SOLVED));
+        assertThat(result.getSolution(), is(SOLUTION));
+    }
+
+    @Test
+    public void process_reportsInvalidPuzzle() {
+        final PuzzleResult result = new PuzzleProcessor(new PropagatingSudokuSolver()).process("12x");
+
+        assertThat(result.getStatus(), is(PuzzleResult.Status.INVALID));
+    }
+
+    @Test
+    public void process_reportsFailureForPuzzleWithoutSolution() {
+        final PuzzleResult result = new PuzzleProcessor(new PropagatingSudokuSolver()).process("3" + PUZZLE.substring(1));
+
+        assertThat(result.getStatus(), is(PuzzleResult.Status.FAILED));
+    }
+
+    @Test
+    public void process_reportsExceededNodeLimit() {
+        final PuzzleResult result = new PuzzleProcessor(new PropagatingSudokuSolver(), Optional.empty(), 1).process(HARD_PUZZLE);
+
+        assertThat(result.getStatus(), is(PuzzleResult.Status.LIMIT_EXCEEDED));
+        assertThat(result.getSolution().length(), is(81));
+    }
+}
@@ -0,0 +1,67 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.PUZZLE;
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.SOLUTION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolutionVerifierTest {
+
+    final SolutionVerifier verifier = new SolutionVerifier(1, SolutionVerifier.NO_COLUMN);
+
+    @Test
+    public void verify_acceptsValidSolution() {
+        assertThat(verify(verifier, PUZZLE + "," + SOLUTION + ",solved,1234"), is(SolutionVerifier.Outcome.VALID));
+    }
+
+    @Test
+    public void verify_reportsMalformedLines() {
+        assertThat(verify(verifier, PUZZLE), is(SolutionVerifier.Outcome.MALFORMED));
+        assertThat(verify(verifier, PUZZLE + "," + SOLUTION.substring(1)), is(SolutionVerifier.Outcome.MALFORMED));
+        assertThat(verify(verifier, PUZZLE + "," + "x" + SOLUTION.substring(1)), is(SolutionVerifier.Outcome.MALFORMED));
+    }
+
+    @Test
+    public void verify_reportsIncompleteSolution() {
+        assertThat(verify(verifier, PUZZLE + "," + PUZZLE), is(SolutionVerifier.Outcome.INCOMPLETE));
+    }
+
+    @Test
+    public void verify_reportsValueTwiceInAHouse() {
+        final String invalidSolution = SOLUTION.charAt(1) + SOLUTION.substring(1);
+
+        assertThat(verify(verifier, "0".repeat(81) + "," + invalidSolution), is(SolutionVerifier.Outcome.INVALID));
+    }
+
+    @Test
+    public void verify_reportsSolutionThatChangesGivens() {
+        // Swapping two rows of a band keeps the solution valid but moves the givens
+        final String swappedRows = SOLUTION.substring(9, 18) + SOLUTION.substring(0, 9) + SOLUTION.substring(18);
+
+        assertThat(verify(verifier, PUZZLE + "," + swappedRows), is(SolutionVerifier.Outcome.INCONSISTENT));
+    }
+
+    @Test
+    public void verify_comparesWithExpectedColumn() {
+        final SolutionVerifier expectingVerifier = new SolutionVerifier(1, 2);
+        final String swappedRows = SOLUTION.substring(9, 18) + SOLUTION.substring(0, 9) + SOLUTION.substring(18);
+
+        assertThat(verify(expectingVerifier, PUZZLE + "," + SOLUTION + "," + SOLUTION), is(SolutionVerifier.Outcome.VALID));
+        assertThat(verify(expectingVerifier, "0".repeat(81) + "," + SOLUTION + "," + swappedRows), is(SolutionVerifier.Outcome.MISMATCH));
+    }
+
+    @Test
+    public void constructor_rejectsPuzzleColumnAsSolution() {
+        assertThrows(IllegalArgumentException.class, () -> new SolutionVerifier(0, SolutionVerifier.NO_COLUMN));
+    }
+
+    private static SolutionVerifier.Outcome verify(SolutionVerifier verifier, String line) {
+        final byte[] bytes = (line + "trailing bytes of the buffer").getBytes(StandardCharsets.US_ASCII);
+        return verifier.verify(bytes, line.length());
+    }
+}
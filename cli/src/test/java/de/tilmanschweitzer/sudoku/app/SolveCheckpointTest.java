@@ -0,0 +1,104 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.PUZZLE;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolveCheckpointTest {
+
+    private static final int PUZZLES = 1000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void solve_writesTheSameResultsWithCheckpoints() throws IOException {
+        final Path input = writeCorpus();
+
+        final List<String> results = solve(input, "uncheckpointed.csv");
+        final List<String> checkpointedResults = solve(input, "checkpointed.csv", "--checkpoint=" + tempDir.resolve("checkpoint"), "--checkpoint-interval=0");
+
+        assertThat(checkpointedResults, is(results));
+        assertFalse(Files.exists(tempDir.resolve("checkpoint")));
+    }
+
+    @Test
+    public void solve_continuesFromCheckpoint() throws IOException {
+        final Path input = writeCorpus();
+        final Path output = tempDir.resolve("resumed.csv");
+        final Path checkpointFile = tempDir.resolve("checkpoint");
+        final List<String> lines = Files.readAllLines(input);
+
+        // A run that solved the first 300 lines and crashed after writing further results
+        final PuzzleProcessor puzzleProcessor = new PuzzleProcessor(new PropagatingSudokuSolver());
+        final SolveCheckpoint checkpoint = SolveCheckpoint.open(checkpointFile, input.toString(), InputSlice.WHOLE_INPUT, 0);
+        try (BufferedWriter writer = checkpoint.openOutput(output.toString())) {
+            writer.write(PuzzleResult.CSV_HEADER);
+            writer.newLine();
+            long inputOffset = 0;
+            for (String line : lines.subList(0, 300)) {
+                final PuzzleResult result = puzzleProcessor.process(line);
+                writer.write(result.toCsvLine());
+                writer.newLine();
+                checkpoint.getStatistics().record(result);
+                inputOffset += line.length() + 1;
+            }
+            checkpoint.update(inputOffset);
+            writer.write("results after the checkpoint");
+        }
+
+        final List<String> results = solve(input, "resumed.csv", "--checkpoint=" + checkpointFile, "--stats=" + tempDir.resolve("stats"));
+
+        assertThat(results, is(solve(input, "uncheckpointed.csv")));
+        final SolveStatistics statistics = SolveStatistics.readFrom(tempDir.resolve("stats"));
+        assertThat(statistics.getNumberOfResults(), is((long) PUZZLES));
+        assertThat(statistics.getNumberOfResults(PuzzleResult.Status.INVALID), is((long) PUZZLES / 10));
+    }
+
+    @Test
+    public void open_rejectsCheckpointOfAnotherRun() throws IOException {
+        final Path input = writeCorpus();
+        final Path checkpointFile = tempDir.resolve("checkpoint");
+        final SolveCheckpoint checkpoint = SolveCheckpoint.open(checkpointFile, input.toString(), InputSlice.ofShard("0/2", Files.size(input)), 0);
+        try (BufferedWriter ignored = checkpoint.openOutput(tempDir.resolve("output.csv").toString())) {
+            checkpoint.update(0);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> SolveCheckpoint.open(checkpointFile, input.toString(), InputSlice.ofShard("1/2", Files.size(input)), 0));
+    }
+
+    private Path writeCorpus() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < PUZZLES; i++) {
+            lines.add(i % 10 == 0 ? "12x" : PUZZLE);
+        }
+        return Files.write(tempDir.resolve("corpus.csv"), lines, StandardCharsets.US_ASCII);
+    }
+
+    /*
+     * Runs the solve command and returns the output lines without the nanos column
+     */
+    private List<String> solve(Path input, String output, String... options) throws IOException {
+        final List<String> arguments = new ArrayList<>(List.of(input.toString(), tempDir.resolve(output).toString(), "--threads=2"));
+        arguments.addAll(List.of(options));
+        new StreamSolveCommand().run(arguments);
+        return Files.readAllLines(tempDir.resolve(output)).stream()
+                .map(line -> line.substring(0, line.lastIndexOf(',')))
+                .collect(toList());
+    }
+}
@@ -0,0 +1,101 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolveQueueTest {
+
+    static final String PUZZLE = "000003610000015007000008090086000700030800100500120309005060904060900530403701008";
+    static final String SOLUTION = "728493615349615827651278493186539742932847156574126389815362974267984531493751268";
+
+    @Test
+    public void trySubmit_solvesPuzzlesInRequestOrder() {
+        try (SolveQueue solveQueue = new SolveQueue(new PuzzleProcessor(new PropagatingSudokuSolver()), 2, 16, 4)) {
+            final List<CompletableFuture<PuzzleResult>> results = solveQueue.trySubmit(List.of(PUZZLE, "invalid", PUZZLE)).orElseThrow();
+
+            assertThat(results.get(0).join().getSolution(), is(SOLUTION));
+            assertThat(results.get(1).join().getStatus(), is(PuzzleResult.Status.INVALID));
+            assertThat(results.get(2).join().getStatus(), is(PuzzleResult.Status.SOLVED));
+        }
+    }
+
+    @Test
+    public void trySubmit_rejectsPuzzlesWhenQueueIsFull() throws InterruptedException {
+        final CountDownLatch solverStarted = new CountDownLatch(1);
+        final CountDownLatch releaseSolver = new CountDownLatch(1);
+        final PuzzleProcessor blockingProcessor = new PuzzleProcessor(sudoku -> {
+            solverStarted.countDown();
+            try {
+                releaseSolver.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new PropagatingSudokuSolver().solve(sudoku);
+        });
+
+        try (SolveQueue solveQueue = new SolveQueue(blockingProcessor, 1, 2, 1)) {
+            final CompletableFuture<PuzzleResult> first = solveQueue.trySubmit(List.of(PUZZLE)).orElseThrow().get(0);
+            solverStarted.await();
+
+            // The single worker is busy, so the queue fills up with two waiting puzzles
+            assertThat(solveQueue.trySubmit(List.of(PUZZLE, PUZZLE)).isPresent(), is(true));
+            final Optional<List<CompletableFuture<PuzzleResult>>> rejected = solveQueue.trySubmit(List.of(PUZZLE));
+            assertThat(rejected.isPresent(), is(false));
+
+            releaseSolver.countDown();
+            assertThat(first.join().getStatus(), is(PuzzleResult.Status.SOLVED));
+        }
+    }
+
+    @Test
+    public void setParallelism_keepsSolvingWithChangedNumberOfWorkers() {
+        try (SolveQueue solveQueue = new SolveQueue(new PuzzleProcessor(new PropagatingSudokuSolver()), 1, 16, 4)) {
+            solveQueue.setParallelism(3);
+            assertThat(solveQueue.trySubmit(List.of(PUZZLE, PUZZLE)).orElseThrow().get(1).join().getSolution(), is(SOLUTION));
+
+            solveQueue.setParallelism(1);
+            assertThat(solveQueue.getParallelism(), is(1));
+            assertThat(solveQueue.trySubmit(List.of(PUZZLE)).orElseThrow().get(0).join().getSolution(), is(SOLUTION));
+        }
+    }
+
+    @Test
+    public void close_rejectsWaitingAndNewPuzzles() throws InterruptedException {
+        final CountDownLatch solverStarted = new CountDownLatch(1);
+        final CountDownLatch releaseSolver = new CountDownLatch(1);
+        final PuzzleProcessor blockingProcessor = new PuzzleProcessor(sudoku -> {
+            solverStarted.countDown();
+            try {
+                releaseSolver.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new PropagatingSudokuSolver().solve(sudoku);
+        });
+
+        final SolveQueue solveQueue = new SolveQueue(blockingProcessor, 1, 4, 1);
+        final CompletableFuture<PuzzleResult> first = solveQueue.trySubmit(List.of(PUZZLE)).orElseThrow().get(0);
+        solverStarted.await();
+        final CompletableFuture<PuzzleResult> waiting = solveQueue.trySubmit(List.of(PUZZLE)).orElseThrow().get(0);
+
+        solveQueue.close();
+        releaseSolver.countDown();
+
+        final CompletionException error = assertThrows(CompletionException.class, waiting::join);
+        assertThat(error.getCause(), instanceOf(RejectedExecutionException.class));
+        assertThat(first.join().getStatus(), is(PuzzleResult.Status.SOLVED));
+        assertThrows(RejectedExecutionException.class, () -> solveQueue.trySubmit(List.of(PUZZLE)));
+    }
+}
@@ -0,0 +1,89 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.PUZZLE;
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.SOLUTION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+class SolveServerTest {
+
+    SolveQueue solveQueue;
+    SolveServer solveServer;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        solveQueue = new SolveQueue(new PuzzleProcessor(new PropagatingSudokuSolver()), 1, 8, 4);
+        solveServer = new SolveServer(solveQueue, 0);
+        solveServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        solveServer.close();
+        solveQueue.close();
+    }
+
+    @Test
+    public void solve_returnsSolution() throws IOException {
+        final HttpURLConnection connection = post("/solve", PUZZLE);
+
+        assertThat(connection.getResponseCode(), is(200));
+        assertThat(read(connection.getInputStream()), startsWith(PUZZLE + "," + SOLUTION + ",solved,"));
+    }
+
+    @Test
+    public void solve_returnsBadRequestForInvalidPuzzle() throws IOException {
+        final HttpURLConnection connection = post("/solve", "123");
+
+        assertThat(connection.getResponseCode(), is(400));
+    }
+
+    @Test
+    public void solveBatch_returnsResultsInRequestOrder() throws IOException {
+        final HttpURLConnection connection = post("/solve/batch", "puzzle,solution\n" + PUZZLE + "\ninvalid\n" + PUZZLE + ",ignored\n");
+
+        assertThat(connection.getResponseCode(), is(200));
+        final String[] lines = read(connection.getInputStream()).split("\n");
+        assertThat(lines.length, is(4));
+        assertThat(lines[0], is(PuzzleResult.CSV_HEADER));
+        assertThat(lines[1], startsWith(PUZZLE + "," + SOLUTION + ",solved,"));
+        assertThat(lines[2], startsWith("invalid,,invalid,"));
+        assertThat(lines[3], startsWith(PUZZLE + "," + SOLUTION + ",solved,"));
+    }
+
+    @Test
+    public void solveBatch_rejectsBatchLargerThanQueue() throws IOException {
+        final HttpURLConnection connection = post("/solve/batch", (PUZZLE + "\n").repeat(9));
+
+        assertThat(connection.getResponseCode(), is(413));
+    }
+
+    private HttpURLConnection post(String path, String body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + solveServer.getPort() + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(body.getBytes(StandardCharsets.US_ASCII));
+        }
+        return connection;
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+    }
+}
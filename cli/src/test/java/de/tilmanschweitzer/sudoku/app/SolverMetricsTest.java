@@ -0,0 +1,121 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.DeductiveSudokuSolver;
+import de.tilmanschweitzer.sudoku.solver.PropagatingSudokuSolver;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.tilmanschweitzer.sudoku.app.PuzzleProcessorTest.HARD_PUZZLE;
+import static de.tilmanschweitzer.sudoku.app.SolveQueueTest.PUZZLE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolverMetricsTest {
+
+    @Test
+    void finished_countsResultsByStatus() {
+        final SolverMetrics metrics = new SolverMetrics();
+        final PuzzleProcessor puzzleProcessor = new PuzzleProcessor(new PropagatingSudokuSolver()).withMetrics(metrics);
+
+        puzzleProcessor.process(PUZZLE);
+        puzzleProcessor.process(PUZZLE);
+        puzzleProcessor.process("invalid");
+        puzzleProcessor.process("0".repeat(81));
+
+        assertThat(metrics.getSolved(), is(2L));
+        assertThat(metrics.getInvalid(), is(1L));
+        assertThat(metrics.getFailed(), is(1L));
+        assertThat(metrics.getInFlight(), is(0L));
+        assertThat(metrics.getLatencies().getCount(), is(3L));
+    }
+
+    @Test
+    void getFallbackRate_countsPuzzlesThatNeededSearch() {
+        final SolverMetrics metrics = new SolverMetrics();
+        final PuzzleProcessor puzzleProcessor = new PuzzleProcessor(DeductiveSudokuSolver.createWithFallbackSolver(new PropagatingSudokuSolver())).withMetrics(metrics);
+
+        puzzleProcessor.process(PUZZLE);
+        puzzleProcessor.process(HARD_PUZZLE);
+
+        assertThat(metrics.getSolved(), is(2L));
+        assertThat(metrics.getFallbackRate(), is(closeTo(0.5, 0.001)));
+    }
+
+    @Test
+    void getFallbackRate_doesNotCountPuzzlesSolvedByPropagation() {
+        final SolverMetrics metrics = new SolverMetrics();
+        final PuzzleProcessor puzzleProcessor = new PuzzleProcessor(new PropagatingSudokuSolver()).withMetrics(metrics);
+
+        puzzleProcessor.process(PUZZLE);
+        puzzleProcessor.process(PUZZLE);
+        puzzleProcessor.process(HARD_PUZZLE);
+        puzzleProcessor.process(HARD_PUZZLE);
+
+        assertThat(metrics.getSolved(), is(4L));
+        assertThat(metrics.getFallbackRate(), is(closeTo(0.5, 0.001)));
+    }
+
+    @Test
+    void getLatencyPercentiles_useRecordedNanos() {
+        final SolverMetrics metrics = new SolverMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.started();
+            metrics.finished(new PuzzleResult(PUZZLE, "", PuzzleResult.Status.SOLVED, i * 1000L));
+        }
+
+        assertThat((double) metrics.getLatencyP50(), is(closeTo(50_000, 50_000 * 0.03)));
+        assertThat((double) metrics.getLatencyP99(), is(closeTo(99_000, 99_000 * 0.03)));
+        assertThat(metrics.getLatencyMax(), is(100_000L));
+    }
+
+    @Test
+    void resetCounters_keepsInFlightCount() {
+        final SolverMetrics metrics = new SolverMetrics();
+        metrics.started();
+        metrics.started();
+        metrics.finished(new PuzzleResult(PUZZLE, "", PuzzleResult.Status.SOLVED, 1000));
+
+        metrics.resetCounters();
+
+        assertThat(metrics.getSolved(), is(0L));
+        assertThat(metrics.getLatencyP99(), is(0L));
+        assertThat(metrics.getInFlight(), is(1L));
+    }
+
+    @Test
+    void setWorkerParallelism_delegatesToParallelismControl() {
+        final AtomicInteger parallelism = new AtomicInteger(2);
+        final SolverMetrics metrics = new SolverMetrics().withParallelismControl(parallelism::get, parallelism::set);
+
+        metrics.setWorkerParallelism(5);
+
+        assertThat(metrics.getWorkerParallelism(), is(5));
+        assertThrows(IllegalArgumentException.class, () -> metrics.setWorkerParallelism(0));
+        assertThrows(UnsupportedOperationException.class, () -> new SolverMetrics().setWorkerParallelism(1));
+    }
+
+    @Test
+    void register_exposesMetricsAsPlatformMBean() throws JMException {
+        final SolverMetrics metrics = new SolverMetrics().register("test");
+        try {
+            new PuzzleProcessor(new PropagatingSudokuSolver()).withMetrics(metrics).process(PUZZLE);
+
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName("de.tilmanschweitzer.sudoku:type=SolverMetrics,name=test");
+            assertThat(mBeanServer.getAttribute(objectName, "Solved"), is(equalTo(1L)));
+
+            mBeanServer.invoke(objectName, "resetCounters", new Object[0], new String[0]);
+            assertThat(metrics.getSolved(), is(0L));
+        } finally {
+            metrics.unregister();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package de.tilmanschweitzer.sudoku.app;
+
+import de.tilmanschweitzer.sudoku.solver.SelectionThresholds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class ThresholdCalibrationTest {
+
+    @Test
+    public void calibrate_separatesEasyFromHardPuzzles() {
+        final List<CalibrationSample> samples = new ArrayList<>();
+        for (int candidates = 100; candidates < 300; candidates++) {
+            // Deduction is cheap and succeeds below 200 candidates, fails above
+            final boolean solvedByDeduction = candidates < 200;
+            samples.add(new CalibrationSample("puzzle", 30, candidates, 1, solvedByDeduction, 10, 50));
+        }
+
+        final SelectionThresholds thresholds = ThresholdCalibration.calibrate(samples);
+
+        assertThat(thresholds.getMaxCandidates(), is(199));
+        assertThat(ThresholdCalibration.totalNanos(thresholds, samples), is(100 * 10L + 100 * 50L));
+    }
+
+    @Test
+    public void calibrate_neverDeducesIfSearchIsAlwaysFaster() {
+        final List<CalibrationSample> samples = List.of(
+                new CalibrationSample("puzzle", 30, 150, 1, true, 100, 50),
+                new CalibrationSample("puzzle", 25, 250, 2, false, 100, 50));
+
+        assertThat(ThresholdCalibration.calibrate(samples), is(SelectionThresholds.NEVER_DEDUCE));
+    }
+
+    @Test
+    public void fromCsvLine_readsRecordedSample() {
+        final CalibrationSample sample = new CalibrationSample("puzzle", 30, 150, 1, true, 100, 50);
+
+        final CalibrationSample readSample = CalibrationSample.fromCsvLine(sample.toCsvLine());
+
+        assertThat(readSample.toCsvLine(), is(sample.toCsvLine()));
+        assertThat(readSample.getDeductionFirstNanos(), is(100L));
+    }
+}
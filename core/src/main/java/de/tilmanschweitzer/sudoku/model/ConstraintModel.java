@@ -0,0 +1,197 @@
+package de.tilmanschweitzer.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.HOUSE_COUNT;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+
+/*
+ * Houses of a sudoku variant, i.e. the groups of 9 positions that need distinct values. The houses are compiled
+ * once into primitive lookup tables (positions by house, houses and peers by position), so the solvers work on
+ * variants with the same bitmask operations as on classic puzzles.
+ *
+ * Houses 0-17 are always the rows and columns. The classic boxes can be replaced by irregular regions and further
+ * houses like the diagonals of X-Sudoku or the windows of Windoku can be added.
+ */
+public final class ConstraintModel {
+
+    public static final ConstraintModel CLASSIC = new ConstraintModel("classic", createClassicHouses());
+    public static final ConstraintModel X_SUDOKU = CLASSIC.withDiagonals();
+    public static final ConstraintModel WINDOKU = CLASSIC.withWindows();
+
+    private static final int FIRST_BOX = 18;
+
+    private final String name;
+    private final int[][] positionsByHouse;
+    private final int[][] housesByIndex;
+    private final int[][] peersByIndex;
+
+    private ConstraintModel(String name, List<int[]> houses) {
+        this.name = name;
+        this.positionsByHouse = houses.toArray(new int[0][]);
+        this.housesByIndex = new int[SUDOKU_SIZE][];
+        this.peersByIndex = new int[SUDOKU_SIZE][];
+
+        final int[] houseCountByIndex = new int[SUDOKU_SIZE];
+        for (int[] house : positionsByHouse) {
+            for (int index : house) {
+                houseCountByIndex[index]++;
+            }
+        }
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            housesByIndex[index] = new int[houseCountByIndex[index]];
+            houseCountByIndex[index] = 0;
+        }
+        for (int house = 0; house < positionsByHouse.length; house++) {
+            for (int index : positionsByHouse[house]) {
+                housesByIndex[index][houseCountByIndex[index]++] = house;
+            }
+        }
+
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            final boolean[] isPeer = new boolean[SUDOKU_SIZE];
+            for (int house : housesByIndex[index]) {
+                for (int other : positionsByHouse[house]) {
+                    isPeer[other] = other != index;
+                }
+            }
+            int peerCount = 0;
+            for (boolean peer : isPeer) {
+                peerCount += peer ? 1 : 0;
+            }
+            peersByIndex[index] = new int[peerCount];
+            peerCount = 0;
+            for (int other = 0; other < SUDOKU_SIZE; other++) {
+                if (isPeer[other]) {
+                    peersByIndex[index][peerCount++] = other;
+                }
+            }
+        }
+    }
+
+    /*
+     * Replaces the classic boxes by irregular regions, given as 81 region numbers from 1 to 9 in row order
+     * (e.g. "111222333111222333..."). Every region needs exactly 9 positions.
+     */
+    public static ConstraintModel irregular(String regions) throws SudokuFormatException {
+        if (regions.length() != SUDOKU_SIZE) {
+            throw new SudokuFormatException();
+        }
+        final int[][] regionPositions = new int[9][9];
+        final int[] regionSizes = new int[9];
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            final int region = regions.charAt(index) - '1';
+            if (region < 0 || region > 8 || regionSizes[region] == 9) {
+                throw new SudokuFormatException();
+            }
+            regionPositions[region][regionSizes[region]++] = index;
+        }
+
+        final List<int[]> houses = new ArrayList<>(createClassicHouses().subList(0, FIRST_BOX));
+        houses.addAll(List.of(regionPositions));
+        return new ConstraintModel("irregular", houses);
+    }
+
+    /*
+     * Adds the two main diagonals as houses (X-Sudoku)
+     */
+    public ConstraintModel withDiagonals() {
+        final int[] mainDiagonal = new int[9];
+        final int[] antiDiagonal = new int[9];
+        for (int i = 0; i < 9; i++) {
+            mainDiagonal[i] = i * 9 + i;
+            antiDiagonal[i] = i * 9 + 8 - i;
+        }
+        return withHouses("diagonals", List.of(mainDiagonal, antiDiagonal));
+    }
+
+    /*
+     * Adds the four 3x3 windows starting at rows and columns 1 and 5 as houses (Windoku)
+     */
+    public ConstraintModel withWindows() {
+        final List<int[]> windows = new ArrayList<>();
+        for (int windowRow : new int[]{1, 5}) {
+            for (int windowCol : new int[]{1, 5}) {
+                final int[] window = new int[9];
+                for (int i = 0; i < 9; i++) {
+                    window[i] = (windowRow + i / 3) * 9 + windowCol + i % 3;
+                }
+                windows.add(window);
+            }
+        }
+        return withHouses("windows", windows);
+    }
+
+    private ConstraintModel withHouses(String houseName, List<int[]> additionalHouses) {
+        final List<int[]> houses = new ArrayList<>(List.of(positionsByHouse));
+        houses.addAll(additionalHouses);
+        return new ConstraintModel(name + "+" + houseName, houses);
+    }
+
+    private static List<int[]> createClassicHouses() {
+        final List<int[]> houses = new ArrayList<>(HOUSE_COUNT);
+        for (int house = 0; house < HOUSE_COUNT; house++) {
+            houses.add(SudokuPosition.positionsOfHouse(house));
+        }
+        return houses;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getHouseCount() {
+        return positionsByHouse.length;
+    }
+
+    /*
+     * Indices of the 9 positions of the given house
+     * The returned array is shared and must not be modified
+     */
+    public int[] positionsOfHouse(int house) {
+        return positionsByHouse[house];
+    }
+
+    /*
+     * Houses of the given position in ascending order
+     * The returned array is shared and must not be modified
+     */
+    public int[] housesOf(int index) {
+        return housesByIndex[index];
+    }
+
+    /*
+     * Indices of the positions sharing a house with the given position in ascending order
+     * The returned array is shared and must not be modified
+     */
+    public int[] peersOf(int index) {
+        return peersByIndex[index];
+    }
+
+    /*
+     * Returns false if a value occurs twice in a house, unset positions are ignored
+     */
+    public boolean isValid(Sudoku sudoku) {
+        final int[] values = new int[SUDOKU_SIZE];
+        for (SudokuPosition position : SudokuPosition.allPositions) {
+            values[position.getIndex()] = sudoku.getValueForPosition(position);
+        }
+        for (int[] house : positionsByHouse) {
+            int used = 0;
+            for (int index : house) {
+                final int bit = values[index] == 0 ? 0 : 1 << values[index];
+                if ((used & bit) != 0) {
+                    return false;
+                }
+                used |= bit;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstraintModel{" + name + '}';
+    }
+}
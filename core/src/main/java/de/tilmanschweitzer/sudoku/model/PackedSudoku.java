@@ -0,0 +1,175 @@
+package de.tilmanschweitzer.sudoku.model;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+
+/*
+ * Immutable compact representation of a sudoku to be used as key in hash sets and maps.
+ * The 81 values are stored with 4 bits each in six longs, 16 values per long. The first position is stored in
+ * the highest bits of the first long, so comparing the longs unsigned and in order compares the sudokus
+ * lexicographically by position index.
+ */
+public final class PackedSudoku implements Comparable<PackedSudoku> {
+
+    private static final int VALUES_PER_WORD = 16;
+    private static final int BITS_PER_VALUE = 4;
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+    private final long word4;
+    private final long word5;
+
+    private PackedSudoku(long[] words) {
+        this.word0 = words[0];
+        this.word1 = words[1];
+        this.word2 = words[2];
+        this.word3 = words[3];
+        this.word4 = words[4];
+        this.word5 = words[5];
+    }
+
+    public static PackedSudoku of(Sudoku sudoku) {
+        final long[] words = new long[6];
+        for (SudokuPosition position : allPositions) {
+            pack(words, position.getIndex(), sudoku.getValueForPosition(position));
+        }
+        return new PackedSudoku(words);
+    }
+
+    /*
+     * Values in position index order (0-80)
+     */
+    public static PackedSudoku ofValues(int[] values) {
+        if (values.length != SUDOKU_SIZE) {
+            throw new SudokuFormatException();
+        }
+        final long[] words = new long[6];
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            if (values[index] < 0 || values[index] > 9) {
+                throw new SudokuFormatException();
+            }
+            pack(words, index, values[index]);
+        }
+        return new PackedSudoku(words);
+    }
+
+    public static PackedSudoku fromString(CharSequence sudokuAsString) throws SudokuFormatException {
+        if (sudokuAsString.length() != SUDOKU_SIZE) {
+            throw new SudokuFormatException();
+        }
+        final long[] words = new long[6];
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            final int value = sudokuAsString.charAt(index) - '0';
+            if (value < 0 || value > 9) {
+                throw new SudokuFormatException();
+            }
+            pack(words, index, value);
+        }
+        return new PackedSudoku(words);
+    }
+
+    private static void pack(long[] words, int index, int value) {
+        words[index / VALUES_PER_WORD] |= (long) value << shift(index);
+    }
+
+    private static int shift(int index) {
+        return (VALUES_PER_WORD - 1 - index % VALUES_PER_WORD) * BITS_PER_VALUE;
+    }
+
+    public int getValue(int index) {
+        return (int) (word(index / VALUES_PER_WORD) >>> shift(index)) & 0b1111;
+    }
+
+    public int getValueForPosition(SudokuPosition position) {
+        return getValue(position.getIndex());
+    }
+
+    public int[] toValues() {
+        final int[] values = new int[SUDOKU_SIZE];
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            values[index] = getValue(index);
+        }
+        return values;
+    }
+
+    public Sudoku toSudoku() {
+        final Sudoku sudoku = Sudoku.empty();
+        for (SudokuPosition position : allPositions) {
+            sudoku.setValueForPosition(position, getValue(position.getIndex()));
+        }
+        return sudoku;
+    }
+
+    /*
+     * 64 bit hash with good bit distribution for compact fingerprint sets
+     */
+    public long fingerprint() {
+        long hash = 0x9E3779B97F4A7C15L;
+        hash = mix(hash ^ word0);
+        hash = mix(hash ^ word1);
+        hash = mix(hash ^ word2);
+        hash = mix(hash ^ word3);
+        hash = mix(hash ^ word4);
+        hash = mix(hash ^ word5);
+        return hash;
+    }
+
+    private static long mix(long value) {
+        // Finalizer of the 64 bit MurmurHash3
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private long word(int wordIndex) {
+        switch (wordIndex) {
+            case 0: return word0;
+            case 1: return word1;
+            case 2: return word2;
+            case 3: return word3;
+            case 4: return word4;
+            default: return word5;
+        }
+    }
+
+    @Override
+    public int compareTo(PackedSudoku other) {
+        for (int wordIndex = 0; wordIndex < 6; wordIndex++) {
+            final int result = Long.compareUnsigned(word(wordIndex), other.word(wordIndex));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int hashCode() {
+        final long fingerprint = fingerprint();
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof PackedSudoku)) {
+            return false;
+        }
+        final PackedSudoku other = (PackedSudoku) obj;
+        return word0 == other.word0 && word1 == other.word1 && word2 == other.word2
+                && word3 == other.word3 && word4 == other.word4 && word5 == other.word5;
+    }
+
+    /*
+     * Returns the 81 values as digits in the same format as accepted by fromString
+     */
+    @Override
+    public String toString() {
+        final char[] chars = new char[SUDOKU_SIZE];
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            chars[index] = (char) ('0' + getValue(index));
+        }
+        return new String(chars);
+    }
+}
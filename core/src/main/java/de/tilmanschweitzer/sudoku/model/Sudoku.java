@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.IntStream;
 
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
 import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
 import static de.tilmanschweitzer.sudoku.model.SudokuUtils.hasDuplicateValues;
 import static de.tilmanschweitzer.sudoku.model.SudokuUtils.isValidValue;
@@ -136,15 +137,30 @@ public class Sudoku {
         return toPrintableString("|", " ");
     }
 
+    /*
+     * Returns the 81 values as digits in the same format as accepted by fromString
+     */
+    public String toCompactString() {
+        final char[] chars = new char[SUDOKU_SIZE];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                chars[row * 9 + col] = (char) ('0' + sudoku[row][col]);
+            }
+        }
+        return new String(chars);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof Sudoku)) {
             return false;
         }
         final Sudoku other = (Sudoku) obj;
-        return allPositions.stream()
-                .filter((position) -> getValueForPosition(position) != other.getValueForPosition(position))
-                .findFirst()
-                .isEmpty();
+        return Arrays.deepEquals(sudoku, other.sudoku);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(sudoku);
     }
 }
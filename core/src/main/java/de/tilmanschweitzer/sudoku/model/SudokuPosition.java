@@ -1,41 +1,96 @@
 package de.tilmanschweitzer.sudoku.model;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import static java.util.stream.Collectors.toUnmodifiableList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class SudokuPosition {
     public static int SUDOKU_WIDTH = 9;
     public static int SUDOKU_SIZE = SUDOKU_WIDTH * SUDOKU_WIDTH;
 
-    public static final List<SudokuPosition> allPositions = IntStream.range(0, SUDOKU_SIZE).boxed().map(SudokuPosition::new).collect(Collectors.toUnmodifiableList());
-
-    private static final Map<Integer, List<SudokuPosition>> positionsByRow = new HashMap<>();
-    private static final Map<Integer, List<SudokuPosition>> positionsByCol = new HashMap<>();
-    private static final Map<Integer, List<SudokuPosition>> positionsByBox = new HashMap<>();
+    public static final int HOUSE_COUNT = 27;
+    public static final int PEER_COUNT = 20;
 
-    private static final Map<SudokuPosition, Set<SudokuPosition>> positionsToBeRuledOut = new HashMap<>();
+    /*
+     * Primitive lookup tables indexed by position index (0-80)
+     * Houses 0-8 are the rows, 9-17 the columns and 18-26 the boxes
+     */
+    private static final int[] rowByIndex = new int[81];
+    private static final int[] colByIndex = new int[81];
+    private static final int[] boxByIndex = new int[81];
+    private static final int[][] peersByIndex = new int[81][PEER_COUNT];
+    private static final int[][] housesByIndex = new int[81][3];
+    private static final int[][] positionsByHouse = new int[HOUSE_COUNT][9];
 
     static {
-        IntStream.range(0, 9).forEach(fixedValue -> {
-            positionsByRow.put(fixedValue, IntStream.range(0, SUDOKU_WIDTH).boxed().map(col -> SudokuPosition.of(fixedValue, col)).collect(Collectors.toUnmodifiableList()));
-            positionsByCol.put(fixedValue, IntStream.range(0, SUDOKU_WIDTH).boxed().map(row -> SudokuPosition.of(row, fixedValue)).collect(Collectors.toUnmodifiableList()));
-            positionsByBox.put(fixedValue, IntStream.range(0, 9).boxed().map(index -> {
-                final int row = (fixedValue / 3) * 3 + index / 3;
-                final int col = (fixedValue % 3) * 3 + index % 3;
-                return SudokuPosition.of(row, col);
-            }).collect(toUnmodifiableList()));
-        });
-        allPositions.forEach(position -> {
-            final Set<SudokuPosition> positionsToBeRuledOutForPosition = new HashSet<>();
-            positionsToBeRuledOutForPosition.addAll(position.getPositionsInSameRow());
-            positionsToBeRuledOutForPosition.addAll(position.getPositionsInSameColumn());
-            positionsToBeRuledOutForPosition.addAll(position.getPositionsInSameBox());
-            positionsToBeRuledOutForPosition.remove(position);
-            positionsToBeRuledOut.put(position, positionsToBeRuledOutForPosition);
-        });
+        for (int index = 0; index < 81; index++) {
+            final int row = index / 9;
+            final int col = index % 9;
+            final int box = (row / 3) * 3 + col / 3;
+            rowByIndex[index] = row;
+            colByIndex[index] = col;
+            boxByIndex[index] = box;
+            housesByIndex[index][0] = row;
+            housesByIndex[index][1] = 9 + col;
+            housesByIndex[index][2] = 18 + box;
+            positionsByHouse[row][col] = index;
+            positionsByHouse[9 + col][row] = index;
+            positionsByHouse[18 + box][(row % 3) * 3 + col % 3] = index;
+        }
+        for (int index = 0; index < 81; index++) {
+            int peerCount = 0;
+            for (int other = 0; other < 81; other++) {
+                if (other != index && (rowByIndex[index] == rowByIndex[other] || colByIndex[index] == colByIndex[other] || boxByIndex[index] == boxByIndex[other])) {
+                    peersByIndex[index][peerCount++] = other;
+                }
+            }
+        }
+    }
+
+    public static final List<SudokuPosition> allPositions = createAllPositions();
+
+    private static List<SudokuPosition> createAllPositions() {
+        final SudokuPosition[] positions = new SudokuPosition[81];
+        for (int index = 0; index < 81; index++) {
+            positions[index] = new SudokuPosition(index);
+        }
+        return List.of(positions);
+    }
+
+    /*
+     * Object tables of the position based API, which only the deductive solver uses. The holder class is
+     * initialized on first use, so other callers do not pay for them at startup.
+     */
+    private static final class PositionTables {
+        private static final List<List<SudokuPosition>> positionListsByHouse = createPositionListsByHouse();
+        private static final List<Set<SudokuPosition>> positionsToBeRuledOut = createPositionsToBeRuledOut();
+
+        private static List<List<SudokuPosition>> createPositionListsByHouse() {
+            final List<List<SudokuPosition>> lists = new ArrayList<>(HOUSE_COUNT);
+            for (int house = 0; house < HOUSE_COUNT; house++) {
+                final SudokuPosition[] positions = new SudokuPosition[9];
+                for (int i = 0; i < 9; i++) {
+                    positions[i] = allPositions.get(positionsByHouse[house][i]);
+                }
+                lists.add(List.of(positions));
+            }
+            return lists;
+        }
+
+        private static List<Set<SudokuPosition>> createPositionsToBeRuledOut() {
+            final List<Set<SudokuPosition>> sets = new ArrayList<>(81);
+            for (SudokuPosition position : allPositions) {
+                // Same insertion order as before, so the iteration order of the sets does not change
+                final Set<SudokuPosition> positionsToBeRuledOutForPosition = new HashSet<>();
+                positionsToBeRuledOutForPosition.addAll(positionListsByHouse.get(position.getRow()));
+                positionsToBeRuledOutForPosition.addAll(positionListsByHouse.get(9 + position.getCol()));
+                positionsToBeRuledOutForPosition.addAll(positionListsByHouse.get(18 + position.getBox()));
+                positionsToBeRuledOutForPosition.remove(position);
+                sets.add(positionsToBeRuledOutForPosition);
+            }
+            return sets;
+        }
     }
 
     private final int index;
@@ -53,38 +108,73 @@ public class SudokuPosition {
     }
 
     public int getRow() {
-        return index / SUDOKU_WIDTH;
+        return rowByIndex[index];
     }
 
     public int getCol() {
-        return index % SUDOKU_WIDTH;
+        return colByIndex[index];
     }
 
     public int getBox() {
-        return (getRow() / 3) * 3 + getCol() / 3;
+        return boxByIndex[index];
     }
 
     public List<SudokuPosition> getPositionsInSameRow() {
-        return positionsByRow.get(getRow());
+        return PositionTables.positionListsByHouse.get(getRow());
     }
 
     public List<SudokuPosition> getPositionsInSameColumn() {
-        final int fixedCol = getCol();
-        return IntStream.range(0, SUDOKU_WIDTH).boxed().map(indexRow -> SudokuPosition.of(indexRow, fixedCol)).collect(Collectors.toUnmodifiableList());
+        return PositionTables.positionListsByHouse.get(9 + getCol());
     }
 
     public List<SudokuPosition> getPositionsInSameBox() {
-        return positionsByBox.get(getBox());
+        return PositionTables.positionListsByHouse.get(18 + getBox());
     }
 
     public Set<SudokuPosition> getPositionsToBeRuledOut() {
-        return positionsToBeRuledOut.get(this);
+        return PositionTables.positionsToBeRuledOut.get(index);
     }
 
     public boolean sharesSameHouse(SudokuPosition otherSudoku) {
         return getRow() == otherSudoku.getRow() || getCol() == otherSudoku.getCol() || getBox() == otherSudoku.getBox();
     }
 
+    public static int rowOf(int index) {
+        return rowByIndex[index];
+    }
+
+    public static int colOf(int index) {
+        return colByIndex[index];
+    }
+
+    public static int boxOf(int index) {
+        return boxByIndex[index];
+    }
+
+    /*
+     * Indices of the 20 positions sharing a row, column or box with the given position in ascending order
+     * The returned array is shared and must not be modified
+     */
+    public static int[] peersOf(int index) {
+        return peersByIndex[index];
+    }
+
+    /*
+     * House numbers (row, 9 + col, 18 + box) of the given position
+     * The returned array is shared and must not be modified
+     */
+    public static int[] housesOf(int index) {
+        return housesByIndex[index];
+    }
+
+    /*
+     * Indices of the 9 positions of the given house (0-8 rows, 9-17 columns, 18-26 boxes)
+     * The returned array is shared and must not be modified
+     */
+    public static int[] positionsOfHouse(int house) {
+        return positionsByHouse[house];
+    }
+
     @Override
     public int hashCode() {
         return index;
@@ -0,0 +1,242 @@
+package de.tilmanschweitzer.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+
+/*
+ * Canonical form of a sudoku under the validity preserving symmetries: transposition, permutation of the bands
+ * and stacks, permutation of the rows within a band and the columns within a stack and relabeling of the values.
+ *
+ * The canonical form is the lexicographically smallest variant after relabeling the values in the order of their
+ * first occurrence. Since a prefix of rows only depends on the choices made for these rows, the search adds one
+ * row after the other and only keeps the partial choices that lead to the smallest prefix.
+ */
+public final class SudokuSymmetry {
+
+    /*
+     * All 1296 orders of rows (or columns) that keep the bands (or stacks) together
+     */
+    private static final int[][] lineOrders = createLineOrders();
+
+    private static final int UNSET_LABEL = 0xF;
+
+    /*
+     * Search state layout: orientation, column order index, next free label, labels by value (10) and chosen rows (9)
+     */
+    private static final int STATE_ORIENTATION = 0;
+    private static final int STATE_COL_ORDER = 1;
+    private static final int STATE_NEXT_LABEL = 2;
+    private static final int STATE_LABELS = 3;
+    private static final int STATE_ROWS = STATE_LABELS + 10;
+
+    private SudokuSymmetry() {
+    }
+
+    public static PackedSudoku canonicalize(Sudoku sudoku) {
+        return canonicalize(PackedSudoku.of(sudoku));
+    }
+
+    public static PackedSudoku canonicalize(PackedSudoku sudoku) {
+        return PackedSudoku.ofValues(canonicalize(sudoku.toValues()));
+    }
+
+    /*
+     * Values in position index order (0-80)
+     */
+    public static int[] canonicalize(int[] values) {
+        if (Arrays.stream(values).allMatch(SudokuUtils::isUnsetValue)) {
+            // Every variant of the empty sudoku is the empty sudoku
+            return new int[SUDOKU_SIZE];
+        }
+        final int[][] orientations = {values, transpose(values)};
+
+        // Level 0: the values within a row are distinct, so the relabeled first row only depends on which columns
+        // are set. The rows with the smallest pattern of set columns are the only candidates for the first row.
+        List<int[]> states = new ArrayList<>();
+        final int[] labels = new int[10];
+        int smallestPattern = Integer.MAX_VALUE;
+        for (int orientation = 0; orientation < 2; orientation++) {
+            for (int row = 0; row < 9; row++) {
+                smallestPattern = Math.min(smallestPattern, smallestUnsetPattern(orientations[orientation], row));
+            }
+        }
+        for (int orientation = 0; orientation < 2; orientation++) {
+            final int[] grid = orientations[orientation];
+            for (int firstRow = 0; firstRow < 9; firstRow++) {
+                if (smallestUnsetPattern(grid, firstRow) != smallestPattern) {
+                    continue;
+                }
+                for (int colOrderIndex = 0; colOrderIndex < lineOrders.length; colOrderIndex++) {
+                    if (unsetPattern(grid, firstRow, lineOrders[colOrderIndex]) == smallestPattern) {
+                        Arrays.fill(labels, 0);
+                        relabelRow(grid, firstRow, lineOrders[colOrderIndex], labels, 1);
+                        states.add(createState(orientation, colOrderIndex, labels, firstRow));
+                    }
+                }
+            }
+        }
+
+        // Level 1-8: extend the remaining states by all possible next rows and keep those with the smallest row
+        for (int depth = 1; depth < 9; depth++) {
+            final List<int[]> nextStates = new ArrayList<>();
+            long smallestRow = Long.MAX_VALUE;
+            for (int[] state : states) {
+                for (int nextRow = 0; nextRow < 9; nextRow++) {
+                    if (!isPossibleNextRow(state, depth, nextRow)) {
+                        continue;
+                    }
+                    System.arraycopy(state, STATE_LABELS, labels, 0, 10);
+                    final long relabeledRow = relabelRow(orientations[state[STATE_ORIENTATION]], nextRow, lineOrders[state[STATE_COL_ORDER]], labels, state[STATE_NEXT_LABEL]);
+                    if (relabeledRow < smallestRow) {
+                        smallestRow = relabeledRow;
+                        nextStates.clear();
+                    }
+                    if (relabeledRow == smallestRow) {
+                        final int[] nextState = state.clone();
+                        System.arraycopy(labels, 0, nextState, STATE_LABELS, 10);
+                        nextState[STATE_NEXT_LABEL] = nextLabel(labels);
+                        nextState[STATE_ROWS + depth] = nextRow;
+                        nextStates.add(nextState);
+                    }
+                }
+            }
+            states = nextStates;
+        }
+
+        // All remaining states lead to the same grid
+        final int[] state = states.get(0);
+        final int[] grid = orientations[state[STATE_ORIENTATION]];
+        final int[] colOrder = lineOrders[state[STATE_COL_ORDER]];
+        final int[] canonicalValues = new int[SUDOKU_SIZE];
+        for (int index = 0; index < SUDOKU_SIZE; index++) {
+            final int value = grid[state[STATE_ROWS + index / 9] * 9 + colOrder[index % 9]];
+            canonicalValues[index] = state[STATE_LABELS + value];
+        }
+        return canonicalValues;
+    }
+
+    /*
+     * Relabels the values of a row in the order of their first occurrence and returns the row as 9 digits of 4 bits.
+     * Unset positions are compared as largest digit, so the canonical form starts with the rows with most values.
+     */
+    private static long relabelRow(int[] grid, int row, int[] colOrder, int[] labels, int nextLabel) {
+        long relabeledRow = 0;
+        for (int col = 0; col < 9; col++) {
+            final int value = grid[row * 9 + colOrder[col]];
+            if (value == 0) {
+                relabeledRow = relabeledRow << 4 | UNSET_LABEL;
+                continue;
+            }
+            if (labels[value] == 0) {
+                labels[value] = nextLabel++;
+            }
+            relabeledRow = relabeledRow << 4 | labels[value];
+        }
+        return relabeledRow;
+    }
+
+    /*
+     * Bit pattern of the unset positions of the row in the given column order, first column as highest bit
+     */
+    private static int unsetPattern(int[] grid, int row, int[] colOrder) {
+        int pattern = 0;
+        for (int col = 0; col < 9; col++) {
+            pattern = pattern << 1 | (grid[row * 9 + colOrder[col]] == 0 ? 1 : 0);
+        }
+        return pattern;
+    }
+
+    /*
+     * Smallest unset pattern of all column orders: stacks with more set positions first,
+     * set positions first within each stack
+     */
+    private static int smallestUnsetPattern(int[] grid, int row) {
+        final int[] setPositionsByStack = new int[3];
+        for (int col = 0; col < 9; col++) {
+            if (grid[row * 9 + col] != 0) {
+                setPositionsByStack[col / 3]++;
+            }
+        }
+        Arrays.sort(setPositionsByStack);
+        int pattern = 0;
+        for (int stack = 2; stack >= 0; stack--) {
+            pattern = pattern << 3 | (1 << (3 - setPositionsByStack[stack])) - 1;
+        }
+        return pattern;
+    }
+
+    private static int nextLabel(int[] labels) {
+        int maxLabel = 0;
+        for (int label : labels) {
+            maxLabel = Math.max(maxLabel, label);
+        }
+        return maxLabel + 1;
+    }
+
+    private static int[] createState(int orientation, int colOrderIndex, int[] labels, int firstRow) {
+        final int[] state = new int[STATE_ROWS + 9];
+        state[STATE_ORIENTATION] = orientation;
+        state[STATE_COL_ORDER] = colOrderIndex;
+        state[STATE_NEXT_LABEL] = nextLabel(labels);
+        System.arraycopy(labels, 0, state, STATE_LABELS, 10);
+        state[STATE_ROWS] = firstRow;
+        return state;
+    }
+
+    /*
+     * The rows of a band stay together: the first row of a band can be any row of an unused band,
+     * the second and third row must be from the band of the previous row
+     */
+    private static boolean isPossibleNextRow(int[] state, int depth, int nextRow) {
+        for (int usedDepth = 0; usedDepth < depth; usedDepth++) {
+            final int usedRow = state[STATE_ROWS + usedDepth];
+            if (usedRow == nextRow) {
+                return false;
+            }
+            if (depth % 3 == 0 && usedRow / 3 == nextRow / 3) {
+                return false;
+            }
+        }
+        return depth % 3 == 0 || state[STATE_ROWS + depth - 1] / 3 == nextRow / 3;
+    }
+
+    private static int[] transpose(int[] values) {
+        final int[] transposed = new int[SUDOKU_SIZE];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                transposed[col * 9 + row] = values[row * 9 + col];
+            }
+        }
+        return transposed;
+    }
+
+    private static int[][] createLineOrders() {
+        final int[][] permutations = createPermutationsOfThree();
+        final int[][] lineOrders = new int[6 * 6 * 6 * 6][];
+        int orderIndex = 0;
+        for (int[] bandOrder : permutations) {
+            for (int[] first : permutations) {
+                for (int[] second : permutations) {
+                    for (int[] third : permutations) {
+                        final int[][] withinBands = {first, second, third};
+                        final int[] order = new int[9];
+                        for (int band = 0; band < 3; band++) {
+                            for (int line = 0; line < 3; line++) {
+                                order[band * 3 + line] = bandOrder[band] * 3 + withinBands[band][line];
+                            }
+                        }
+                        lineOrders[orderIndex++] = order;
+                    }
+                }
+            }
+        }
+        return lineOrders;
+    }
+
+    private static int[][] createPermutationsOfThree() {
+        return new int[][]{{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+    }
+}
@@ -0,0 +1,49 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+
+/*
+ * Chooses the engine per puzzle: puzzles that the SelectionThresholds consider easy go to the deductive solver
+ * and only continue with the search if the deduction gets stuck. All other puzzles go straight to the search,
+ * without paying for a deductive pass that is likely to fail.
+ */
+public class AdaptiveSudokuSolver implements SudokuSolver {
+
+    private final SudokuSolver deductiveSolver = DeductiveSudokuSolver.withFailWhenUnsolved(false);
+    private final SudokuSolver searchSolver;
+    private final SelectionThresholds thresholds;
+
+    public AdaptiveSudokuSolver(SudokuSolver searchSolver, SelectionThresholds thresholds) {
+        this.searchSolver = searchSolver;
+        this.thresholds = thresholds;
+    }
+
+    public static AdaptiveSudokuSolver withDefaultThresholds(SudokuSolver searchSolver) {
+        return new AdaptiveSudokuSolver(searchSolver, SelectionThresholds.defaults());
+    }
+
+    @Override
+    public Sudoku solve(Sudoku sudoku) {
+        if (!thresholds.prefersDeduction(PuzzleFeatures.of(sudoku))) {
+            return searchSolver.solve(sudoku);
+        }
+        final Sudoku deducedSudoku = deductiveSolver.solve(sudoku);
+        return deducedSudoku.isCompleted() ? deducedSudoku : searchSolver.solve(deducedSudoku);
+    }
+
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveLimits limits) {
+        if (!thresholds.prefersDeduction(PuzzleFeatures.of(sudoku))) {
+            return searchSolver.solve(sudoku, limits);
+        }
+        final SolveResult deducedResult = deductiveSolver.solve(sudoku, limits);
+        if (deducedResult.getStatus() != SolveResult.Status.UNSOLVED) {
+            return deducedResult;
+        }
+        return searchSolver.solve(deducedResult.getSudoku(), limits);
+    }
+
+    public SelectionThresholds getThresholds() {
+        return thresholds;
+    }
+}
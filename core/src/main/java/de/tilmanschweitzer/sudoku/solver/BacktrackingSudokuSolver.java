@@ -1,23 +1,24 @@
 package de.tilmanschweitzer.sudoku.solver;
 
 import de.tilmanschweitzer.sudoku.model.Sudoku;
-import de.tilmanschweitzer.sudoku.model.SudokuPosition;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.Collections.emptyList;
-import static java.util.Collections.singletonList;
 
 public class BacktrackingSudokuSolver implements SudokuSolver {
 
     @Override
     public Sudoku solve(Sudoku sudoku) {
-
-        final List<Sudoku> solutions = findSolutions(sudoku);
+        final SolveEvent event = SolverEvents.beginSolve();
+        final SearchBudget budget = new SearchBudget(SolveLimits.NONE);
+        final List<Sudoku> solutions = findSolutions(sudoku, budget);
+        SolverEvents.endSolve(event, this, solutions.size() == 1 ? SolveResult.Status.SOLVED : SolveResult.Status.FAILED, budget.getNodes());
 
         if (solutions.size() == 0) {
             throw new RuntimeException("No solution found");
@@ -29,27 +30,82 @@ public class BacktrackingSudokuSolver implements SudokuSolver {
         return solutions.get(0);
     }
 
+    /*
+     * Stops at the second solution or when a limit is exceeded
+     */
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveLimits limits) {
+        final SolveEvent event = SolverEvents.beginSolve();
+        final SolveResult result = solveWithinLimits(sudoku, limits);
+        SolverEvents.endSolve(event, this, result);
+        return result;
+    }
+
+    private SolveResult solveWithinLimits(Sudoku sudoku, SolveLimits limits) {
+        final SearchState state = new SearchState();
+        if (!state.load(sudoku)) {
+            return SolveResult.of(SolveResult.Status.FAILED, sudoku, 0);
+        }
+        final List<Sudoku> solutions = new ArrayList<>();
+        final SearchBudget budget = new SearchBudget(limits);
+        findSolutions(state, 0, solutions, 2, budget);
+
+        final Optional<SolveResult.Status> exceededLimit = budget.getExceededLimit();
+        if (exceededLimit.isPresent()) {
+            // The search is back at the root, so the state contains only the givens
+            return SolveResult.of(exceededLimit.get(), state.toSudoku(), budget.getNodes());
+        }
+        if (solutions.size() != 1) {
+            return SolveResult.of(SolveResult.Status.FAILED, sudoku, budget.getNodes());
+        }
+        return SolveResult.solved(solutions.get(0), budget.getNodes());
+    }
+
     public List<Sudoku> findSolutions(Sudoku sudoku) {
-        return findSolutions(sudoku, Optional.empty());
+        return findSolutions(sudoku, new SearchBudget(SolveLimits.NONE));
+    }
+
+    /*
+     * Lazily enumerates the solutions in the order of findSolutions, the search only runs as far as the stream
+     * (or its iterator) is consumed. A parallel stream splits the search tree at the first branching position.
+     */
+    public Stream<Sudoku> streamSolutions(Sudoku sudoku) {
+        return StreamSupport.stream(new SolutionSpliterator(sudoku), false);
+    }
+
+    /*
+     * Exact number of solutions without building them, counted on all cores (see SolutionCounter)
+     */
+    public BigInteger countSolutions(Sudoku sudoku) {
+        return new SolutionCounter().count(sudoku);
     }
 
-    private List<Sudoku> findSolutions(Sudoku sudoku, Optional<SudokuPosition> latestPosition) {
-        if (!sudoku.isValid()) {
+    private List<Sudoku> findSolutions(Sudoku sudoku, SearchBudget budget) {
+        final SearchState state = new SearchState();
+        if (!state.load(sudoku)) {
             return emptyList();
-        } else if (sudoku.isCompleted()) {
-            return singletonList(sudoku);
         }
+        final List<Sudoku> solutions = new ArrayList<>();
+        findSolutions(state, 0, solutions, Integer.MAX_VALUE, budget);
+        return solutions;
+    }
 
-        final Optional<SudokuPosition> firstUnsetPositionOptional = sudoku.getFirstUnsetPosition(latestPosition);
-        if (firstUnsetPositionOptional.isEmpty()) {
-            throw new RuntimeException("Excepted to have at least one unset position when sudoku is not completed");
+    private void findSolutions(SearchState state, int latestPosition, List<Sudoku> solutions, int maxSolutions, SearchBudget budget) {
+        if (!budget.enterNode()) {
+            return;
+        }
+        final int position = state.findFirstOpenPosition(latestPosition);
+        if (position < 0) {
+            solutions.add(state.toSudoku());
+            return;
         }
 
-        final SudokuPosition position = firstUnsetPositionOptional.get();
-        return IntStream.range(1, 10).boxed().parallel().map((value) -> {
-            final Sudoku copy = Sudoku.fromSudoku(sudoku);
-            copy.setValueForPosition(position, value);
-            return findSolutions(copy, firstUnsetPositionOptional);
-        }).reduce((sudokus, sudokus2) -> Stream.concat(sudokus.stream(), sudokus2.stream()).collect(Collectors.toUnmodifiableList())).orElse(emptyList());
+        final int mark = state.mark();
+        for (int value = 1; value <= 9 && solutions.size() < maxSolutions && !budget.isExceeded(); value++) {
+            if (state.assign(position, value)) {
+                findSolutions(state, position, solutions, maxSolutions, budget);
+            }
+            state.undo(mark);
+        }
     }
 }
@@ -0,0 +1,33 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+/*
+ * Lets another thread stop a running solve call, the solvers poll the token cooperatively
+ */
+public final class CancellationToken {
+
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(null);
+    }
+
+    private CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /*
+     * Returns a token that can be cancelled on its own and is also cancelled when this token is cancelled
+     */
+    public CancellationToken createChild() {
+        return new CancellationToken(this);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+}
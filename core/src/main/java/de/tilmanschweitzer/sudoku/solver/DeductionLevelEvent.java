@@ -0,0 +1,39 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Flight recorder event for the DeductiveSudokuSolver switching to a more expensive deduction level,
+ * because the previous level found nothing in a whole round
+ */
+@Name("de.tilmanschweitzer.sudoku.DeductionLevel")
+@Label("Deduction Level Escalation")
+@Category("Sudoku")
+@Description("Deductive solver continues with the next deduction level")
+@StackTrace(false)
+final class DeductionLevelEvent extends Event {
+
+    @Label("Previous Level")
+    int previousLevel;
+
+    @Label("Level")
+    int level;
+
+    @Label("Open Positions")
+    int openPositions;
+
+    static void escalated(int previousLevel, int level, int openPositions) {
+        final DeductionLevelEvent event = new DeductionLevelEvent();
+        if (event.shouldCommit()) {
+            event.previousLevel = previousLevel;
+            event.level = level;
+            event.openPositions = openPositions;
+            event.commit();
+        }
+    }
+}
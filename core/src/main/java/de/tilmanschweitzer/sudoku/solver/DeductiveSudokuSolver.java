@@ -1,5 +1,6 @@
 package de.tilmanschweitzer.sudoku.solver;
 
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
 import de.tilmanschweitzer.sudoku.model.Sudoku;
 import de.tilmanschweitzer.sudoku.model.SudokuPosition;
 
@@ -16,22 +17,45 @@ public class DeductiveSudokuSolver implements SudokuSolver {
 
     private final SudokuSolver fallbackSolver;
     private final boolean failWhenUnsolved;
+    private final ConstraintModel model;
+    private volatile PositionTables positionTables;
 
     private DeductiveSudokuSolver() {
-        this(null, false);
+        this(null, false, ConstraintModel.CLASSIC);
     }
 
-    private DeductiveSudokuSolver(SudokuSolver fallbackSolver, boolean failWhenUnsolved) {
+    private DeductiveSudokuSolver(SudokuSolver fallbackSolver, boolean failWhenUnsolved, ConstraintModel model) {
         this.fallbackSolver = fallbackSolver;
         this.failWhenUnsolved = failWhenUnsolved;
+        this.model = model;
     }
 
     public static DeductiveSudokuSolver createWithFallbackSolver(SudokuSolver fallbackSolver) {
-        return new DeductiveSudokuSolver(fallbackSolver, false);
+        return new DeductiveSudokuSolver(fallbackSolver, false, ConstraintModel.CLASSIC);
     }
 
     public static DeductiveSudokuSolver withFailWhenUnsolved(boolean failWhenUnsolved) {
-        return new DeductiveSudokuSolver(null, failWhenUnsolved);
+        return new DeductiveSudokuSolver(null, failWhenUnsolved, ConstraintModel.CLASSIC);
+    }
+
+    /*
+     * Deduces with the houses of the given model. A solution of the fallback solver that breaks a house of the model
+     * is a failure, so the fallback solver should use the same model.
+     */
+    public DeductiveSudokuSolver withConstraintModel(ConstraintModel model) {
+        return new DeductiveSudokuSolver(fallbackSolver, failWhenUnsolved, model);
+    }
+
+    /*
+     * Built on the first solve, concurrent first solves build equal tables
+     */
+    private PositionTables getPositionTables() {
+        PositionTables tables = positionTables;
+        if (tables == null) {
+            tables = model == ConstraintModel.CLASSIC ? PositionTables.classic() : PositionTables.of(model);
+            positionTables = tables;
+        }
+        return tables;
     }
 
     private class DeductionLevel {
@@ -42,8 +66,88 @@ public class DeductiveSudokuSolver implements SudokuSolver {
 
     @Override
     public Sudoku solve(Sudoku originalSudoku) {
-        final LogicSudokuSolverInternalModel sudoku = new LogicSudokuSolverInternalModel();
+        final SolveEvent event = SolverEvents.beginSolve();
+        try {
+            final Sudoku solution = solveWithoutLimits(originalSudoku);
+            SolverEvents.endSolve(event, this, solution);
+            return solution;
+        } catch (RuntimeException e) {
+            SolverEvents.endSolve(event, this, SolveResult.Status.FAILED, 0);
+            throw e;
+        }
+    }
+
+    private Sudoku solveWithoutLimits(Sudoku originalSudoku) {
+        final LogicSudokuSolverInternalModel sudoku = new LogicSudokuSolverInternalModel(getPositionTables());
+        deduce(originalSudoku, sudoku, SolveLimits.NONE);
+
+        if (!sudoku.internalSudoku.isCompleted()) {
+            if (failWhenUnsolved) {
+                System.out.println(sudoku);
+                throw new RuntimeException("Solver found no solution");
+            }
+            if (fallbackSolver != null) {
+                final FallbackEvent fallbackEvent = SolverEvents.beginFallback();
+                final Sudoku solution;
+                try {
+                    solution = fallbackSolver.solve(sudoku.internalSudoku);
+                } finally {
+                    SolverEvents.endFallback(fallbackEvent, fallbackSolver, sudoku.internalSudoku);
+                }
+                if (!model.isValid(solution)) {
+                    throw new RuntimeException("Fallback solver found no solution for the " + model.getName() + " houses");
+                }
+                return solution;
+            }
+        }
 
+        return sudoku.internalSudoku;
+    }
+
+    /*
+     * Checks the deadline and the cancellation token once per deduction round and hands the limits on to the
+     * fallback solver
+     */
+    @Override
+    public SolveResult solve(Sudoku originalSudoku, SolveLimits limits) {
+        final SolveEvent event = SolverEvents.beginSolve();
+        final SolveResult result = solveWithinLimits(originalSudoku, limits);
+        SolverEvents.endSolve(event, this, result);
+        return result;
+    }
+
+    private SolveResult solveWithinLimits(Sudoku originalSudoku, SolveLimits limits) {
+        final LogicSudokuSolverInternalModel sudoku = new LogicSudokuSolverInternalModel(getPositionTables());
+        final Optional<SolveResult.Status> exceededLimit = deduce(originalSudoku, sudoku, limits);
+        if (exceededLimit.isPresent()) {
+            return SolveResult.of(exceededLimit.get(), sudoku.internalSudoku, 0);
+        }
+
+        if (sudoku.internalSudoku.isCompleted()) {
+            return model.isValid(sudoku.internalSudoku)
+                    ? SolveResult.solved(sudoku.internalSudoku, 0)
+                    : SolveResult.of(SolveResult.Status.FAILED, originalSudoku, 0);
+        }
+        if (failWhenUnsolved) {
+            return SolveResult.of(SolveResult.Status.FAILED, sudoku.internalSudoku, 0);
+        }
+        if (fallbackSolver != null) {
+            final FallbackEvent fallbackEvent = SolverEvents.beginFallback();
+            final SolveResult result = fallbackSolver.solve(sudoku.internalSudoku, limits);
+            SolverEvents.endFallback(fallbackEvent, fallbackSolver, sudoku.internalSudoku);
+            if (result.isSolved() && !model.isValid(result.getSudoku())) {
+                return SolveResult.of(SolveResult.Status.FAILED, sudoku.internalSudoku, result.getNodes());
+            }
+            return result;
+        }
+        return SolveResult.of(SolveResult.Status.UNSOLVED, sudoku.internalSudoku, 0);
+    }
+
+    /*
+     * Applies the deduction levels until the sudoku is completed or nothing changes anymore
+     * Returns the exceeded limit if the deduction was stopped early
+     */
+    private Optional<SolveResult.Status> deduce(Sudoku originalSudoku, LogicSudokuSolverInternalModel sudoku, SolveLimits limits) {
         final List<SudokuPosition> openPositions = allPositions.stream()
                 .filter(position -> isUnsetValue(originalSudoku.getValueForPosition(position)))
                 .collect(toList());
@@ -54,6 +158,11 @@ public class DeductiveSudokuSolver implements SudokuSolver {
         int currentDeductionLevel = DeductionLevel.LEVEL_1;
 
         do {
+            final Optional<SolveResult.Status> exceededLimit = limits.findExceededLimit();
+            if (exceededLimit.isPresent()) {
+                return exceededLimit;
+            }
+
             changedSomethingInTheLastIteration = false;
             final List<SudokuPosition> previousOpenPositions = openPositions.stream().collect(toUnmodifiableList());
 
@@ -75,28 +184,81 @@ public class DeductiveSudokuSolver implements SudokuSolver {
             }
             if (!changedSomethingInTheLastIteration) {
                 currentDeductionLevel++;
+                if (currentDeductionLevel <= DeductionLevel.LEVEL_3) {
+                    SolverEvents.deductionLevelEscalated(currentDeductionLevel - 1, currentDeductionLevel, openPositions.size());
+                }
             } else {
                 currentDeductionLevel = DeductionLevel.LEVEL_1;
             }
         } while (!sudoku.internalSudoku.isCompleted() && (changedSomethingInTheLastIteration || currentDeductionLevel <= DeductionLevel.LEVEL_3));
 
-        if (!sudoku.internalSudoku.isCompleted()) {
-            if (failWhenUnsolved) {
-                System.out.println(sudoku);
-                throw new RuntimeException("Solver found no solution");
+        return Optional.empty();
+    }
+
+
+    /*
+     * Houses and peers of a constraint model as position objects. The classic ones reuse the lists and sets of
+     * SudokuPosition, so the iteration order of the classic peers stays the same.
+     */
+    private static class PositionTables {
+        private final List<List<List<SudokuPosition>>> housesByPosition;
+        private final List<Set<SudokuPosition>> peersByPosition;
+
+        private PositionTables(List<List<List<SudokuPosition>>> housesByPosition, List<Set<SudokuPosition>> peersByPosition) {
+            this.housesByPosition = housesByPosition;
+            this.peersByPosition = peersByPosition;
+        }
+
+        private static PositionTables classic() {
+            final List<List<List<SudokuPosition>>> housesByPosition = new ArrayList<>(allPositions.size());
+            final List<Set<SudokuPosition>> peersByPosition = new ArrayList<>(allPositions.size());
+            for (SudokuPosition position : allPositions) {
+                housesByPosition.add(List.of(position.getPositionsInSameRow(), position.getPositionsInSameColumn(), position.getPositionsInSameBox()));
+                peersByPosition.add(position.getPositionsToBeRuledOut());
             }
-            if (fallbackSolver != null) {
-                return fallbackSolver.solve(sudoku.internalSudoku);
+            return new PositionTables(housesByPosition, peersByPosition);
+        }
+
+        private static PositionTables of(ConstraintModel model) {
+            final List<List<SudokuPosition>> positionListsByHouse = new ArrayList<>(model.getHouseCount());
+            for (int house = 0; house < model.getHouseCount(); house++) {
+                positionListsByHouse.add(toPositions(model.positionsOfHouse(house)));
+            }
+            final List<List<List<SudokuPosition>>> housesByPosition = new ArrayList<>(allPositions.size());
+            final List<Set<SudokuPosition>> peersByPosition = new ArrayList<>(allPositions.size());
+            for (SudokuPosition position : allPositions) {
+                final List<List<SudokuPosition>> houses = new ArrayList<>();
+                for (int house : model.housesOf(position.getIndex())) {
+                    houses.add(positionListsByHouse.get(house));
+                }
+                housesByPosition.add(List.copyOf(houses));
+                // Not Set.copyOf, its iteration order changes from run to run
+                peersByPosition.add(new HashSet<>(toPositions(model.peersOf(position.getIndex()))));
             }
+            return new PositionTables(housesByPosition, peersByPosition);
         }
 
-        return sudoku.internalSudoku;
-    }
+        private static List<SudokuPosition> toPositions(int[] indices) {
+            final SudokuPosition[] positions = new SudokuPosition[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                positions[i] = allPositions.get(indices[i]);
+            }
+            return List.of(positions);
+        }
 
+        private List<List<SudokuPosition>> getHouses(SudokuPosition position) {
+            return housesByPosition.get(position.getIndex());
+        }
+
+        private Set<SudokuPosition> getPeers(SudokuPosition position) {
+            return peersByPosition.get(position.getIndex());
+        }
+    }
 
     private static class LogicSudokuSolverInternalModel {
 
         private final Sudoku internalSudoku = Sudoku.empty();
+        private final PositionTables positionTables;
 
         /*
          * Ruled out values from index 1-9
@@ -104,7 +266,8 @@ public class DeductiveSudokuSolver implements SudokuSolver {
          */
         final List<Integer>[][] possibleValues = new ArrayList[9][9];
 
-        private LogicSudokuSolverInternalModel() {
+        private LogicSudokuSolverInternalModel(PositionTables positionTables) {
+            this.positionTables = positionTables;
             for (SudokuPosition positions : allPositions) {
                 possibleValues[positions.getRow()][positions.getCol()] = range(1, 10).boxed().collect(toList());
             }
@@ -147,13 +310,15 @@ public class DeductiveSudokuSolver implements SudokuSolver {
 
         private boolean findAndRuleOutConjugatePairs(SudokuPosition position, int pairMembers) {
             final List<Integer> possibleValuesForPosition = getPossibleValuesForPosition(position);
+            boolean foundNewConjugatePair = false;
             if (possibleValuesForPosition.size() == pairMembers) {
-                boolean foundNewConjugatePairInRows = findAndRuleOutConjugatePairs(position.getPositionsInSameRow(), possibleValuesForPosition, pairMembers);
-                boolean foundNewConjugatePairInColumns = findAndRuleOutConjugatePairs(position.getPositionsInSameColumn(), possibleValuesForPosition, pairMembers);
-                boolean foundNewConjugatePairInBoxes = findAndRuleOutConjugatePairs(position.getPositionsInSameBox(), possibleValuesForPosition, pairMembers);
-                return foundNewConjugatePairInRows || foundNewConjugatePairInColumns || foundNewConjugatePairInBoxes;
+                for (List<SudokuPosition> house : positionTables.getHouses(position)) {
+                    if (findAndRuleOutConjugatePairs(house, possibleValuesForPosition, pairMembers)) {
+                        foundNewConjugatePair = true;
+                    }
+                }
             }
-            return false;
+            return foundNewConjugatePair;
         }
 
         private boolean findAndRuleOutConjugatePairs(List<SudokuPosition> positions, List<Integer> possibleValuesForPosition, int pairMembers) {
@@ -192,7 +357,7 @@ public class DeductiveSudokuSolver implements SudokuSolver {
             final Integer leftValue = possibleValuesForPosition.get(0);
             final Integer rightValue = possibleValuesForPosition.get(1);
 
-            final List<SudokuPosition> xyWingCandidates = position.getPositionsToBeRuledOut().stream()
+            final List<SudokuPosition> xyWingCandidates = positionTables.getPeers(position).stream()
                     .filter(otherPosition -> {
                         final List<Integer> possibleValuesForOtherPosition = getPossibleValuesForPosition(otherPosition);
                         return possibleValuesForOtherPosition.size() == 2 &&
@@ -244,7 +409,8 @@ public class DeductiveSudokuSolver implements SudokuSolver {
                 if (!possibleValuesForOpenPosition.contains(duplicateValue)) {
                     return false;
                 }
-                if (!(openPosition.sharesSameHouse(xyWingLeft) && openPosition.sharesSameHouse(xyWingRight))) {
+                final Set<SudokuPosition> peersOfOpenPosition = positionTables.getPeers(openPosition);
+                if (!(peersOfOpenPosition.contains(xyWingLeft) && peersOfOpenPosition.contains(xyWingRight))) {
                     return false;
                 }
                 possibleValuesForOpenPosition.remove(duplicateValue);
@@ -253,25 +419,16 @@ public class DeductiveSudokuSolver implements SudokuSolver {
         }
 
         private boolean checkIfValueIsUniquePosition(SudokuPosition position, int possibleValueForPosition) {
-            return countPossiblePositionsForValueInRow(position, possibleValueForPosition) == 1
-                    || countPossiblePositionsForValueInCol(position, possibleValueForPosition) == 1
-                    || countPossiblePositionsForValueInField(position, possibleValueForPosition) == 1;
-        }
-
-        private long countPossiblePositionsForValueInRow(SudokuPosition position, int possibleValueForPosition) {
-            return position.getPositionsInSameRow().stream().map(this::getPossibleValuesForPosition)
-                    .filter(possibleValues -> possibleValues.contains(possibleValueForPosition))
-                    .count();
-        }
-
-        private long countPossiblePositionsForValueInCol(SudokuPosition position, int possibleValueForPosition) {
-            return position.getPositionsInSameColumn().stream().map(this::getPossibleValuesForPosition)
-                    .filter(possibleValues -> possibleValues.contains(possibleValueForPosition))
-                    .count();
+            for (List<SudokuPosition> house : positionTables.getHouses(position)) {
+                if (countPossiblePositionsForValueInHouse(house, possibleValueForPosition) == 1) {
+                    return true;
+                }
+            }
+            return false;
         }
 
-        private long countPossiblePositionsForValueInField(SudokuPosition position, int possibleValueForPosition) {
-            return position.getPositionsInSameBox().stream().map(this::getPossibleValuesForPosition)
+        private long countPossiblePositionsForValueInHouse(List<SudokuPosition> house, int possibleValueForPosition) {
+            return house.stream().map(this::getPossibleValuesForPosition)
                     .filter(possibleValues -> possibleValues.contains(possibleValueForPosition))
                     .count();
         }
@@ -285,7 +442,7 @@ public class DeductiveSudokuSolver implements SudokuSolver {
                 return false;
             }
             internalSudoku.setValueForPosition(position, value);
-            position.getPositionsToBeRuledOut().forEach(positionInSameRow -> {
+            positionTables.getPeers(position).forEach(positionInSameRow -> {
                 getPossibleValuesForPosition(positionInSameRow).remove((Integer) value);
             });
             possibleValues[position.getRow()][position.getCol()].clear();
@@ -0,0 +1,52 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+import static de.tilmanschweitzer.sudoku.model.SudokuUtils.isUnsetValue;
+
+/*
+ * Flight recorder event for the DeductiveSudokuSolver handing a sudoku it could not complete to its fallback
+ * solver, the duration of the event is the time spent in the fallback solver
+ */
+@Name("de.tilmanschweitzer.sudoku.Fallback")
+@Label("Fallback Solver Invocation")
+@Category("Sudoku")
+@Description("Deductive solver got stuck and continues with the fallback solver")
+@StackTrace(false)
+final class FallbackEvent extends Event {
+
+    @Label("Fallback Solver")
+    String fallbackSolver;
+
+    @Label("Open Positions")
+    int openPositions;
+
+    static FallbackEvent start() {
+        final FallbackEvent event = new FallbackEvent();
+        event.begin();
+        return event;
+    }
+
+    /*
+     * The open positions are counted on the sudoku handed to the fallback solver, only if the event is recorded
+     */
+    void end(SudokuSolver solver, Sudoku deducedSudoku) {
+        if (shouldCommit()) {
+            fallbackSolver = solver.getClass().getSimpleName();
+            for (SudokuPosition position : allPositions) {
+                if (isUnsetValue(deducedSudoku.getValueForPosition(position))) {
+                    openPositions++;
+                }
+            }
+            commit();
+        }
+    }
+}
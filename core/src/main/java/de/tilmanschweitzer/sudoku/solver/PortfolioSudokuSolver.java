@@ -0,0 +1,215 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+
+/*
+ * Races several solvers on the same sudoku and returns the first verified solution. The first solver runs on
+ * the calling thread, the others run on the executor. As soon as a solution is verified, the remaining solvers
+ * are cancelled through their SolveLimits.
+ *
+ * With a hedging delay the first solver runs alone on the executor and the calling thread waits for it up to the
+ * delay, so an easy sudoku causes no work on other threads. If the first solver is still running after the delay
+ * or gave up without a solution, the other solvers are started and race against the running first solver, which
+ * keeps its progress.
+ *
+ * Solutions are verified against the houses of the constraint model, so a portfolio of variant solvers needs
+ * withConstraintModel to reject solutions that only satisfy the classic houses.
+ *
+ * The default executor has one thread per core, so a loaded server does not start more solver threads than it can
+ * run. Races never wait for the executor, the calling thread always runs one solver itself.
+ */
+public class PortfolioSudokuSolver implements SudokuSolver {
+
+    // Bits 1 to 9, an unset value sets bit 0
+    private static final int ALL_VALUES = 0b1_111_111_110;
+
+    private static final ExecutorService defaultExecutor = createDefaultExecutor();
+
+    private final List<SudokuSolver> solvers;
+    private final Duration hedgingDelay;
+    private final Executor executor;
+    private final ConstraintModel model;
+
+    private PortfolioSudokuSolver(List<SudokuSolver> solvers, Duration hedgingDelay, Executor executor, ConstraintModel model) {
+        if (solvers.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one solver");
+        }
+        this.solvers = List.copyOf(solvers);
+        this.hedgingDelay = hedgingDelay;
+        this.executor = executor;
+        this.model = model;
+    }
+
+    private static ExecutorService createDefaultExecutor() {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "portfolio-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public static PortfolioSudokuSolver racing(SudokuSolver... solvers) {
+        return new PortfolioSudokuSolver(Arrays.asList(solvers), Duration.ZERO, defaultExecutor, ConstraintModel.CLASSIC);
+    }
+
+    public PortfolioSudokuSolver withHedgingDelay(Duration hedgingDelay) {
+        return new PortfolioSudokuSolver(solvers, hedgingDelay, executor, model);
+    }
+
+    public PortfolioSudokuSolver withExecutor(Executor executor) {
+        return new PortfolioSudokuSolver(solvers, hedgingDelay, executor, model);
+    }
+
+    /*
+     * Verifies the solutions with the houses of the given model, the racing solvers have to use the same model
+     */
+    public PortfolioSudokuSolver withConstraintModel(ConstraintModel model) {
+        return new PortfolioSudokuSolver(solvers, hedgingDelay, executor, model);
+    }
+
+    @Override
+    public Sudoku solve(Sudoku sudoku) {
+        final SolveResult result = solve(sudoku, SolveLimits.NONE);
+        if (!result.isSolved()) {
+            throw new RuntimeException("No solver found a solution: " + result.getStatus());
+        }
+        return result.getSudoku();
+    }
+
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveLimits limits) {
+        if (hedgingDelay.isZero() || solvers.size() == 1) {
+            return race(sudoku, limits, solvers);
+        }
+
+        final Race race = new Race(sudoku, limits, solvers.size(), model);
+        final CompletableFuture<Void> firstSolver = CompletableFuture.runAsync(() -> race.run(solvers.get(0)), executor);
+        try {
+            firstSolver.get(hedgingDelay.toNanos(), TimeUnit.NANOSECONDS);
+            if (race.winner.isDone() || limits.findExceededLimit().isPresent()) {
+                // Solved within the delay or stopped by the caller, the backups would not change the result
+                race.skipRemainingSolvers();
+                return race.winner.join();
+            }
+        } catch (TimeoutException e) {
+            // Still running, the backups race against it
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            race.cancellationToken.cancel();
+        } catch (ExecutionException e) {
+            // Race.run handles the failures of the solvers
+        }
+        return race.runAll(executor, solvers.subList(1, solvers.size()));
+    }
+
+    private SolveResult race(Sudoku sudoku, SolveLimits limits, List<SudokuSolver> racingSolvers) {
+        return new Race(sudoku, limits, racingSolvers.size(), model).runAll(executor, racingSolvers);
+    }
+
+    private static class Race {
+        private final Sudoku sudoku;
+        private final ConstraintModel model;
+        private final CancellationToken cancellationToken;
+        private final SolveLimits limits;
+        private final CompletableFuture<SolveResult> winner = new CompletableFuture<>();
+        private final AtomicInteger remainingSolvers;
+        // Result of the solver that finished first, reported if no solver finds a verified solution
+        private final AtomicReference<SolveResult> firstResult = new AtomicReference<>();
+
+        private Race(Sudoku sudoku, SolveLimits limits, int numberOfSolvers, ConstraintModel model) {
+            this.sudoku = sudoku;
+            this.model = model;
+            this.cancellationToken = limits.getCancellationToken().map(CancellationToken::createChild).orElseGet(CancellationToken::new);
+            this.limits = limits.withCancellationToken(cancellationToken);
+            this.remainingSolvers = new AtomicInteger(numberOfSolvers);
+        }
+
+        /*
+         * Runs the first of the given solvers on the calling thread and the others on the executor
+         */
+        private SolveResult runAll(Executor executor, List<SudokuSolver> racingSolvers) {
+            for (SudokuSolver solver : racingSolvers.subList(1, racingSolvers.size())) {
+                executor.execute(() -> run(solver));
+            }
+            run(racingSolvers.get(0));
+            return winner.join();
+        }
+
+        /*
+         * Completes the race with the results so far, for solvers that are never started
+         */
+        private void skipRemainingSolvers() {
+            winner.complete(firstResult.get());
+        }
+
+        private void run(SudokuSolver solver) {
+            try {
+                if (winner.isDone()) {
+                    // Another solver was faster than the start of this one
+                    return;
+                }
+                final SolveResult result = solver.solve(Sudoku.fromSudoku(sudoku), limits);
+                if (isVerifiedSolution(sudoku, result, model)) {
+                    winner.complete(result);
+                    cancellationToken.cancel();
+                } else {
+                    firstResult.compareAndSet(null, result);
+                }
+            } catch (RuntimeException e) {
+                firstResult.compareAndSet(null, SolveResult.of(SolveResult.Status.FAILED, sudoku, 0));
+            } finally {
+                if (remainingSolvers.decrementAndGet() == 0) {
+                    winner.complete(firstResult.get());
+                }
+            }
+        }
+    }
+
+    /*
+     * The solution must contain every value once per house and keep all values of the sudoku. Checked with one
+     * bitmask per house, so the verification costs less than solving an easy sudoku.
+     */
+    static boolean isVerifiedSolution(Sudoku sudoku, SolveResult result, ConstraintModel model) {
+        if (!result.isSolved()) {
+            return false;
+        }
+        final Sudoku solution = result.getSudoku();
+        for (SudokuPosition position : allPositions) {
+            final int value = sudoku.getValueForPosition(position);
+            if (value != 0 && value != solution.getValueForPosition(position)) {
+                return false;
+            }
+        }
+        for (int house = 0; house < model.getHouseCount(); house++) {
+            int seenValues = 0;
+            for (int index : model.positionsOfHouse(house)) {
+                seenValues |= 1 << solution.getValueForPosition(allPositions.get(index));
+            }
+            if (seenValues != ALL_VALUES) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
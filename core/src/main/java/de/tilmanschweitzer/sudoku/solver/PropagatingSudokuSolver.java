@@ -0,0 +1,112 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Hybrid solver: runs the cheap deduction levels of the DeductiveSudokuSolver (level 1: naked singles,
+ * level 2: hidden singles) at every search node, branches on the open position with the fewest candidates
+ * and backtracks as soon as the propagation runs into a contradiction.
+ *
+ * Variants are solved with the houses of the given ConstraintModel.
+ */
+public class PropagatingSudokuSolver implements SudokuSolver {
+
+    private final ConstraintModel model;
+
+    public PropagatingSudokuSolver() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    public PropagatingSudokuSolver(ConstraintModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public Sudoku solve(Sudoku sudoku) {
+        final SolveEvent event = SolverEvents.beginSolve();
+        final SearchBudget budget = new SearchBudget(SolveLimits.NONE);
+        final List<Sudoku> solutions = findSolutions(sudoku, 2, budget);
+        SolverEvents.endSolve(event, this, solutions.size() == 1 ? SolveResult.Status.SOLVED : SolveResult.Status.FAILED, budget.getNodes());
+
+        if (solutions.size() == 0) {
+            throw new RuntimeException("No solution found");
+        }
+        if (solutions.size() > 1) {
+            throw new RuntimeException("Found multiple solutions");
+        }
+
+        return solutions.get(0);
+    }
+
+    /*
+     * Stops at the second solution or when a limit is exceeded
+     */
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveLimits limits) {
+        final SolveEvent event = SolverEvents.beginSolve();
+        final SolveResult result = solveWithinLimits(sudoku, limits);
+        SolverEvents.endSolve(event, this, result);
+        return result;
+    }
+
+    private SolveResult solveWithinLimits(Sudoku sudoku, SolveLimits limits) {
+        final SearchState state = new SearchState(model);
+        if (!state.load(sudoku) || !state.propagate()) {
+            return SolveResult.of(SolveResult.Status.FAILED, sudoku, 0);
+        }
+        final List<Sudoku> solutions = new ArrayList<>();
+        final SearchBudget budget = new SearchBudget(limits);
+        search(state, solutions, 2, budget);
+
+        final Optional<SolveResult.Status> exceededLimit = budget.getExceededLimit();
+        if (exceededLimit.isPresent()) {
+            // The search is back at the root, so the state contains the givens and the values deduced from them
+            return SolveResult.of(exceededLimit.get(), state.toSudoku(), budget.getNodes());
+        }
+        if (solutions.size() != 1) {
+            return SolveResult.of(SolveResult.Status.FAILED, sudoku, budget.getNodes());
+        }
+        return SolveResult.solved(solutions.get(0), budget.getNodes());
+    }
+
+    public List<Sudoku> findSolutions(Sudoku sudoku, int maxSolutions) {
+        return findSolutions(sudoku, maxSolutions, new SearchBudget(SolveLimits.NONE));
+    }
+
+    private List<Sudoku> findSolutions(Sudoku sudoku, int maxSolutions, SearchBudget budget) {
+        final List<Sudoku> solutions = new ArrayList<>();
+        final SearchState state = new SearchState(model);
+        if (state.load(sudoku) && state.propagate()) {
+            search(state, solutions, maxSolutions, budget);
+        }
+        return solutions;
+    }
+
+    private static void search(SearchState state, List<Sudoku> solutions, int maxSolutions, SearchBudget budget) {
+        if (!budget.enterNode()) {
+            return;
+        }
+        final int position = state.findMostConstrainedPosition();
+        if (position < 0) {
+            solutions.add(state.toSudoku());
+            return;
+        }
+
+        final int mark = state.mark();
+        int remainingCandidates = state.getCandidates(position);
+        while (remainingCandidates != 0 && solutions.size() < maxSolutions && !budget.isExceeded()) {
+            final int candidate = Integer.lowestOneBit(remainingCandidates);
+            remainingCandidates ^= candidate;
+
+            if (state.assign(position, Integer.numberOfTrailingZeros(candidate) + 1) && state.propagate()) {
+                search(state, solutions, maxSolutions, budget);
+            }
+            state.undo(mark);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+
+/*
+ * Cheap features of a puzzle to predict how hard it is:
+ * - clue count: number of given values
+ * - candidate count: sum of the possible values of all open positions after ruling out the values of the peers
+ * - digit spread: difference between the most and the least frequent given value, 0 if all values are given
+ *   equally often
+ */
+public final class PuzzleFeatures {
+
+    private final boolean consistent;
+    private final int clueCount;
+    private final int candidateCount;
+    private final int digitSpread;
+
+    private PuzzleFeatures(boolean consistent, int clueCount, int candidateCount, int digitSpread) {
+        this.consistent = consistent;
+        this.clueCount = clueCount;
+        this.candidateCount = candidateCount;
+        this.digitSpread = digitSpread;
+    }
+
+    public static PuzzleFeatures of(Sudoku sudoku) {
+        final int[] countsByValue = new int[10];
+        for (SudokuPosition position : allPositions) {
+            countsByValue[sudoku.getValueForPosition(position)]++;
+        }
+        int minCount = Integer.MAX_VALUE;
+        int maxCount = 0;
+        for (int value = 1; value <= 9; value++) {
+            minCount = Math.min(minCount, countsByValue[value]);
+            maxCount = Math.max(maxCount, countsByValue[value]);
+        }
+
+        final SearchState state = new SearchState();
+        final boolean consistent = state.load(sudoku);
+        int candidateCount = 0;
+        for (int position = 0; position < SUDOKU_SIZE; position++) {
+            candidateCount += Integer.bitCount(state.getCandidates(position));
+        }
+        return new PuzzleFeatures(consistent, SUDOKU_SIZE - countsByValue[0], candidateCount, maxCount - minCount);
+    }
+
+    /*
+     * False if given values already contradict each other, the other features are incomplete in that case
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public int getClueCount() {
+        return clueCount;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public int getDigitSpread() {
+        return digitSpread;
+    }
+
+    @Override
+    public String toString() {
+        return "clues=" + clueCount + ", candidates=" + candidateCount + ", spread=" + digitSpread;
+    }
+}
@@ -0,0 +1,50 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import java.util.Optional;
+
+/*
+ * Counts the search nodes of a single solve call against its limits. The clock and the cancellation token
+ * are only polled every 1024 nodes, so the check is cheap enough for every node.
+ */
+final class SearchBudget {
+
+    private static final long CHECK_INTERVAL_MASK = 1024 - 1;
+
+    private final SolveLimits limits;
+    private long nodes;
+    private SolveResult.Status exceededLimit;
+
+    SearchBudget(SolveLimits limits) {
+        this.limits = limits;
+    }
+
+    /*
+     * Counts a new node, returns false if the search has to stop
+     */
+    boolean enterNode() {
+        if (exceededLimit != null) {
+            return false;
+        }
+        nodes++;
+        if (nodes > limits.getMaxNodes()) {
+            exceededLimit = SolveResult.Status.NODE_LIMIT_EXCEEDED;
+            return false;
+        }
+        if ((nodes & CHECK_INTERVAL_MASK) == 1) {
+            exceededLimit = limits.findExceededLimit().orElse(null);
+        }
+        return exceededLimit == null;
+    }
+
+    boolean isExceeded() {
+        return exceededLimit != null;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    Optional<SolveResult.Status> getExceededLimit() {
+        return Optional.ofNullable(exceededLimit);
+    }
+}
@@ -0,0 +1,219 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+
+import java.util.Arrays;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+
+/*
+ * Mutable search state for the solvers. Every change of a value or a candidate mask is recorded on a
+ * preallocated trail, so a search can go back to a previous mark without copying the grid.
+ *
+ * The houses and peers come from the lookup tables of a ConstraintModel, so variants are propagated with the same
+ * operations as classic puzzles.
+ */
+public final class SearchState {
+
+    public static final int ALL_CANDIDATES = 0b111_111_111;
+
+    /*
+     * Every trail entry removes at least one candidate or sets a value, so a single search path can never
+     * record more than 81 * (9 + 1) entries.
+     */
+    private static final int MAX_TRAIL_SIZE = SUDOKU_SIZE * 10;
+
+    private final int[] values = new int[SUDOKU_SIZE];
+    /*
+     * Bitmask of the possible values per position (bit 0 = value 1, ..., bit 8 = value 9)
+     * 0 for positions that already have a value
+     */
+    private final int[] candidates = new int[SUDOKU_SIZE];
+
+    /*
+     * Entry layout: position << 16 | previous value << 9 | previous candidates
+     */
+    private final int[] trail = new int[MAX_TRAIL_SIZE];
+    private int trailSize;
+
+    private final ConstraintModel model;
+
+    public SearchState() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    public SearchState(ConstraintModel model) {
+        this.model = model;
+    }
+
+    /*
+     * Loads the values of the given sudoku
+     * Returns false if the values already contradict each other
+     */
+    public boolean load(Sudoku sudoku) {
+        Arrays.fill(values, 0);
+        Arrays.fill(candidates, ALL_CANDIDATES);
+        trailSize = 0;
+        for (SudokuPosition position : allPositions) {
+            final int value = sudoku.getValueForPosition(position);
+            if (value != 0 && !assign(position.getIndex(), value)) {
+                return false;
+            }
+        }
+        trailSize = 0;
+        return true;
+    }
+
+    public int mark() {
+        return trailSize;
+    }
+
+    public void undo(int mark) {
+        while (trailSize > mark) {
+            final int entry = trail[--trailSize];
+            final int position = entry >>> 16;
+            values[position] = (entry >>> 9) & 0b1111;
+            candidates[position] = entry & ALL_CANDIDATES;
+        }
+    }
+
+    public int getValue(int position) {
+        return values[position];
+    }
+
+    public int getCandidates(int position) {
+        return candidates[position];
+    }
+
+    /*
+     * Sets the value and rules it out for all peers
+     * Returns false if the value is not possible or a peer runs out of candidates
+     */
+    public boolean assign(int position, int value) {
+        final int bit = 1 << (value - 1);
+        if ((candidates[position] & bit) == 0) {
+            return false;
+        }
+        record(position);
+        values[position] = value;
+        candidates[position] = 0;
+        for (int peer : model.peersOf(position)) {
+            if ((candidates[peer] & bit) != 0) {
+                record(peer);
+                candidates[peer] ^= bit;
+                if (candidates[peer] == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Applies deduction level 1 (single possible value) and level 2 (single possible position in a house)
+     * until nothing changes anymore
+     * Returns false if a contradiction was found
+     */
+    public boolean propagate() {
+        boolean changedSomething;
+        do {
+            changedSomething = false;
+
+            for (int position = 0; position < SUDOKU_SIZE; position++) {
+                final int possibleValues = candidates[position];
+                if (values[position] == 0 && Integer.bitCount(possibleValues) == 1) {
+                    if (!assign(position, Integer.numberOfTrailingZeros(possibleValues) + 1)) {
+                        return false;
+                    }
+                    changedSomething = true;
+                }
+            }
+
+            for (int houseNumber = 0; houseNumber < model.getHouseCount(); houseNumber++) {
+                final int[] house = model.positionsOfHouse(houseNumber);
+                int seenOnce = 0;
+                int seenTwice = 0;
+                int placed = 0;
+                for (int position : house) {
+                    if (values[position] != 0) {
+                        placed |= 1 << (values[position] - 1);
+                    } else {
+                        seenTwice |= seenOnce & candidates[position];
+                        seenOnce |= candidates[position];
+                    }
+                }
+                if ((seenOnce | placed) != ALL_CANDIDATES) {
+                    return false;
+                }
+                int uniqueValues = seenOnce & ~seenTwice & ~placed;
+                while (uniqueValues != 0) {
+                    final int bit = Integer.lowestOneBit(uniqueValues);
+                    uniqueValues ^= bit;
+                    if (!assignUniqueValueInHouse(house, bit)) {
+                        return false;
+                    }
+                    changedSomething = true;
+                }
+            }
+        } while (changedSomething);
+        return true;
+    }
+
+    /*
+     * Returns the open position with the fewest candidates or -1 if all positions are set
+     */
+    public int findMostConstrainedPosition() {
+        int bestPosition = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int position = 0; position < SUDOKU_SIZE; position++) {
+            if (values[position] == 0) {
+                final int count = Integer.bitCount(candidates[position]);
+                if (count < bestCount) {
+                    bestPosition = position;
+                    bestCount = count;
+                    if (count <= 2) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestPosition;
+    }
+
+    /*
+     * Returns the first open position starting at the given position or -1 if all following positions are set
+     */
+    public int findFirstOpenPosition(int startPosition) {
+        for (int position = startPosition; position < SUDOKU_SIZE; position++) {
+            if (values[position] == 0) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    public Sudoku toSudoku() {
+        final Sudoku sudoku = Sudoku.empty();
+        for (SudokuPosition position : allPositions) {
+            sudoku.setValueForPosition(position, values[position.getIndex()]);
+        }
+        return sudoku;
+    }
+
+    private boolean assignUniqueValueInHouse(int[] house, int bit) {
+        for (int position : house) {
+            if ((candidates[position] & bit) != 0) {
+                return assign(position, Integer.numberOfTrailingZeros(bit) + 1);
+            }
+        }
+        // The position was taken by another value in the meantime
+        return false;
+    }
+
+    private void record(int position) {
+        trail[trailSize++] = position << 16 | values[position] << 9 | candidates[position];
+    }
+}
@@ -0,0 +1,88 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/*
+ * Decides from the puzzle features whether the deductive solver is likely to finish a puzzle. The deduction is
+ * tried if a puzzle has at least minClues values, at most maxCandidates candidates and at most maxDigitSpread.
+ *
+ * The default thresholds are read from adaptive-thresholds.properties, which is written by the calibrate
+ * command of the cli from a recorded benchmark run.
+ */
+public final class SelectionThresholds {
+
+    public static final String RESOURCE_NAME = "adaptive-thresholds.properties";
+
+    private static final String MIN_CLUES = "minClues";
+    private static final String MAX_CANDIDATES = "maxCandidates";
+    private static final String MAX_DIGIT_SPREAD = "maxDigitSpread";
+
+    // Always tries the deduction first, like the deductive solver with fallback
+    public static final SelectionThresholds ALWAYS_DEDUCE = new SelectionThresholds(0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    public static final SelectionThresholds NEVER_DEDUCE = new SelectionThresholds(Integer.MAX_VALUE, 0, 0);
+
+    private final int minClues;
+    private final int maxCandidates;
+    private final int maxDigitSpread;
+
+    public SelectionThresholds(int minClues, int maxCandidates, int maxDigitSpread) {
+        this.minClues = minClues;
+        this.maxCandidates = maxCandidates;
+        this.maxDigitSpread = maxDigitSpread;
+    }
+
+    public static SelectionThresholds defaults() {
+        try (InputStream inputStream = SelectionThresholds.class.getResourceAsStream(RESOURCE_NAME)) {
+            if (inputStream == null) {
+                return ALWAYS_DEDUCE;
+            }
+            final Properties properties = new Properties();
+            properties.load(inputStream);
+            return fromProperties(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static SelectionThresholds fromProperties(Properties properties) {
+        return new SelectionThresholds(
+                Integer.parseInt(properties.getProperty(MIN_CLUES)),
+                Integer.parseInt(properties.getProperty(MAX_CANDIDATES)),
+                Integer.parseInt(properties.getProperty(MAX_DIGIT_SPREAD)));
+    }
+
+    public Properties toProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty(MIN_CLUES, Integer.toString(minClues));
+        properties.setProperty(MAX_CANDIDATES, Integer.toString(maxCandidates));
+        properties.setProperty(MAX_DIGIT_SPREAD, Integer.toString(maxDigitSpread));
+        return properties;
+    }
+
+    public boolean prefersDeduction(PuzzleFeatures features) {
+        return features.isConsistent()
+                && features.getClueCount() >= minClues
+                && features.getCandidateCount() <= maxCandidates
+                && features.getDigitSpread() <= maxDigitSpread;
+    }
+
+    public int getMinClues() {
+        return minClues;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public int getMaxDigitSpread() {
+        return maxDigitSpread;
+    }
+
+    @Override
+    public String toString() {
+        return MIN_CLUES + "=" + minClues + ", " + MAX_CANDIDATES + "=" + maxCandidates + ", " + MAX_DIGIT_SPREAD + "=" + maxDigitSpread;
+    }
+}
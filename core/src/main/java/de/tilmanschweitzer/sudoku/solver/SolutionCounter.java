@@ -0,0 +1,209 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.boxOf;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.colOf;
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.rowOf;
+
+/*
+ * Counts the solutions of a sudoku without building them. The search only keeps the used values of every row,
+ * column and box as bitmasks and always branches on the open position with the fewest candidates.
+ *
+ * With more than one thread the first levels of the search tree are expanded breadth first until there are enough
+ * subtrees for all threads, then the subtrees are counted in a parallel stream on a pool with the given number of
+ * threads. Every subtree is counted as long, the sum of all subtrees as BigInteger. A subtree with more than
+ * Long.MAX_VALUE solutions throws an ArithmeticException instead of returning a wrong count, but as the solutions
+ * are counted one by one, such a count would not finish anyway.
+ */
+public final class SolutionCounter {
+
+    private static final int TASKS_PER_THREAD = 16;
+    private static final int ALL_CANDIDATES = 0b111_111_111;
+
+    private final int parallelism;
+
+    public SolutionCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SolutionCounter(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public BigInteger count(Sudoku sudoku) {
+        final Grid root = new Grid();
+        for (SudokuPosition position : allPositions) {
+            final int value = sudoku.getValueForPosition(position);
+            if (value != 0 && !root.place(position.getIndex(), value)) {
+                return BigInteger.ZERO;
+            }
+        }
+        if (parallelism == 1) {
+            return BigInteger.valueOf(root.countSolutions());
+        }
+
+        final List<Grid> subtrees = new ArrayList<>();
+        final long completedSubtrees = expand(root, parallelism * TASKS_PER_THREAD, subtrees);
+        // A parallel stream runs in the pool of the task that starts it, the common pool ignores the parallelism
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> subtrees.parallelStream()
+                    .map(subtree -> BigInteger.valueOf(subtree.countSolutions()))
+                    .reduce(BigInteger.valueOf(completedSubtrees), BigInteger::add)).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /*
+     * Expands the search tree level by level until there are at least the given number of open subtrees or all
+     * subtrees are completed. Returns the number of subtrees that are already completed solutions.
+     */
+    private static long expand(Grid root, int targetSubtrees, List<Grid> subtrees) {
+        long completedSubtrees = 0;
+        List<Grid> level = List.of(root);
+        while (!level.isEmpty() && level.size() < targetSubtrees) {
+            final List<Grid> nextLevel = new ArrayList<>();
+            for (Grid grid : level) {
+                final int openIndex = grid.selectMostConstrainedPosition();
+                if (openIndex < 0) {
+                    completedSubtrees++;
+                    continue;
+                }
+                final int position = grid.openPositions[openIndex];
+                int candidates = grid.getCandidates(position);
+                while (candidates != 0) {
+                    final int bit = Integer.lowestOneBit(candidates);
+                    candidates ^= bit;
+                    final Grid child = grid.copy();
+                    child.place(position, Integer.numberOfTrailingZeros(bit) + 1);
+                    nextLevel.add(child);
+                }
+            }
+            level = nextLevel;
+        }
+        subtrees.addAll(level);
+        return completedSubtrees;
+    }
+
+    private static final class Grid {
+        private final int[] usedInRow = new int[9];
+        private final int[] usedInCol = new int[9];
+        private final int[] usedInBox = new int[9];
+        /*
+         * The positions before openStart are set, openPositions[openStart...] are still open
+         */
+        private final int[] openPositions = new int[SUDOKU_SIZE];
+        private int openStart;
+
+        private Grid() {
+            for (int position = 0; position < SUDOKU_SIZE; position++) {
+                openPositions[position] = position;
+            }
+        }
+
+        private Grid copy() {
+            final Grid copy = new Grid();
+            System.arraycopy(usedInRow, 0, copy.usedInRow, 0, 9);
+            System.arraycopy(usedInCol, 0, copy.usedInCol, 0, 9);
+            System.arraycopy(usedInBox, 0, copy.usedInBox, 0, 9);
+            System.arraycopy(openPositions, 0, copy.openPositions, 0, SUDOKU_SIZE);
+            copy.openStart = openStart;
+            return copy;
+        }
+
+        /*
+         * Sets the value of an open position and closes it
+         * Returns false if the value is already used in the row, column or box of the position
+         */
+        private boolean place(int position, int value) {
+            final int bit = 1 << (value - 1);
+            if ((getCandidates(position) & bit) == 0) {
+                return false;
+            }
+            mark(position, bit);
+            for (int openIndex = openStart; openIndex < SUDOKU_SIZE; openIndex++) {
+                if (openPositions[openIndex] == position) {
+                    swapOpenPositions(openIndex, openStart++);
+                    return true;
+                }
+            }
+            throw new IllegalStateException("Position " + position + " is already set");
+        }
+
+        private int getCandidates(int position) {
+            return ~(usedInRow[rowOf(position)] | usedInCol[colOf(position)] | usedInBox[boxOf(position)]) & ALL_CANDIDATES;
+        }
+
+        /*
+         * Moves the open position with the fewest candidates to openStart and returns openStart,
+         * -1 if all positions are set
+         */
+        private int selectMostConstrainedPosition() {
+            if (openStart == SUDOKU_SIZE) {
+                return -1;
+            }
+            int bestIndex = openStart;
+            int bestCount = Integer.MAX_VALUE;
+            for (int openIndex = openStart; openIndex < SUDOKU_SIZE; openIndex++) {
+                final int count = Integer.bitCount(getCandidates(openPositions[openIndex]));
+                if (count < bestCount) {
+                    bestIndex = openIndex;
+                    bestCount = count;
+                    if (count <= 1) {
+                        break;
+                    }
+                }
+            }
+            swapOpenPositions(bestIndex, openStart);
+            return openStart;
+        }
+
+        private long countSolutions() {
+            final int openIndex = selectMostConstrainedPosition();
+            if (openIndex < 0) {
+                return 1;
+            }
+            final int position = openPositions[openIndex];
+            int candidates = getCandidates(position);
+            long solutions = 0;
+            openStart++;
+            while (candidates != 0) {
+                final int bit = Integer.lowestOneBit(candidates);
+                candidates ^= bit;
+                mark(position, bit);
+                solutions = Math.addExact(solutions, countSolutions());
+                mark(position, bit);
+            }
+            openStart--;
+            return solutions;
+        }
+
+        /*
+         * Toggles the value bit in the row, column and box of the position
+         */
+        private void mark(int position, int bit) {
+            usedInRow[rowOf(position)] ^= bit;
+            usedInCol[colOf(position)] ^= bit;
+            usedInBox[boxOf(position)] ^= bit;
+        }
+
+        private void swapOpenPositions(int i, int j) {
+            final int position = openPositions[i];
+            openPositions[i] = openPositions[j];
+            openPositions[j] = position;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.SUDOKU_SIZE;
+
+/*
+ * Lazy depth first search over the solutions of a sudoku in the order of the BacktrackingSudokuSolver: first open
+ * position, values in ascending order. The search runs on an explicit stack of branch frames, so it can pause after
+ * every solution and only holds the current search path.
+ *
+ * Before the traversal starts, trySplit hands the lower half of the values of the root position to a new
+ * spliterator. A root with a single possible value is assigned first, so the split happens at the first position
+ * that actually branches.
+ */
+final class SolutionSpliterator implements Spliterator<Sudoku> {
+
+    private static final int CHARACTERISTICS = ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+
+    private final SearchState state = new SearchState();
+
+    /*
+     * Frame layout: branch position, values of the position that were not tried yet and the trail mark before
+     * the value of the frame was assigned. One frame per open position at most.
+     */
+    private final int[] positions = new int[SUDOKU_SIZE];
+    private final int[] remainingCandidates = new int[SUDOKU_SIZE];
+    private final int[] marks = new int[SUDOKU_SIZE];
+    private int depth;
+
+    /*
+     * The root is already completed and not reported yet
+     */
+    private boolean completedRoot;
+    private boolean started;
+
+    SolutionSpliterator(Sudoku sudoku) {
+        if (!state.load(sudoku)) {
+            return;
+        }
+        final int position = state.findFirstOpenPosition(0);
+        if (position < 0) {
+            completedRoot = true;
+        } else {
+            push(position, state.getCandidates(position));
+        }
+    }
+
+    private SolutionSpliterator(Sudoku root, int position, int candidates) {
+        state.load(root);
+        push(position, candidates);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Sudoku> action) {
+        started = true;
+        if (completedRoot) {
+            completedRoot = false;
+            action.accept(state.toSudoku());
+            return true;
+        }
+        while (depth > 0) {
+            final int frame = depth - 1;
+            state.undo(marks[frame]);
+            if (remainingCandidates[frame] == 0) {
+                depth--;
+                continue;
+            }
+            final int candidate = Integer.lowestOneBit(remainingCandidates[frame]);
+            remainingCandidates[frame] ^= candidate;
+            if (!state.assign(positions[frame], Integer.numberOfTrailingZeros(candidate) + 1)) {
+                continue;
+            }
+            final int nextPosition = state.findFirstOpenPosition(positions[frame]);
+            if (nextPosition < 0) {
+                action.accept(state.toSudoku());
+                return true;
+            }
+            push(nextPosition, state.getCandidates(nextPosition));
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<Sudoku> trySplit() {
+        if (started || depth != 1) {
+            return null;
+        }
+        while (Integer.bitCount(remainingCandidates[0]) == 1) {
+            // The root does not branch, the only value becomes part of the root
+            final int position = positions[0];
+            final int value = Integer.numberOfTrailingZeros(remainingCandidates[0]) + 1;
+            depth = 0;
+            if (!state.assign(position, value)) {
+                return null;
+            }
+            final int nextPosition = state.findFirstOpenPosition(position);
+            if (nextPosition < 0) {
+                completedRoot = true;
+                return null;
+            }
+            push(nextPosition, state.getCandidates(nextPosition));
+        }
+        final int candidateCount = Integer.bitCount(remainingCandidates[0]);
+        if (candidateCount == 0) {
+            return null;
+        }
+        int lowerHalf = 0;
+        for (int i = 0; i < candidateCount / 2; i++) {
+            lowerHalf |= Integer.lowestOneBit(remainingCandidates[0] & ~lowerHalf);
+        }
+        remainingCandidates[0] ^= lowerHalf;
+        return new SolutionSpliterator(state.toSudoku(), positions[0], lowerHalf);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    private void push(int position, int candidates) {
+        positions[depth] = position;
+        remainingCandidates[depth] = candidates;
+        marks[depth] = state.mark();
+        depth++;
+    }
+}
@@ -0,0 +1,55 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Flight recorder event for a single solve call, the duration of the event is the solving time. Solvers that
+ * delegate to other solvers emit nested events. Created through SolverEvents only.
+ */
+@Name("de.tilmanschweitzer.sudoku.Solve")
+@Label("Sudoku Solve")
+@Category("Sudoku")
+@Description("Solve call of a single solver")
+@StackTrace(false)
+final class SolveEvent extends Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Search Nodes")
+    long nodes;
+
+    static SolveEvent start() {
+        final SolveEvent event = new SolveEvent();
+        event.begin();
+        return event;
+    }
+
+    void end(SudokuSolver sudokuSolver, Sudoku solution) {
+        if (shouldCommit()) {
+            end(sudokuSolver, solution.isCompleted() ? SolveResult.Status.SOLVED : SolveResult.Status.UNSOLVED, 0);
+        }
+    }
+
+    void end(SudokuSolver sudokuSolver, SolveResult result) {
+        end(sudokuSolver, result.getStatus(), result.getNodes());
+    }
+
+    void end(SudokuSolver sudokuSolver, SolveResult.Status status, long searchNodes) {
+        if (shouldCommit()) {
+            solver = sudokuSolver.getClass().getSimpleName();
+            outcome = status.name();
+            nodes = searchNodes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+ * Immutable limits for a single solve call: a deadline on the System.nanoTime clock, a maximum number of
+ * search nodes and a cancellation token. The deadline is absolute, so limits have to be created per call.
+ */
+public final class SolveLimits {
+
+    public static final SolveLimits NONE = new SolveLimits(false, 0, Long.MAX_VALUE, null);
+
+    private final boolean hasDeadline;
+    private final long deadlineNanoTime;
+    private final long maxNodes;
+    private final CancellationToken cancellationToken;
+
+    private SolveLimits(boolean hasDeadline, long deadlineNanoTime, long maxNodes, CancellationToken cancellationToken) {
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanoTime = deadlineNanoTime;
+        this.maxNodes = maxNodes;
+        this.cancellationToken = cancellationToken;
+    }
+
+    public SolveLimits withTimeout(Duration timeout) {
+        return withDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public SolveLimits withDeadline(long deadlineNanoTime) {
+        return new SolveLimits(true, deadlineNanoTime, maxNodes, cancellationToken);
+    }
+
+    /*
+     * Keeps the current deadline if it is earlier than the end of the given timeout
+     */
+    public SolveLimits withTimeoutIfEarlier(Duration timeout) {
+        final long deadlineNanoTime = System.nanoTime() + timeout.toNanos();
+        if (hasDeadline && this.deadlineNanoTime - deadlineNanoTime <= 0) {
+            return this;
+        }
+        return withDeadline(deadlineNanoTime);
+    }
+
+    public SolveLimits withMaxNodes(long maxNodes) {
+        return new SolveLimits(hasDeadline, deadlineNanoTime, maxNodes, cancellationToken);
+    }
+
+    public SolveLimits withCancellationToken(CancellationToken cancellationToken) {
+        return new SolveLimits(hasDeadline, deadlineNanoTime, maxNodes, cancellationToken);
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public Optional<CancellationToken> getCancellationToken() {
+        return Optional.ofNullable(cancellationToken);
+    }
+
+    public boolean isDeadlineExceeded() {
+        return hasDeadline && System.nanoTime() - deadlineNanoTime >= 0;
+    }
+
+    public boolean isCancelled() {
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+
+    /*
+     * Checks the cancellation token and the deadline, the node budget is counted by the solvers
+     */
+    public Optional<SolveResult.Status> findExceededLimit() {
+        if (isCancelled()) {
+            return Optional.of(SolveResult.Status.CANCELLED);
+        }
+        if (isDeadlineExceeded()) {
+            return Optional.of(SolveResult.Status.DEADLINE_EXCEEDED);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,68 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+
+/*
+ * Outcome of a limited solve call. Unless the sudoku was solved, getSudoku() returns the values that
+ * were known for sure when the solver stopped, at least the givens.
+ */
+public final class SolveResult {
+
+    public enum Status {
+        // Completed and valid solution
+        SOLVED,
+        // The solver has no way to continue, e.g. the deductive solver without fallback
+        UNSOLVED,
+        // The sudoku has no or multiple solutions
+        FAILED,
+        DEADLINE_EXCEEDED,
+        NODE_LIMIT_EXCEEDED,
+        CANCELLED;
+
+        public boolean isLimitExceeded() {
+            return this == DEADLINE_EXCEEDED || this == NODE_LIMIT_EXCEEDED || this == CANCELLED;
+        }
+    }
+
+    private final Status status;
+    private final Sudoku sudoku;
+    private final long nodes;
+
+    private SolveResult(Status status, Sudoku sudoku, long nodes) {
+        this.status = status;
+        this.sudoku = sudoku;
+        this.nodes = nodes;
+    }
+
+    public static SolveResult of(Status status, Sudoku sudoku, long nodes) {
+        return new SolveResult(status, sudoku, nodes);
+    }
+
+    public static SolveResult solved(Sudoku solution, long nodes) {
+        return new SolveResult(Status.SOLVED, solution, nodes);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    public Sudoku getSudoku() {
+        return sudoku;
+    }
+
+    /*
+     * Number of search nodes visited, 0 for solvers that do not search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return status + " after " + nodes + " nodes: " + sudoku.toCompactString();
+    }
+}
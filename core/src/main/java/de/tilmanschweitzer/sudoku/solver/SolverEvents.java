@@ -0,0 +1,57 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import jdk.jfr.FlightRecorder;
+
+/*
+ * Entry points for the flight recorder events of the solvers. Loading the first event class initializes parts of
+ * the flight recorder, which adds a few hundred milliseconds to the startup of a short CLI run. So the event
+ * classes are only touched once the flight recorder itself is initialized, i.e. a recording was started.
+ * The begin methods return null otherwise and the end methods ignore null.
+ */
+final class SolverEvents {
+
+    private SolverEvents() {
+    }
+
+    static SolveEvent beginSolve() {
+        return FlightRecorder.isInitialized() ? SolveEvent.start() : null;
+    }
+
+    static void endSolve(SolveEvent event, SudokuSolver solver, SolveResult result) {
+        if (event != null) {
+            event.end(solver, result);
+        }
+    }
+
+    static void endSolve(SolveEvent event, SudokuSolver solver, SolveResult.Status status, long nodes) {
+        if (event != null) {
+            event.end(solver, status, nodes);
+        }
+    }
+
+    /*
+     * For solvers without limits that return the sudoku as far as they got
+     */
+    static void endSolve(SolveEvent event, SudokuSolver solver, Sudoku solution) {
+        if (event != null) {
+            event.end(solver, solution);
+        }
+    }
+
+    static FallbackEvent beginFallback() {
+        return FlightRecorder.isInitialized() ? FallbackEvent.start() : null;
+    }
+
+    static void endFallback(FallbackEvent event, SudokuSolver fallbackSolver, Sudoku deducedSudoku) {
+        if (event != null) {
+            event.end(fallbackSolver, deducedSudoku);
+        }
+    }
+
+    static void deductionLevelEscalated(int previousLevel, int level, int openPositions) {
+        if (FlightRecorder.isInitialized()) {
+            DeductionLevelEvent.escalated(previousLevel, level, openPositions);
+        }
+    }
+}
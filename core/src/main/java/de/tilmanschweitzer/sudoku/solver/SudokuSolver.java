@@ -2,6 +2,27 @@ package de.tilmanschweitzer.sudoku.solver;
 
 import de.tilmanschweitzer.sudoku.model.Sudoku;
 
+import java.util.Optional;
+
 public interface SudokuSolver {
     Sudoku solve(Sudoku sudoku);
+
+    /*
+     * Solves within the given limits and reports failures as result instead of an exception.
+     * Solvers that do not override this method only check the limits before they start.
+     */
+    default SolveResult solve(Sudoku sudoku, SolveLimits limits) {
+        final Optional<SolveResult.Status> exceededLimit = limits.findExceededLimit();
+        if (exceededLimit.isPresent()) {
+            return SolveResult.of(exceededLimit.get(), sudoku, 0);
+        }
+        try {
+            final Sudoku solution = solve(sudoku);
+            return solution.isCompleted() && solution.isValid()
+                    ? SolveResult.solved(solution, 0)
+                    : SolveResult.of(SolveResult.Status.UNSOLVED, solution, 0);
+        } catch (RuntimeException e) {
+            return SolveResult.of(SolveResult.Status.FAILED, sudoku, 0);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package de.tilmanschweitzer.sudoku;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * Asserts how many bytes an operation allocates on average over a sample, measured with the per thread allocation
+ * counter of the JVM. The operation runs over the sample a few times before the measurement, so the budget holds
+ * for JIT compiled code. The budgets catch changes that add allocations to hot paths, they are not exact sizes.
+ */
+public final class AllocationBudget {
+
+    private static final int WARM_UP_ROUNDS = 3;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationBudget() {
+    }
+
+    /*
+     * Every 100th puzzle of sudoku-10000.csv as "puzzle,solution" lines
+     */
+    public static List<String[]> samplePuzzles() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                AllocationBudget.class.getResourceAsStream("sample-puzzles.csv"), StandardCharsets.US_ASCII))) {
+            return reader.lines()
+                    .skip(1)
+                    .map(line -> line.split(","))
+                    .collect(toUnmodifiableList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<Sudoku> sampleSudokus() {
+        return samplePuzzles().stream().map(line -> Sudoku.fromString(line[0])).collect(toUnmodifiableList());
+    }
+
+    public static List<Sudoku> sampleSolutions() {
+        return samplePuzzles().stream().map(line -> Sudoku.fromString(line[1])).collect(toUnmodifiableList());
+    }
+
+    public static <T> void assertAllocatesAtMost(long bytesPerOperation, List<T> sample, Consumer<T> operation) {
+        assertThat("bytes allocated per operation", allocatedBytesPerOperation(sample, operation), lessThanOrEqualTo(bytesPerOperation));
+    }
+
+    public static <T> long allocatedBytesPerOperation(List<T> sample, Consumer<T> operation) {
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled(),
+                "Allocation counter not available");
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            sample.forEach(operation);
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        sample.forEach(operation);
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore) / sample.size();
+    }
+}
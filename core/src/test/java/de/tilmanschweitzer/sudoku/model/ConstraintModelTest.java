@@ -0,0 +1,76 @@
+package de.tilmanschweitzer.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConstraintModelTest {
+
+    static final String REGIONS = "111222333111222333114222333144555566444555666444556666778888999777888999777788999";
+
+    @Test
+    public void classic_hasTheTablesOfSudokuPosition() {
+        final ConstraintModel model = ConstraintModel.CLASSIC;
+
+        assertThat(model.getHouseCount(), is(SudokuPosition.HOUSE_COUNT));
+        for (int index = 0; index < SudokuPosition.SUDOKU_SIZE; index++) {
+            assertThat(model.peersOf(index), equalTo(SudokuPosition.peersOf(index)));
+            assertThat(model.housesOf(index), equalTo(SudokuPosition.housesOf(index)));
+        }
+        for (int house = 0; house < SudokuPosition.HOUSE_COUNT; house++) {
+            assertThat(model.positionsOfHouse(house), equalTo(SudokuPosition.positionsOfHouse(house)));
+        }
+    }
+
+    @Test
+    public void xSudoku_addsTheDiagonalsToThePeers() {
+        final ConstraintModel model = ConstraintModel.X_SUDOKU;
+
+        assertThat(model.getHouseCount(), is(29));
+        assertThat(model.peersOf(0).length, is(26));
+        assertThat(model.peersOf(40).length, is(32));
+        assertThat(model.peersOf(1).length, is(20));
+        assertThat(model.positionsOfHouse(28), equalTo(new int[]{8, 16, 24, 32, 40, 48, 56, 64, 72}));
+    }
+
+    @Test
+    public void windoku_addsTheWindowsToThePeers() {
+        final ConstraintModel model = ConstraintModel.WINDOKU;
+
+        assertThat(model.getHouseCount(), is(31));
+        assertThat(model.positionsOfHouse(27), equalTo(new int[]{10, 11, 12, 19, 20, 21, 28, 29, 30}));
+        assertThat(model.housesOf(10), equalTo(new int[]{1, 10, 18, 27}));
+        assertThat(model.peersOf(10).length, is(23));
+        assertThat(model.peersOf(0).length, is(20));
+    }
+
+    @Test
+    public void irregular_replacesTheBoxesByTheRegions() {
+        final ConstraintModel model = ConstraintModel.irregular(REGIONS);
+
+        assertThat(model.getHouseCount(), is(27));
+        assertThat(model.positionsOfHouse(18), equalTo(new int[]{0, 1, 2, 9, 10, 11, 18, 19, 27}));
+        assertThat(model.positionsOfHouse(21), equalTo(new int[]{20, 28, 29, 36, 37, 38, 45, 46, 47}));
+        assertThat(model.housesOf(20), equalTo(new int[]{2, 11, 21}));
+    }
+
+    @Test
+    public void irregular_throwsSudokuFormatExceptionForInvalidRegions() {
+        assertThrows(SudokuFormatException.class, () -> ConstraintModel.irregular(REGIONS.substring(1)));
+        assertThrows(SudokuFormatException.class, () -> ConstraintModel.irregular("2" + REGIONS.substring(1)));
+        assertThrows(SudokuFormatException.class, () -> ConstraintModel.irregular("0" + REGIONS.substring(1)));
+    }
+
+    @Test
+    public void isValid_checksTheAdditionalHouses() {
+        // Valid classic sudoku with a duplicate 5 on the main diagonal
+        final Sudoku sudoku = Sudoku.fromString("721349685869125437435768921342851769197634258658972143916483572573216894284597316");
+
+        assertThat(ConstraintModel.CLASSIC.isValid(sudoku), is(true));
+        assertThat(ConstraintModel.WINDOKU.isValid(sudoku), is(true));
+        assertThat(ConstraintModel.X_SUDOKU.isValid(sudoku), is(false));
+    }
+}
@@ -0,0 +1,90 @@
+package de.tilmanschweitzer.sudoku.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedSudokuTest {
+
+    final String unsolvedSudokuAsString = "070000043040009610800634900094052000358460020000800530080070091902100005007040802";
+    final String solvedSudokuAsString = "679518243543729618821634957794352186358461729216897534485276391962183475137945862";
+
+    Sudoku unsolvedSudoku;
+    Sudoku solvedSudoku;
+
+    @BeforeEach
+    public void setup() {
+        unsolvedSudoku = Sudoku.fromString(unsolvedSudokuAsString);
+        solvedSudoku = Sudoku.fromString(solvedSudokuAsString);
+    }
+
+    @Test
+    public void of_convertsSudokuAndBack() {
+        assertThat(PackedSudoku.of(unsolvedSudoku).toSudoku(), equalTo(unsolvedSudoku));
+        assertThat(PackedSudoku.of(solvedSudoku).toSudoku(), equalTo(solvedSudoku));
+    }
+
+    @Test
+    public void fromString_equalsPackedSudoku() {
+        assertThat(PackedSudoku.fromString(solvedSudokuAsString), equalTo(PackedSudoku.of(solvedSudoku)));
+        assertThat(PackedSudoku.fromString(solvedSudokuAsString).hashCode(), is(PackedSudoku.of(solvedSudoku).hashCode()));
+    }
+
+    @Test
+    public void fromString_throwsExceptionForInvalidInput() {
+        assertThrows(SudokuFormatException.class, () -> PackedSudoku.fromString(solvedSudokuAsString.substring(1)));
+        assertThrows(SudokuFormatException.class, () -> PackedSudoku.fromString(solvedSudokuAsString.replace('9', 'x')));
+    }
+
+    @Test
+    public void toString_returnsValuesAsDigits() {
+        assertThat(PackedSudoku.of(unsolvedSudoku).toString(), is(unsolvedSudokuAsString));
+    }
+
+    @Test
+    public void getValue_returnsValuesOfAllPositions() {
+        final PackedSudoku packedSudoku = PackedSudoku.of(solvedSudoku);
+        for (SudokuPosition position : SudokuPosition.allPositions) {
+            assertThat(packedSudoku.getValueForPosition(position), is(solvedSudoku.getValueForPosition(position)));
+        }
+    }
+
+    @Test
+    public void equals_differsForSingleChangedValue() {
+        final Sudoku modified = Sudoku.fromSudoku(solvedSudoku);
+        modified.setValueForPosition(SudokuPosition.of(8, 8), 0);
+
+        assertThat(PackedSudoku.of(modified), not(equalTo(PackedSudoku.of(solvedSudoku))));
+        assertThat(PackedSudoku.of(modified).fingerprint(), not(PackedSudoku.of(solvedSudoku).fingerprint()));
+    }
+
+    @Test
+    public void compareTo_comparesLexicographically() {
+        final PackedSudoku empty = PackedSudoku.of(Sudoku.empty());
+        final PackedSudoku lastValueSet = PackedSudoku.fromString("0".repeat(80) + "9");
+        final PackedSudoku firstValueSet = PackedSudoku.fromString("1" + "0".repeat(80));
+        final PackedSudoku firstValueNine = PackedSudoku.fromString("9" + "0".repeat(80));
+
+        assertThat(empty.compareTo(lastValueSet), lessThan(0));
+        assertThat(lastValueSet.compareTo(firstValueSet), lessThan(0));
+        assertThat(firstValueSet.compareTo(firstValueNine), lessThan(0));
+        assertThat(firstValueNine.compareTo(empty), greaterThan(0));
+        assertThat(firstValueNine.compareTo(PackedSudoku.fromString("9" + "0".repeat(80))), is(0));
+    }
+
+    @Test
+    public void hashCode_canBeUsedInHashSets() {
+        final Set<PackedSudoku> set = new HashSet<>();
+        set.add(PackedSudoku.of(solvedSudoku));
+        set.add(PackedSudoku.fromString(solvedSudokuAsString));
+        set.add(PackedSudoku.of(unsolvedSudoku));
+
+        assertThat(set.size(), is(2));
+    }
+}
@@ -4,9 +4,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.stream.Collectors.toSet;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -117,4 +120,36 @@ class SudokuPositionTest {
         assertFalse(SudokuPosition.of(0, 0).sharesSameHouse(SudokuPosition.of(8, 8)));
         assertFalse(SudokuPosition.of(0, 0).sharesSameHouse(SudokuPosition.of(3, 1)));
     }
+
+    @Test
+    public void rowOfColOfBoxOf_matchPositionGetters() {
+        for (SudokuPosition position : SudokuPosition.allPositions) {
+            assertEquals(position.getRow(), SudokuPosition.rowOf(position.getIndex()));
+            assertEquals(position.getCol(), SudokuPosition.colOf(position.getIndex()));
+            assertEquals(position.getBox(), SudokuPosition.boxOf(position.getIndex()));
+        }
+    }
+
+    @Test
+    public void peersOf_matchesPositionsToBeRuledOut() {
+        for (SudokuPosition position : SudokuPosition.allPositions) {
+            final Set<Integer> expectedPeers = position.getPositionsToBeRuledOut().stream().map(SudokuPosition::getIndex).collect(toSet());
+            final int[] peers = SudokuPosition.peersOf(position.getIndex());
+
+            assertEquals(SudokuPosition.PEER_COUNT, peers.length);
+            assertEquals(expectedPeers, Arrays.stream(peers).boxed().collect(toSet()));
+        }
+    }
+
+    @Test
+    public void positionsOfHouse_returnsRowsColumnsAndBoxes() {
+        assertArrayEquals(new int[]{27, 28, 29, 30, 31, 32, 33, 34, 35}, SudokuPosition.positionsOfHouse(3));
+        assertArrayEquals(new int[]{7, 16, 25, 34, 43, 52, 61, 70, 79}, SudokuPosition.positionsOfHouse(9 + 7));
+        assertArrayEquals(new int[]{33, 34, 35, 42, 43, 44, 51, 52, 53}, SudokuPosition.positionsOfHouse(18 + 5));
+    }
+
+    @Test
+    public void housesOf_returnsRowColumnAndBoxHouse() {
+        assertArrayEquals(new int[]{3, 9 + 7, 18 + 5}, SudokuPosition.housesOf(SudokuPosition.of(3, 7).getIndex()));
+    }
 }
@@ -0,0 +1,98 @@
+package de.tilmanschweitzer.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class SudokuSymmetryTest {
+
+    final PackedSudoku unsolvedSudokuA = PackedSudoku.fromString("070000043040009610800634900094052000358460020000800530080070091902100005007040802");
+    final PackedSudoku solvedSudokuA = PackedSudoku.fromString("679518243543729618821634957794352186358461729216897534485276391962183475137945862");
+    final PackedSudoku unsolvedSudokuB = PackedSudoku.fromString("301086504046521070500000001400800002080347900009050038004090200008734090007208103");
+
+    @ParameterizedTest(name = "canonicalize returns the same form for random variant with seed {arguments}")
+    @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10})
+    public void canonicalize_returnsSameFormForVariants(long seed) {
+        final Random random = new Random(seed);
+
+        assertThat(SudokuSymmetry.canonicalize(randomVariant(unsolvedSudokuA, random)), equalTo(SudokuSymmetry.canonicalize(unsolvedSudokuA)));
+        assertThat(SudokuSymmetry.canonicalize(randomVariant(solvedSudokuA, random)), equalTo(SudokuSymmetry.canonicalize(solvedSudokuA)));
+    }
+
+    @Test
+    public void canonicalize_returnsDifferentFormsForDifferentSudokus() {
+        assertThat(SudokuSymmetry.canonicalize(unsolvedSudokuA), not(equalTo(SudokuSymmetry.canonicalize(unsolvedSudokuB))));
+    }
+
+    @Test
+    public void canonicalize_isIdempotent() {
+        final PackedSudoku canonicalForm = SudokuSymmetry.canonicalize(unsolvedSudokuA);
+
+        assertThat(SudokuSymmetry.canonicalize(canonicalForm), equalTo(canonicalForm));
+    }
+
+    @Test
+    public void canonicalize_keepsValidityAndNumberOfValues() {
+        final Sudoku canonicalForm = SudokuSymmetry.canonicalize(solvedSudokuA).toSudoku();
+
+        assertThat(canonicalForm.isValid(), is(true));
+        assertThat(canonicalForm.isCompleted(), is(true));
+        assertThat(countValues(SudokuSymmetry.canonicalize(unsolvedSudokuA)), is(countValues(unsolvedSudokuA)));
+    }
+
+    @Test
+    public void canonicalize_returnsEmptySudokuForEmptySudoku() {
+        final PackedSudoku emptySudoku = PackedSudoku.of(Sudoku.empty());
+
+        assertThat(SudokuSymmetry.canonicalize(emptySudoku), equalTo(emptySudoku));
+    }
+
+    private static long countValues(PackedSudoku sudoku) {
+        return IntStream.of(sudoku.toValues()).filter(SudokuUtils::isValidValue).count();
+    }
+
+    private static PackedSudoku randomVariant(PackedSudoku sudoku, Random random) {
+        final List<Integer> rowOrder = randomLineOrder(random);
+        final List<Integer> colOrder = randomLineOrder(random);
+        final List<Integer> labels = IntStream.rangeClosed(1, 9).boxed().collect(Collectors.toList());
+        Collections.shuffle(labels, random);
+        final boolean transpose = random.nextBoolean();
+
+        final int[] values = sudoku.toValues();
+        final int[] variant = new int[81];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                final int sourceIndex = transpose
+                        ? colOrder.get(col) * 9 + rowOrder.get(row)
+                        : rowOrder.get(row) * 9 + colOrder.get(col);
+                final int value = values[sourceIndex];
+                variant[row * 9 + col] = value == 0 ? 0 : labels.get(value - 1);
+            }
+        }
+        return PackedSudoku.ofValues(variant);
+    }
+
+    private static List<Integer> randomLineOrder(Random random) {
+        final List<Integer> bands = new ArrayList<>(List.of(0, 1, 2));
+        Collections.shuffle(bands, random);
+        final List<Integer> lineOrder = new ArrayList<>();
+        for (int band : bands) {
+            final List<Integer> lines = new ArrayList<>(List.of(band * 3, band * 3 + 1, band * 3 + 2));
+            Collections.shuffle(lines, random);
+            lineOrder.addAll(lines);
+        }
+        return lineOrder;
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static de.tilmanschweitzer.sudoku.AllocationBudget.assertAllocatesAtMost;
+import static de.tilmanschweitzer.sudoku.AllocationBudget.samplePuzzles;
+import static de.tilmanschweitzer.sudoku.AllocationBudget.sampleSolutions;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -163,4 +166,33 @@ class SudokuTest {
     public void equals_testSudokuNotEqualsOtherClass() {
         assertFalse(testSudoku.equals(new Object()));
     }
+
+    @Test
+    public void hashCode_equalForEqualSudokus() {
+        final Sudoku clone = Sudoku.fromSudoku(testSudoku);
+        assertEquals(testSudoku.hashCode(), clone.hashCode());
+    }
+
+    @Test
+    public void toCompactString_returnsStringAcceptedByFromString() {
+        final String compactString = testSudoku.toCompactString();
+
+        assertEquals("679518243543729618821634957794352186358461729216897534485276391962183475137945862", compactString);
+        assertEquals(testSudoku, Sudoku.fromString(compactString));
+    }
+
+    @Test
+    public void fromString_staysWithinAllocationBudget() {
+        assertAllocatesAtMost(12_000, samplePuzzles(), line -> Sudoku.fromString(line[0]));
+    }
+
+    @Test
+    public void isValid_staysWithinAllocationBudget() {
+        assertAllocatesAtMost(54_000, sampleSolutions(), Sudoku::isValid);
+    }
+
+    @Test
+    public void isCompleted_staysWithinAllocationBudget() {
+        assertAllocatesAtMost(512, sampleSolutions(), Sudoku::isCompleted);
+    }
 }
@@ -0,0 +1,78 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class AdaptiveSudokuSolverTest {
+
+    final AtomicInteger searchCalls = new AtomicInteger();
+    final SudokuSolver countingSearchSolver = sudoku -> {
+        searchCalls.incrementAndGet();
+        return new BacktrackingSudokuSolver().solve(sudoku);
+    };
+
+    Sudoku unsolvedSudokuLevel1;
+    Sudoku solvedSudokuLevel1;
+
+    Sudoku unsolvedSudokuNextChallenge;
+    Sudoku solvedSudokuNextChallenge;
+
+    @BeforeEach
+    public void setup() {
+        unsolvedSudokuLevel1 = Sudoku.fromString("000003610000015007000008090086000700030800100500120309005060904060900530403701008");
+        solvedSudokuLevel1 = Sudoku.fromString("728493615349615827651278493186539742932847156574126389815362974267984531493751268");
+
+        // Not solvable by the DeductiveSudokuSolver alone
+        unsolvedSudokuNextChallenge = Sudoku.fromString("000002534000010280200034000020000740906000300140203000708000001300009600460070803");
+        solvedSudokuNextChallenge = Sudoku.fromString("671892534534617289289534176823961745956748312147253968798326451315489627462175893");
+    }
+
+    @Test
+    public void solve_solvesEasySudokuByDeductionWithoutSearch() {
+        final AdaptiveSudokuSolver sudokuSolver = new AdaptiveSudokuSolver(countingSearchSolver, SelectionThresholds.ALWAYS_DEDUCE);
+
+        assertThat(sudokuSolver.solve(unsolvedSudokuLevel1), equalTo(solvedSudokuLevel1));
+        assertThat(searchCalls.get(), is(0));
+    }
+
+    @Test
+    public void solve_continuesWithSearchIfDeductionGetsStuck() {
+        final AdaptiveSudokuSolver sudokuSolver = new AdaptiveSudokuSolver(countingSearchSolver, SelectionThresholds.ALWAYS_DEDUCE);
+
+        assertThat(sudokuSolver.solve(unsolvedSudokuNextChallenge), equalTo(solvedSudokuNextChallenge));
+        assertThat(searchCalls.get(), is(1));
+    }
+
+    @Test
+    public void solve_goesStraightToSearchForHardSudoku() {
+        final AdaptiveSudokuSolver sudokuSolver = new AdaptiveSudokuSolver(countingSearchSolver, new SelectionThresholds(30, Integer.MAX_VALUE, Integer.MAX_VALUE));
+
+        assertThat(sudokuSolver.solve(unsolvedSudokuNextChallenge), equalTo(solvedSudokuNextChallenge));
+        assertThat(searchCalls.get(), is(1));
+    }
+
+    @Test
+    public void solveWithLimits_solvesSudokuWithSearchAfterDeduction() {
+        final AdaptiveSudokuSolver sudokuSolver = new AdaptiveSudokuSolver(new PropagatingSudokuSolver(), SelectionThresholds.ALWAYS_DEDUCE);
+
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuNextChallenge, SolveLimits.NONE);
+
+        assertThat(result.getStatus(), is(SolveResult.Status.SOLVED));
+        assertThat(result.getSudoku(), equalTo(solvedSudokuNextChallenge));
+    }
+
+    @Test
+    public void withDefaultThresholds_readsCalibratedThresholds() {
+        final AdaptiveSudokuSolver sudokuSolver = AdaptiveSudokuSolver.withDefaultThresholds(new BacktrackingSudokuSolver());
+
+        assertThat(sudokuSolver.getThresholds().getMinClues(), not(SelectionThresholds.ALWAYS_DEDUCE.getMinClues()));
+    }
+}
@@ -5,13 +5,22 @@ import de.tilmanschweitzer.sudoku.model.SudokuPosition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+import static de.tilmanschweitzer.sudoku.AllocationBudget.assertAllocatesAtMost;
+import static de.tilmanschweitzer.sudoku.AllocationBudget.sampleSudokus;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
-
 class BacktrackingSudokuSolverTest {
     final BacktrackingSudokuSolver sudokuSolver = new BacktrackingSudokuSolver();
 
@@ -89,4 +98,105 @@ class BacktrackingSudokuSolverTest {
 
         assertThat(solutions.size(), is(4));
     }
+
+    @Test
+    public void streamSolutions_findsTheSolutionsInTheOrderOfFindSolutions() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,5), 0);
+
+        final List<Sudoku> solutions = sudokuSolver.streamSolutions(unsolvedSudokuA).collect(toList());
+
+        assertThat(solutions, equalTo(sudokuSolver.findSolutions(unsolvedSudokuA)));
+    }
+
+    @Test
+    public void streamSolutions_findsNoSolutionsForUnsolvableSudoku() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,0), 9);
+
+        assertThat(sudokuSolver.streamSolutions(unsolvedSudokuA).collect(toList()), is(empty()));
+    }
+
+    @Test
+    public void streamSolutions_returnsACompletedSudoku() {
+        assertThat(sudokuSolver.streamSolutions(solvedSudokuA).collect(toList()), contains(solvedSudokuA));
+    }
+
+    @Test
+    public void streamSolutions_onlySearchesAsFarAsConsumed() {
+        final Iterator<Sudoku> solutions = sudokuSolver.streamSolutions(Sudoku.empty()).iterator();
+
+        for (int i = 0; i < 1000; i++) {
+            final Sudoku solution = solutions.next();
+            assertTrue(solution.isCompleted() && solution.isValid());
+        }
+    }
+
+    @Test
+    public void streamSolutions_findsTheSameSolutionsInParallel() {
+        final Sudoku sparseSudoku = Sudoku.fromString("000000000000015007000008090086000700030800100500120309005060904060900530403701008");
+        final List<Sudoku> sequentialSolutions = sudokuSolver.streamSolutions(sparseSudoku).collect(toList());
+
+        final List<Sudoku> parallelSolutions = sudokuSolver.streamSolutions(sparseSudoku).parallel().collect(toList());
+
+        assertThat(sequentialSolutions.size(), greaterThan(1));
+        assertThat(parallelSolutions, equalTo(sequentialSolutions));
+        assertThat(Set.copyOf(parallelSolutions).size(), is(sequentialSolutions.size()));
+    }
+
+    @Test
+    public void streamSolutions_limitsTheParallelSearch() {
+        final Set<Sudoku> solutions = sudokuSolver.streamSolutions(Sudoku.empty()).parallel().unordered()
+                .limit(500)
+                .collect(toSet());
+
+        assertThat(solutions.size(), is(500));
+    }
+
+    @Test
+    public void solveWithLimits_solvesTheSudokuA() {
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuA, SolveLimits.NONE);
+
+        assertThat(result.getStatus(), is(SolveResult.Status.SOLVED));
+        assertThat(result.getSudoku(), equalTo(solvedSudokuA));
+        assertThat(result.getNodes(), greaterThan(0L));
+    }
+
+    @Test
+    public void solveWithLimits_stopsAtNodeLimit() {
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuA, SolveLimits.NONE.withMaxNodes(10));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.NODE_LIMIT_EXCEEDED));
+        assertThat(result.getNodes(), is(11L));
+        assertThat(result.getSudoku(), equalTo(unsolvedSudokuA));
+    }
+
+    @Test
+    public void solveWithLimits_stopsWhenCancelled() {
+        final CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuA, SolveLimits.NONE.withCancellationToken(cancellationToken));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.CANCELLED));
+    }
+
+    @Test
+    public void solveWithLimits_stopsAtDeadline() {
+        final SolveResult result = sudokuSolver.solve(Sudoku.empty(), SolveLimits.NONE.withTimeout(Duration.ZERO));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.DEADLINE_EXCEEDED));
+    }
+
+    @Test
+    public void solveWithLimits_failsForAmbiguousSudoku() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,5), 0);
+
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuA, SolveLimits.NONE);
+
+        assertThat(result.getStatus(), is(SolveResult.Status.FAILED));
+    }
+
+    @Test
+    public void solve_staysWithinAllocationBudget() {
+        assertAllocatesAtMost(7_000, sampleSudokus(), sudokuSolver::solve);
+    }
 }
@@ -1,5 +1,6 @@
 package de.tilmanschweitzer.sudoku.solver;
 
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
 import de.tilmanschweitzer.sudoku.model.Sudoku;
 import de.tilmanschweitzer.sudoku.model.SudokuPosition;
 import net.bytebuddy.implementation.bind.annotation.IgnoreForBinding;
@@ -7,6 +8,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import static de.tilmanschweitzer.sudoku.AllocationBudget.assertAllocatesAtMost;
+import static de.tilmanschweitzer.sudoku.AllocationBudget.sampleSudokus;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
@@ -137,4 +140,62 @@ class DeductiveSudokuSolverTest {
         });
     }
 
+    @Test
+    public void solveWithLimits_solvesTheSudokuLevel3NextChallengeWithFallback() {
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuLevel3NextChallenge, SolveLimits.NONE.withMaxNodes(1_000_000));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.SOLVED));
+        assertThat(result.getSudoku(), equalTo(solvedSudokuLevel3NextChallenge));
+    }
+
+    @Test
+    public void solveWithLimits_stopsWhenCancelled() {
+        final CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuLevel1, SolveLimits.NONE.withCancellationToken(cancellationToken));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.CANCELLED));
+        assertThat(result.getSudoku(), equalTo(unsolvedSudokuLevel1));
+    }
+
+    @Test
+    public void solveWithLimits_returnsUnsolvedWithoutFallback() {
+        final SolveResult result = DeductiveSudokuSolver.withFailWhenUnsolved(false).solve(Sudoku.empty(), SolveLimits.NONE);
+
+        assertThat(result.getStatus(), is(SolveResult.Status.UNSOLVED));
+    }
+
+    @Test
+    public void solveWithLimits_deducesVariantsWithTheirHouses() {
+        final DeductiveSudokuSolver classicSolver = DeductiveSudokuSolver.withFailWhenUnsolved(false);
+        final Sudoku xSudoku = Sudoku.fromString("000005000000000000000093000000000700015308002204007510008000000000000000006000301");
+        final Sudoku windoku = Sudoku.fromString("000000080800120000005000900340000700007000000000000000006003000070200000000000310");
+        final Sudoku irregularSudoku = Sudoku.fromString("004000100005200300000090076200500030006040000070000600000000200000010900093780000");
+        final ConstraintModel irregularModel = ConstraintModel.irregular("111222333111222333114222333144555566444555666444556666778888999777888999777788999");
+
+        assertThat(classicSolver.withConstraintModel(ConstraintModel.X_SUDOKU).solve(xSudoku, SolveLimits.NONE).getSudoku(),
+                equalTo(Sudoku.fromString("381475296497621835652893174869512743715348962234967518928134657173256489546789321")));
+        assertThat(classicSolver.withConstraintModel(ConstraintModel.WINDOKU).solve(windoku, SolveLimits.NONE).getSudoku(),
+                equalTo(Sudoku.fromString("721349685869125437435768921342851769197634258658972143916483572573216894284597316")));
+        assertThat(classicSolver.withConstraintModel(irregularModel).solve(irregularSudoku, SolveLimits.NONE).getSudoku(),
+                equalTo(Sudoku.fromString("784635192965271348132894576241567839856349721379128654417956283528413967693782415")));
+        assertThat(classicSolver.solve(xSudoku, SolveLimits.NONE).getStatus(), is(SolveResult.Status.UNSOLVED));
+    }
+
+    @Test
+    public void solveWithLimits_failsIfTheFallbackSolutionBreaksAHouseOfTheModel() {
+        // A classic solution with two 4s on the main diagonal
+        final Sudoku classicSolution = Sudoku.fromString("728493615349615827651278493186539742932847156574126389815362974267984531493751268");
+        final DeductiveSudokuSolver xSudokuSolver = DeductiveSudokuSolver.createWithFallbackSolver(sudoku -> classicSolution)
+                .withConstraintModel(ConstraintModel.X_SUDOKU);
+
+        assertThat(xSudokuSolver.solve(Sudoku.empty(), SolveLimits.NONE).getStatus(), is(SolveResult.Status.FAILED));
+        assertThrows(RuntimeException.class, () -> xSudokuSolver.solve(Sudoku.empty()));
+    }
+
+    @Test
+    public void solve_staysWithinAllocationBudget() {
+        assertAllocatesAtMost(80_000, sampleSudokus(), sudokuSolver::solve);
+    }
 }
@@ -0,0 +1,169 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PortfolioSudokuSolverTest {
+
+    Sudoku unsolvedSudokuA;
+    Sudoku solvedSudokuA;
+
+    @BeforeEach
+    public void setup() {
+        unsolvedSudokuA = Sudoku.fromString("000003610000015007000008090086000700030800100500120309005060904060900530403701008");
+        solvedSudokuA = Sudoku.fromString("728493615349615827651278493186539742932847156574126389815362974267984531493751268");
+    }
+
+    @Test
+    public void solve_returnsSolutionOfFasterSolverAndCancelsTheOthers() {
+        final CancellationAwareSolver slowSolver = new CancellationAwareSolver();
+        final SudokuSolver fastSolver = sudoku -> {
+            awaitUninterruptibly(slowSolver.started);
+            return new PropagatingSudokuSolver().solve(sudoku);
+        };
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(slowSolver, fastSolver);
+
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuA, SolveLimits.NONE);
+
+        assertThat(result.getStatus(), is(SolveResult.Status.SOLVED));
+        assertThat(result.getSudoku(), equalTo(solvedSudokuA));
+        assertThat(slowSolver.wasCancelled, is(true));
+    }
+
+    @Test
+    public void solve_ignoresSolutionsThatAreNotValid() {
+        final SudokuSolver wrongSolver = sudoku -> Sudoku.fromString("123456789123456789123456789123456789123456789123456789123456789123456789123456789");
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(wrongSolver, new BacktrackingSudokuSolver());
+
+        assertThat(sudokuSolver.solve(unsolvedSudokuA), equalTo(solvedSudokuA));
+    }
+
+    @Test
+    public void solve_verifiesSolutionsWithTheHousesOfTheModel() {
+        final Sudoku xSudoku = Sudoku.fromString("000005000000000000000093000000000700015308002204007510008000000000000000006000301");
+        final Sudoku solvedXSudoku = Sudoku.fromString("381475296497621835652893174869512743715348962234967518928134657173256489546789321");
+        // Classic houses only, so it may ignore the diagonals
+        final SudokuSolver classicSolver = sudoku -> new PropagatingSudokuSolver().findSolutions(sudoku, 1).get(0);
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(classicSolver, new PropagatingSudokuSolver(ConstraintModel.X_SUDOKU))
+                .withConstraintModel(ConstraintModel.X_SUDOKU);
+
+        assertThat(ConstraintModel.X_SUDOKU.isValid(classicSolver.solve(xSudoku)), is(false));
+        assertThat(sudokuSolver.solve(xSudoku), equalTo(solvedXSudoku));
+    }
+
+    @Test
+    public void solve_doesNotStartHedgedSolversIfTheFirstSolverIsFastEnough() {
+        final AtomicInteger backupCalls = new AtomicInteger();
+        final SudokuSolver backupSolver = sudoku -> {
+            backupCalls.incrementAndGet();
+            return new BacktrackingSudokuSolver().solve(sudoku);
+        };
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(new PropagatingSudokuSolver(), backupSolver)
+                .withHedgingDelay(Duration.ofMillis(50));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(sudokuSolver.solve(unsolvedSudokuA), equalTo(solvedSudokuA));
+        }
+
+        assertThat(backupCalls.get(), is(0));
+    }
+
+    @Test
+    public void solve_startsHedgedSolversAfterTheDelay() {
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(new CancellationAwareSolver(), new PropagatingSudokuSolver())
+                .withHedgingDelay(Duration.ofMillis(10));
+
+        assertThat(sudokuSolver.solve(unsolvedSudokuA), equalTo(solvedSudokuA));
+    }
+
+    @Test
+    public void solve_keepsTheFirstSolverRunningWhenHedging() {
+        final AtomicInteger primaryCalls = new AtomicInteger();
+        final SudokuSolver slowPrimarySolver = sudoku -> {
+            primaryCalls.incrementAndGet();
+            sleepUninterruptibly(Duration.ofMillis(50));
+            return new PropagatingSudokuSolver().solve(sudoku);
+        };
+        final CancellationAwareSolver backupSolver = new CancellationAwareSolver();
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(slowPrimarySolver, backupSolver)
+                .withHedgingDelay(Duration.ofMillis(10));
+
+        assertThat(sudokuSolver.solve(unsolvedSudokuA), equalTo(solvedSudokuA));
+        assertThat(primaryCalls.get(), is(1));
+        assertThat(backupSolver.wasCancelled, is(true));
+    }
+
+    @Test
+    public void solve_throwsRuntimeExceptionIfNoSolverFindsASolution() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,0), 9);
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(new PropagatingSudokuSolver(), new BacktrackingSudokuSolver());
+
+        assertThrows(RuntimeException.class, () -> {
+            sudokuSolver.solve(unsolvedSudokuA);
+        });
+    }
+
+    @Test
+    public void solveWithLimits_stopsAllSolversWhenCallerCancels() {
+        final CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+        final PortfolioSudokuSolver sudokuSolver = PortfolioSudokuSolver.racing(new CancellationAwareSolver(), new CancellationAwareSolver());
+
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuA, SolveLimits.NONE.withCancellationToken(cancellationToken));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.CANCELLED));
+    }
+
+    /*
+     * Never finds a solution, only returns when cancelled or at the deadline
+     */
+    static class CancellationAwareSolver implements SudokuSolver {
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile boolean wasCancelled;
+
+        @Override
+        public Sudoku solve(Sudoku sudoku) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SolveResult solve(Sudoku sudoku, SolveLimits limits) {
+            started.countDown();
+            Optional<SolveResult.Status> exceededLimit;
+            while ((exceededLimit = limits.findExceededLimit()).isEmpty()) {
+                Thread.onSpinWait();
+            }
+            wasCancelled = exceededLimit.get() == SolveResult.Status.CANCELLED;
+            return SolveResult.of(exceededLimit.get(), sudoku, 0);
+        }
+    }
+
+    static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void sleepUninterruptibly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
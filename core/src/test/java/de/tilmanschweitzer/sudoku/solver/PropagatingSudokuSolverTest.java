@@ -0,0 +1,176 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PropagatingSudokuSolverTest {
+    final PropagatingSudokuSolver sudokuSolver = new PropagatingSudokuSolver();
+
+    Sudoku unsolvedSudokuA;
+    Sudoku solvedSudokuA;
+
+    Sudoku unsolvedSudokuNextChallenge;
+    Sudoku solvedSudokuNextChallenge;
+
+    Sudoku unsolvedSudokuHard;
+    Sudoku solvedSudokuHard;
+
+    @BeforeEach
+    public void setup() {
+        unsolvedSudokuA = Sudoku.fromString("000003610000015007000008090086000700030800100500120309005060904060900530403701008");
+        solvedSudokuA = Sudoku.fromString("728493615349615827651278493186539742932847156574126389815362974267984531493751268");
+
+        // Not solvable by the DeductiveSudokuSolver alone
+        unsolvedSudokuNextChallenge = Sudoku.fromString("000002534000010280200034000020000740906000300140203000708000001300009600460070803");
+        solvedSudokuNextChallenge = Sudoku.fromString("671892534534617289289534176823961745956748312147253968798326451315489627462175893");
+
+        // Needs deep search
+        unsolvedSudokuHard = Sudoku.fromString("100007090030020008009600500005300900010080002600004000300000010040000007007000300");
+        solvedSudokuHard = Sudoku.fromString("162857493534129678789643521475312986913586742628794135356478219241935867897261354");
+    }
+
+    @Test
+    public void solve_doesNotChangeTheInitialSudoku() {
+        final Sudoku copy = Sudoku.fromSudoku(unsolvedSudokuA);
+
+        sudokuSolver.solve(unsolvedSudokuA);
+
+        assertThat(unsolvedSudokuA, equalTo(copy));
+    }
+
+    @Test
+    public void solve_solvesTheSudokuA() {
+        final Sudoku result = sudokuSolver.solve(unsolvedSudokuA);
+
+        assertThat(result, equalTo(solvedSudokuA));
+    }
+
+    @Test
+    public void solve_solvesTheSudokuNextChallenge() {
+        final Sudoku result = sudokuSolver.solve(unsolvedSudokuNextChallenge);
+
+        assertThat(result, equalTo(solvedSudokuNextChallenge));
+    }
+
+    @Test
+    public void solve_solvesTheSudokuHard() {
+        final Sudoku result = sudokuSolver.solve(unsolvedSudokuHard);
+
+        assertThat(result, equalTo(solvedSudokuHard));
+    }
+
+    @Test
+    public void solve_throwsRuntimeExceptionIfTheSudokuIsNotSolvable() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,0), 9);
+
+        assertThrows(RuntimeException.class, () -> {
+            sudokuSolver.solve(unsolvedSudokuA);
+        });
+    }
+
+    @Test
+    public void solve_throwsRuntimeExceptionIfTheSudokuHasMultipleSolutions() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,5), 0);
+
+        assertThrows(RuntimeException.class, () -> {
+            sudokuSolver.solve(unsolvedSudokuA);
+        });
+    }
+
+    @Test
+    public void solve_throwsRuntimeExceptionIfTheSudokuHasDuplicateValues() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,0), 3);
+
+        assertThrows(RuntimeException.class, () -> {
+            sudokuSolver.solve(unsolvedSudokuA);
+        });
+    }
+
+    @Test
+    public void findSolutions_findsNoSolutionsForUnsolvableSudoku() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,0), 9);
+
+        final List<Sudoku> solutions = sudokuSolver.findSolutions(unsolvedSudokuA, 10);
+
+        assertThat(solutions.size(), is(0));
+    }
+
+    @Test
+    public void findSolutions_findsAllSolutionsForAmbiguousSudoku() {
+        unsolvedSudokuA.setValueForPosition(SudokuPosition.of(0,5), 0);
+
+        final List<Sudoku> solutions = sudokuSolver.findSolutions(unsolvedSudokuA, 10);
+
+        assertThat(solutions.size(), is(4));
+    }
+
+    @Test
+    public void findSolutions_stopsAtMaxSolutions() {
+        final List<Sudoku> solutions = sudokuSolver.findSolutions(Sudoku.empty(), 3);
+
+        assertThat(solutions.size(), is(3));
+        solutions.forEach(solution -> assertThat(solution.isCompleted() && solution.isValid(), is(true)));
+    }
+
+    @Test
+    public void solveWithLimits_solvesTheSudokuHard() {
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuHard, SolveLimits.NONE.withTimeout(Duration.ofMinutes(1)));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.SOLVED));
+        assertThat(result.getSudoku(), equalTo(solvedSudokuHard));
+    }
+
+    @Test
+    public void solveWithLimits_returnsDeducedValuesAtNodeLimit() {
+        final SolveResult result = sudokuSolver.solve(unsolvedSudokuHard, SolveLimits.NONE.withMaxNodes(1));
+
+        assertThat(result.getStatus(), is(SolveResult.Status.NODE_LIMIT_EXCEEDED));
+        assertThat(result.getSudoku().isCompleted(), is(false));
+        for (SudokuPosition position : SudokuPosition.allPositions) {
+            final int value = result.getSudoku().getValueForPosition(position);
+            assertThat(value == 0 || value == solvedSudokuHard.getValueForPosition(position), is(true));
+        }
+    }
+
+    @Test
+    public void solve_solvesXSudoku() {
+        final Sudoku sudoku = Sudoku.fromString("301000000000600000000003070860502000000000960030000500000000600070000409000700000");
+
+        final Sudoku result = new PropagatingSudokuSolver(ConstraintModel.X_SUDOKU).solve(sudoku);
+
+        assertThat(result, equalTo(Sudoku.fromString("381475296497621835652893174869512743715348962234967518928134657173256489546789321")));
+        assertThat(sudokuSolver.findSolutions(sudoku, 2).size(), is(2));
+    }
+
+    @Test
+    public void solve_solvesWindoku() {
+        final Sudoku sudoku = Sudoku.fromString("700049000000005007430000000000000000000600208008000040000080072003000000000000000");
+
+        final Sudoku result = new PropagatingSudokuSolver(ConstraintModel.WINDOKU).solve(sudoku);
+
+        assertThat(result, equalTo(Sudoku.fromString("721349685869125437435768921342851769197634258658972143916483572573216894284597316")));
+        assertThat(sudokuSolver.findSolutions(sudoku, 2).size(), is(2));
+    }
+
+    @Test
+    public void solve_solvesIrregularSudoku() {
+        final ConstraintModel model = ConstraintModel.irregular("111222333111222333114222333144555566444555666444556666778888999777888999777788999");
+        final Sudoku sudoku = Sudoku.fromString("084000100000000308000090076001060039050049000000000000000050000000403000600702000");
+
+        final Sudoku result = new PropagatingSudokuSolver(model).solve(sudoku);
+
+        assertThat(result, equalTo(Sudoku.fromString("784635192965271348132894576241567839856349721379128654417956283528413967693782415")));
+        assertThat(sudokuSolver.findSolutions(sudoku, 2).size(), is(2));
+    }
+}
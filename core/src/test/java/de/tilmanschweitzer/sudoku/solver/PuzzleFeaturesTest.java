@@ -0,0 +1,44 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class PuzzleFeaturesTest {
+
+    @Test
+    public void of_computesFeaturesOfEmptySudoku() {
+        final PuzzleFeatures features = PuzzleFeatures.of(Sudoku.empty());
+
+        assertThat(features.isConsistent(), is(true));
+        assertThat(features.getClueCount(), is(0));
+        assertThat(features.getCandidateCount(), is(81 * 9));
+        assertThat(features.getDigitSpread(), is(0));
+    }
+
+    @Test
+    public void of_computesFeaturesOfSudoku() {
+        final Sudoku sudoku = Sudoku.empty();
+        sudoku.setValueForPosition(SudokuPosition.of(0, 0), 1);
+        sudoku.setValueForPosition(SudokuPosition.of(4, 4), 1);
+
+        final PuzzleFeatures features = PuzzleFeatures.of(sudoku);
+
+        assertThat(features.getClueCount(), is(2));
+        // Each value rules out 1 for its 20 peers, (0,4) and (4,0) are peers of both values
+        assertThat(features.getCandidateCount(), is(79 * 9 - (20 + 20 - 2)));
+        assertThat(features.getDigitSpread(), is(2));
+    }
+
+    @Test
+    public void of_detectsContradictingValues() {
+        final Sudoku sudoku = Sudoku.empty();
+        sudoku.setValueForPosition(SudokuPosition.of(0, 0), 1);
+        sudoku.setValueForPosition(SudokuPosition.of(0, 8), 1);
+
+        assertThat(PuzzleFeatures.of(sudoku).isConsistent(), is(false));
+    }
+}
@@ -0,0 +1,93 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.ConstraintModel;
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static de.tilmanschweitzer.sudoku.model.SudokuPosition.allPositions;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PuzzleMinimizerTest {
+
+    final Sudoku unsolvedSudoku = Sudoku.fromString("000003610000015007000008090086000700030800100500120309005060904060900530403701008");
+    final Sudoku solvedSudoku = Sudoku.fromString("728493615349615827651278493186539742932847156574126389815362974267984531493751268");
+
+    @Test
+    public void minimize_returnsAMinimalPuzzleOfTheSameSolution() {
+        final Sudoku minimized = new PuzzleMinimizer().minimize(solvedSudoku);
+
+        assertMinimal(minimized, solvedSudoku, ConstraintModel.CLASSIC);
+        assertThat(countGivens(minimized), lessThan(30L));
+    }
+
+    @Test
+    public void minimize_keepsOnlyGivensOfThePuzzle() {
+        final Sudoku minimized = new PuzzleMinimizer().minimize(unsolvedSudoku);
+
+        for (SudokuPosition position : allPositions) {
+            final int value = minimized.getValueForPosition(position);
+            assertThat(value == 0 || value == unsolvedSudoku.getValueForPosition(position), is(true));
+        }
+        assertMinimal(minimized, solvedSudoku, ConstraintModel.CLASSIC);
+    }
+
+    @Test
+    public void minimize_returnsTheSameResultForTheSameRandomOrder() {
+        final Sudoku minimized = new PuzzleMinimizer().minimize(solvedSudoku, new Random(7));
+
+        assertMinimal(minimized, solvedSudoku, ConstraintModel.CLASSIC);
+        assertThat(new PuzzleMinimizer().minimize(solvedSudoku, new Random(7)), equalTo(minimized));
+    }
+
+    @Test
+    public void minimize_keepsAMinimalPuzzle() {
+        final Sudoku minimized = new PuzzleMinimizer().minimize(solvedSudoku);
+
+        assertThat(new PuzzleMinimizer().minimize(minimized), equalTo(minimized));
+    }
+
+    @Test
+    public void minimize_usesTheHousesOfTheModel() {
+        final Sudoku solvedXSudoku = Sudoku.fromString("381475296497621835652893174869512743715348962234967518928134657173256489546789321");
+
+        final Sudoku minimized = new PuzzleMinimizer(ConstraintModel.X_SUDOKU).minimize(solvedXSudoku);
+
+        assertMinimal(minimized, solvedXSudoku, ConstraintModel.X_SUDOKU);
+    }
+
+    @Test
+    public void minimize_throwsIllegalArgumentExceptionWithoutUniqueSolution() {
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 4), 0);
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 5), 0);
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 6), 0);
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 7), 0);
+
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleMinimizer().minimize(unsolvedSudoku));
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleMinimizer().minimize(Sudoku.empty()));
+    }
+
+    private static void assertMinimal(Sudoku minimized, Sudoku solution, ConstraintModel model) {
+        final PropagatingSudokuSolver solver = new PropagatingSudokuSolver(model);
+        assertThat(solver.findSolutions(minimized, 2), equalTo(List.of(solution)));
+        for (SudokuPosition position : allPositions) {
+            final int value = minimized.getValueForPosition(position);
+            if (value != 0) {
+                minimized.setValueForPosition(position, 0);
+                assertThat(solver.findSolutions(minimized, 2).size(), is(2));
+                minimized.setValueForPosition(position, value);
+            }
+        }
+    }
+
+    private static long countGivens(Sudoku sudoku) {
+        return allPositions.stream().filter(position -> sudoku.getValueForPosition(position) != 0).count();
+    }
+}
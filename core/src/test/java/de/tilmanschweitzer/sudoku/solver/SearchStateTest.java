@@ -0,0 +1,83 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class SearchStateTest {
+
+    SearchState state;
+    Sudoku unsolvedSudoku;
+
+    @BeforeEach
+    public void setup() {
+        state = new SearchState();
+        unsolvedSudoku = Sudoku.fromString("000003610000015007000008090086000700030800100500120309005060904060900530403701008");
+    }
+
+    @Test
+    public void load_returnsTrueForValidSudoku() {
+        assertThat(state.load(unsolvedSudoku), is(true));
+        assertThat(state.toSudoku(), equalTo(unsolvedSudoku));
+    }
+
+    @Test
+    public void load_returnsFalseForDuplicateValues() {
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 0), 3);
+
+        assertThat(state.load(unsolvedSudoku), is(false));
+    }
+
+    @Test
+    public void load_rulesOutValuesOfPeers() {
+        state.load(unsolvedSudoku);
+
+        // Row 0 contains 3, 6 and 1; column 0 contains 5 and 4; box 0 contains no values
+        assertThat(state.getCandidates(0), is(0b111_000_010));
+    }
+
+    @Test
+    public void assign_returnsFalseIfValueIsNotPossible() {
+        state.load(unsolvedSudoku);
+
+        assertThat(state.assign(0, 3), is(false));
+    }
+
+    @Test
+    public void undo_restoresValuesAndCandidates() {
+        state.load(unsolvedSudoku);
+        final int mark = state.mark();
+        final int candidatesOfPeer = state.getCandidates(1);
+
+        state.assign(0, 2);
+        state.propagate();
+        assertThat(state.getValue(0), is(2));
+
+        state.undo(mark);
+        assertThat(state.getValue(0), is(0));
+        assertThat(state.getCandidates(1), is(candidatesOfPeer));
+        assertThat(state.toSudoku(), equalTo(unsolvedSudoku));
+    }
+
+    @Test
+    public void propagate_solvesSudokuThatNeedsNoGuessing() {
+        state.load(unsolvedSudoku);
+
+        assertThat(state.propagate(), is(true));
+        assertThat(state.findMostConstrainedPosition(), is(-1));
+        assertThat(state.toSudoku(), equalTo(Sudoku.fromString("728493615349615827651278493186539742932847156574126389815362974267984531493751268")));
+    }
+
+    @Test
+    public void findFirstOpenPosition_skipsSetPositions() {
+        state.load(unsolvedSudoku);
+
+        assertThat(state.findFirstOpenPosition(0), is(0));
+        assertThat(state.findFirstOpenPosition(5), is(8));
+    }
+}
@@ -0,0 +1,63 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import de.tilmanschweitzer.sudoku.model.SudokuPosition;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolutionCounterTest {
+
+    final Sudoku unsolvedSudoku = Sudoku.fromString("000003610000015007000008090086000700030800100500120309005060904060900530403701008");
+    final Sudoku solvedSudoku = Sudoku.fromString("728493615349615827651278493186539742932847156574126389815362974267984531493751268");
+    final Sudoku sparseSudoku = Sudoku.fromString("000000000000015007000008090086000700030800100500120309005060904060900530403701008");
+
+    @Test
+    public void count_returnsOneForAUniqueSudoku() {
+        assertThat(new SolutionCounter(1).count(unsolvedSudoku), is(BigInteger.ONE));
+    }
+
+    @Test
+    public void count_returnsOneForACompletedSudoku() {
+        assertThat(new SolutionCounter(4).count(solvedSudoku), is(BigInteger.ONE));
+    }
+
+    @Test
+    public void count_returnsZeroForContradictingGivens() {
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 0), 6);
+
+        assertThat(new SolutionCounter(4).count(unsolvedSudoku), is(BigInteger.ZERO));
+    }
+
+    @Test
+    public void count_returnsZeroForUnsolvableSudoku() {
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 0), 9);
+
+        assertThat(new SolutionCounter(4).count(unsolvedSudoku), is(BigInteger.ZERO));
+    }
+
+    @Test
+    public void count_matchesTheNumberOfSolutionsOfAnAmbiguousSudoku() {
+        unsolvedSudoku.setValueForPosition(SudokuPosition.of(0, 5), 0);
+
+        assertThat(new SolutionCounter(1).count(unsolvedSudoku), is(BigInteger.valueOf(4)));
+        assertThat(new SolutionCounter(4).count(unsolvedSudoku), is(BigInteger.valueOf(4)));
+    }
+
+    @Test
+    public void count_countsTheSameSolutionsInParallel() {
+        final long enumeratedSolutions = new BacktrackingSudokuSolver().streamSolutions(sparseSudoku).count();
+
+        assertThat(new SolutionCounter(1).count(sparseSudoku), is(BigInteger.valueOf(enumeratedSolutions)));
+        assertThat(new SolutionCounter(8).count(sparseSudoku), is(BigInteger.valueOf(enumeratedSolutions)));
+    }
+
+    @Test
+    public void constructor_rejectsZeroThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new SolutionCounter(0));
+    }
+}
@@ -0,0 +1,90 @@
+package de.tilmanschweitzer.sudoku.solver;
+
+import de.tilmanschweitzer.sudoku.model.Sudoku;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+class SolverEventsTest {
+
+    // Gets stuck in the deduction, so the fallback solver has to search
+    static final String HARD_PUZZLE = "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void solve_recordsSolveEventsOfNestedSolvers() throws IOException {
+        final List<RecordedEvent> events = record(() -> DeductiveSudokuSolver.createWithFallbackSolver(new BacktrackingSudokuSolver())
+                .solve(Sudoku.fromString(HARD_PUZZLE)));
+
+        final List<RecordedEvent> solveEvents = eventsNamed(events, "de.tilmanschweitzer.sudoku.Solve");
+        assertThat(solveEvents, hasSize(2));
+        // The nested solve call ends first
+        assertThat(solveEvents.get(0).getString("solver"), is(equalTo("BacktrackingSudokuSolver")));
+        assertThat(solveEvents.get(0).getString("outcome"), is(equalTo("SOLVED")));
+        assertThat(solveEvents.get(0).getLong("nodes"), is(greaterThan(0L)));
+        assertThat(solveEvents.get(1).getString("solver"), is(equalTo("DeductiveSudokuSolver")));
+        assertThat(solveEvents.get(1).getString("outcome"), is(equalTo("SOLVED")));
+        assertThat(solveEvents.get(1).getDuration().toNanos(), is(greaterThan(0L)));
+    }
+
+    @Test
+    void solve_recordsDeductionLevelsAndFallback() throws IOException {
+        final List<RecordedEvent> events = record(() -> DeductiveSudokuSolver.createWithFallbackSolver(new PropagatingSudokuSolver())
+                .solve(Sudoku.fromString(HARD_PUZZLE), SolveLimits.NONE));
+
+        final List<RecordedEvent> levelEvents = eventsNamed(events, "de.tilmanschweitzer.sudoku.DeductionLevel");
+        assertThat(levelEvents.size(), is(greaterThan(0)));
+        assertThat(levelEvents.get(0).getInt("previousLevel"), is(equalTo(1)));
+        assertThat(levelEvents.get(0).getInt("level"), is(equalTo(2)));
+
+        final List<RecordedEvent> fallbackEvents = eventsNamed(events, "de.tilmanschweitzer.sudoku.Fallback");
+        assertThat(fallbackEvents, hasSize(1));
+        assertThat(fallbackEvents.get(0).getString("fallbackSolver"), is(equalTo("PropagatingSudokuSolver")));
+        assertThat(fallbackEvents.get(0).getInt("openPositions"), is(greaterThan(0)));
+    }
+
+    @Test
+    void solve_recordsFailedOutcome() throws IOException {
+        final List<RecordedEvent> events = record(() -> new PropagatingSudokuSolver().solve(Sudoku.empty(), SolveLimits.NONE));
+
+        final List<RecordedEvent> solveEvents = eventsNamed(events, "de.tilmanschweitzer.sudoku.Solve");
+        assertThat(solveEvents, hasSize(1));
+        assertThat(solveEvents.get(0).getString("outcome"), is(equalTo("FAILED")));
+    }
+
+    private List<RecordedEvent> record(Runnable runnable) throws IOException {
+        final Path recordingFile = tempDir.resolve("solver.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(SolveEvent.class);
+            recording.enable(DeductionLevelEvent.class);
+            recording.enable(FallbackEvent.class);
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        return RecordingFile.readAllEvents(recordingFile);
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((first, second) -> first.getEndTime().compareTo(second.getEndTime()))
+                .collect(Collectors.toList());
+    }
+}
@@ -3,5 +3,10 @@
 set -e
 
 jar_path=$(ls cli/target/*-jar-with-dependencies.jar)
+archive_path=${jar_path%.jar}.jsa
 
-java -jar ${jar_path} $@
+if [ -f ${archive_path} ]; then
+    java -XX:SharedArchiveFile=${archive_path} -jar ${jar_path} $@
+else
+    java -jar ${jar_path} $@
+fi